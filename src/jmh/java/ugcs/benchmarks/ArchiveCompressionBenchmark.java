@@ -0,0 +1,123 @@
+package ugcs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ugcs.csv.telemetry.TelemetryCsvWriter;
+import ugcs.processing.telemetry.TelemetryProcessor;
+import ugcs.processing.telemetry.frames.TelemetryFrameArchive;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static ugcs.csv.telemetry.TelemetryCsvWriter.CSV_FILE_CHARSET;
+
+/**
+ * Benchmarks of stored telemetry formats: gzip'd csv, plain and compressed binary archives
+ * <p>
+ * Size of the file of each format is printed when the trial is over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ArchiveCompressionBenchmark {
+    public enum Format {
+        CSV_GZIP, ARCHIVE, COMPRESSED_ARCHIVE
+    }
+
+    @Param({"CSV_GZIP", "ARCHIVE", "COMPRESSED_ARCHIVE"})
+    private Format format;
+
+    @Param({"33"})
+    private int fieldCount;
+
+    @Param({"10"})
+    private int sampleRateHz;
+
+    @Param({"600"})
+    private int flightLengthSeconds;
+
+    private TelemetryFrameTable processedTelemetry;
+    private List<String> fieldCodes;
+    private Path file;
+
+    @Setup
+    public void generateTelemetry() throws IOException {
+        processedTelemetry = new TelemetryProcessor(
+                new SyntheticTelemetryGenerator(fieldCount, sampleRateHz, flightLengthSeconds, 1, 42L).generate(),
+                SyntheticTelemetryGenerator.vehicle()).getProcessedTelemetry();
+        fieldCodes = new ArrayList<>(processedTelemetry.getFieldCodes());
+        file = Files.createTempFile("benchmark", ".telemetry");
+        encode();
+    }
+
+    @TearDown
+    public void reportSizeAndDeleteFile() throws IOException {
+        System.out.printf("%n%s: %d rows, %d bytes%n", format, processedTelemetry.getRowCount(), Files.size(file));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Path encode() throws IOException {
+        switch (format) {
+            case CSV_GZIP:
+                final List<String> columnNames = new ArrayList<>();
+                columnNames.add("Time");
+                columnNames.addAll(fieldCodes);
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                    final TelemetryCsvWriter writer = new TelemetryCsvWriter(columnNames, out);
+                    writer.printHeader();
+                    writer.printTelemetryRecords(processedTelemetry);
+                    writer.flush();
+                }
+                break;
+            case ARCHIVE:
+                TelemetryFrameArchive.write(processedTelemetry, fieldCodes, file);
+                break;
+            default:
+                TelemetryFrameArchive.write(processedTelemetry, fieldCodes, file, true);
+        }
+        return file;
+    }
+
+    /**
+     * Csv is only split to values, there is no csv reader in the tool to build the table back
+     */
+    @Benchmark
+    public long decode() throws IOException {
+        if (format != Format.CSV_GZIP) {
+            return TelemetryFrameArchive.open(file).toFrameTable().getRowCount();
+        }
+
+        long valueCount = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), CSV_FILE_CHARSET))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                valueCount += line.split(",", -1).length;
+            }
+        }
+        return valueCount;
+    }
+}
@@ -0,0 +1,104 @@
+package ugcs.benchmarks;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ugcs.csv.telemetry.TelemetryDataSaver;
+import ugcs.processing.telemetry.FlightTelemetry;
+import ugcs.processing.telemetry.TelemetryProcessor;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+import ugcs.upload.logbook.LogbookUploader;
+import ugcs.upload.logbook.MultipartBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static ugcs.csv.telemetry.TelemetryCsvWriter.CSV_FILE_CHARSET;
+
+/**
+ * Benchmarks of telemetry CSV encoding: saving to a file and building the DroneLogbook upload request body
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvEncodingBenchmark {
+    @Param({"8", "33", "100"})
+    private int fieldCount;
+
+    @Param({"10"})
+    private int sampleRateHz;
+
+    @Param({"600"})
+    private int flightLengthSeconds;
+
+    private TelemetryFrameTable processedTelemetry;
+    private FlightTelemetry flight;
+    private Path csvFile;
+
+    /**
+     * Output stream discarding the body, only its size is kept
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long size;
+
+        @Override
+        public void write(int b) {
+            ++size;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            size += len;
+        }
+    }
+
+    @Setup
+    public void generateTelemetry() throws IOException {
+        final Vehicle vehicle = SyntheticTelemetryGenerator.vehicle();
+        processedTelemetry = new TelemetryProcessor(
+                new SyntheticTelemetryGenerator(fieldCount, sampleRateHz, flightLengthSeconds, 1, 42L).generate(),
+                vehicle).getProcessedTelemetry();
+        flight = new TelemetryProcessor(processedTelemetry, vehicle).getFlightTelemetries().get(0);
+        csvFile = Files.createTempFile("benchmark", ".csv");
+    }
+
+    @TearDown
+    public void deleteCsvFile() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public Path saveTelemetryDataToCsvFile() {
+        TelemetryDataSaver.saveTelemetryDataToCsvFile(csvFile, processedTelemetry, processedTelemetry.getFieldCodes());
+        return csvFile;
+    }
+
+    @Benchmark
+    public long buildMultipartBody() throws IOException {
+        final CountingOutputStream body = new CountingOutputStream();
+        new MultipartBody(body, CSV_FILE_CHARSET.displayName(), "===benchmark===")
+                .addFormField("login", "login")
+                .addFormField("password", "d41d8cd98f00b204e9800998ecf8427e")
+                .addFormField("droneId", flight.getDroneSerialNumber())
+                .addFormField("droneName", flight.getDroneName())
+                .addFilePart("data", "flight.csv", out -> LogbookUploader.writeFlightCsv(flight, out))
+                .finish();
+        return body.size;
+    }
+}
@@ -0,0 +1,176 @@
+package ugcs.benchmarks;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import lombok.SneakyThrows;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of flight-like {@link Telemetry} with the fields shaped after the example P4 log
+ * <p>
+ * Field codes and value types are taken from the header and the first values of {@code examples/P4.csv}, extra
+ * fields are added as doubles if more fields are requested than the example has. Flights are separated by an hour
+ * of silence.
+ */
+public final class SyntheticTelemetryGenerator {
+    public static final long FLIGHT_GAP_MS = 60 * 60 * 1000L;
+    public static final long START_TIME = 1524153698252L;
+
+    private static final String EXAMPLE_CSV = "/examples/P4.csv";
+    private static final String[] CONTROL_MODES = {"manual", "auto", "guided", "rtl"};
+
+    private enum FieldType {
+        DOUBLE, INT, BOOLEAN, STRING
+    }
+
+    private final int fieldCount;
+    private final int sampleRateHz;
+    private final int flightLengthSeconds;
+    private final int flightCount;
+    private final long seed;
+
+    public SyntheticTelemetryGenerator(int fieldCount, int sampleRateHz, int flightLengthSeconds, int flightCount,
+                                       long seed) {
+        this.fieldCount = fieldCount;
+        this.sampleRateHz = sampleRateHz;
+        this.flightLengthSeconds = flightLengthSeconds;
+        this.flightCount = flightCount;
+        this.seed = seed;
+    }
+
+    public static Vehicle vehicle() {
+        return Vehicle.newBuilder()
+                .setName("P4")
+                .setSerialNumber("benchmark")
+                .buildPartial();
+    }
+
+    public List<Telemetry> generate() {
+        final List<String> codes = new ArrayList<>();
+        final List<FieldType> types = new ArrayList<>();
+        readExampleFields(codes, types);
+        for (int i = codes.size(); i < fieldCount; i++) {
+            codes.add("synthetic_" + i);
+            types.add(FieldType.DOUBLE);
+        }
+
+        final Random random = new Random(seed);
+        final double[] values = new double[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            values[i] = random.nextDouble();
+        }
+
+        final int framesPerFlight = sampleRateHz * flightLengthSeconds;
+        final List<Telemetry> telemetry = new ArrayList<>(flightCount * framesPerFlight * fieldCount);
+        long flightStart = START_TIME;
+        for (int flight = 0; flight < flightCount; flight++) {
+            for (int frame = 0; frame < framesPerFlight; frame++) {
+                final long time = flightStart + frame * 1000L / sampleRateHz;
+                for (int i = 0; i < fieldCount; i++) {
+                    values[i] += (random.nextDouble() - 0.5) * 1e-3;
+                    telemetry.add(Telemetry.newBuilder()
+                            .setTime(time)
+                            .setTelemetryField(field(codes.get(i)))
+                            .setValue(value(types.get(i), values[i], random))
+                            .buildPartial());
+                }
+            }
+            flightStart += flightLengthSeconds * 1000L + FLIGHT_GAP_MS;
+        }
+        return telemetry;
+    }
+
+    /**
+     * Reads field codes (without the column name prefix) and types of the first {@link #fieldCount} example fields
+     */
+    @SneakyThrows
+    private void readExampleFields(List<String> codes, List<FieldType> types) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                SyntheticTelemetryGenerator.class.getResourceAsStream(EXAMPLE_CSV), StandardCharsets.UTF_8))) {
+            final String[] header = reader.readLine().split(",", -1);
+            final String[] firstValues = new String[header.length];
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] lineValues = line.split(",", -1);
+                for (int i = 0; i < header.length && i < lineValues.length; i++) {
+                    if (firstValues[i] == null && !lineValues[i].isEmpty()) {
+                        firstValues[i] = lineValues[i];
+                    }
+                }
+            }
+
+            for (int i = 1; i < header.length && codes.size() < fieldCount; i++) {
+                final String code = header[i].substring(header[i].indexOf(':') + 1);
+                if (!codes.contains(code)) {
+                    codes.add(code);
+                    types.add(typeOf(firstValues[i]));
+                }
+            }
+        }
+    }
+
+    private static FieldType typeOf(String value) {
+        if (value == null) {
+            return FieldType.DOUBLE;
+        }
+        if ("true".equals(value) || "false".equals(value)) {
+            return FieldType.BOOLEAN;
+        }
+        try {
+            Integer.parseInt(value);
+            return FieldType.INT;
+        } catch (NumberFormatException notInt) {
+            try {
+                Double.parseDouble(value);
+                return FieldType.DOUBLE;
+            } catch (NumberFormatException notDouble) {
+                return FieldType.STRING;
+            }
+        }
+    }
+
+    private static TelemetryField field(String code) {
+        final Semantic semantic;
+        switch (code) {
+            case "latitude":
+                semantic = Semantic.S_LATITUDE;
+                break;
+            case "longitude":
+                semantic = Semantic.S_LONGITUDE;
+                break;
+            default:
+                semantic = Semantic.S_DEFAULT;
+        }
+        return TelemetryField.newBuilder()
+                .setCode(code)
+                .setSemantic(semantic)
+                .buildPartial();
+    }
+
+    private static Value value(FieldType type, double walk, Random random) {
+        final Value.Builder value = Value.newBuilder();
+        switch (type) {
+            case INT:
+                value.setIntValue((int) (walk * 20));
+                break;
+            case BOOLEAN:
+                value.setBoolValue(walk > 0.5);
+                break;
+            case STRING:
+                value.setStringValue(CONTROL_MODES[random.nextInt(CONTROL_MODES.length)]);
+                break;
+            default:
+                value.setDoubleValue(walk);
+        }
+        return value.buildPartial();
+    }
+}
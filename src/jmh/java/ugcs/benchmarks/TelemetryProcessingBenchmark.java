@@ -0,0 +1,74 @@
+package ugcs.benchmarks;
+
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ugcs.processing.telemetry.FlightTelemetry;
+import ugcs.processing.telemetry.TelemetryProcessor;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link TelemetryProcessor} calculations over synthetic telemetry
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TelemetryProcessingBenchmark {
+    private static final long FLIGHT_SEPARATION_THRESHOLD_MS = 5 * 60 * 1000L;
+
+    @Param({"8", "33", "100"})
+    private int fieldCount;
+
+    @Param({"10"})
+    private int sampleRateHz;
+
+    @Param({"600"})
+    private int flightLengthSeconds;
+
+    @Param({"3"})
+    private int flightCount;
+
+    private final Vehicle vehicle = SyntheticTelemetryGenerator.vehicle();
+    private List<Telemetry> telemetry;
+    private TelemetryFrameTable processedTelemetry;
+
+    @Setup
+    public void generateTelemetry() {
+        telemetry = new SyntheticTelemetryGenerator(fieldCount, sampleRateHz, flightLengthSeconds, flightCount, 42L)
+                .generate();
+        processedTelemetry = new TelemetryProcessor(telemetry, vehicle).getProcessedTelemetry();
+    }
+
+    @Benchmark
+    public TelemetryFrameTable getProcessedTelemetry() {
+        return new TelemetryProcessor(telemetry, vehicle).getProcessedTelemetry();
+    }
+
+    @Benchmark
+    public List<FlightTelemetry> getFlightTelemetries() {
+        return new TelemetryProcessor(processedTelemetry, vehicle, FLIGHT_SEPARATION_THRESHOLD_MS)
+                .getFlightTelemetries();
+    }
+
+    @Benchmark
+    public Set<String> getAllFieldCodes() {
+        return new TelemetryProcessor(processedTelemetry, vehicle).getAllFieldCodes();
+    }
+}
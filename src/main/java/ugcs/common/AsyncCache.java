@@ -0,0 +1,121 @@
+package ugcs.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Values loaded by key in background and cached
+ * <p>
+ * A key is loaded once: requests for a key loaded or being loaded return the same future. Keys requested together
+ * are loaded by a single loader call. A key failed to load is dropped and loaded again on the next request.
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ */
+public class AsyncCache<K, V> {
+    private final Executor executor;
+    private final ConcurrentMap<K, CompletableFuture<V>> valuesByKey = new ConcurrentHashMap<>();
+    private final List<BiConsumer<? super K, ? super V>> loadListeners = new CopyOnWriteArrayList<>();
+
+    public AsyncCache(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Adds the listener called once for each loaded key on the loading thread
+     */
+    public void addLoadListener(BiConsumer<? super K, ? super V> listener) {
+        loadListeners.add(listener);
+    }
+
+    /**
+     * @return loaded value of the key, empty if it is not loaded yet
+     */
+    public Optional<V> getLoaded(K key) {
+        final CompletableFuture<V> value = valuesByKey.get(key);
+        if (value == null || !value.isDone() || value.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(value.join());
+    }
+
+    /**
+     * Starts loading of the key unless it is loaded or being loaded
+     */
+    public CompletableFuture<V> load(K key, Supplier<? extends V> loader) {
+        return loadAll(singletonList(key), keys -> singletonMap(key, loader.get())).get(key);
+    }
+
+    /**
+     * Starts loading of the keys not loaded or being loaded by a single call of the loader
+     *
+     * @param loader returns values of the given keys, a key missing in the result fails to load
+     * @return futures of all the given keys
+     */
+    public Map<K, CompletableFuture<V>> loadAll(Collection<K> keys,
+                                                Function<List<K>, Map<K, ? extends V>> loader) {
+        final Map<K, CompletableFuture<V>> values = new LinkedHashMap<>();
+        final Map<K, CompletableFuture<V>> valuesToLoad = new LinkedHashMap<>();
+        for (K key : keys) {
+            final CompletableFuture<V> value = new CompletableFuture<>();
+            final CompletableFuture<V> requestedValue = valuesByKey.putIfAbsent(key, value);
+            if (requestedValue == null) {
+                valuesToLoad.put(key, value);
+            }
+            values.put(key, requestedValue == null ? value : requestedValue);
+        }
+
+        if (!valuesToLoad.isEmpty()) {
+            executor.execute(() -> load(valuesToLoad, loader));
+        }
+        return values;
+    }
+
+    /**
+     * Drops values of the matching keys, so they are loaded again on the next request
+     */
+    public void invalidateIf(Predicate<? super K> predicate) {
+        valuesByKey.keySet().removeIf(predicate);
+    }
+
+    private void load(Map<K, CompletableFuture<V>> valuesToLoad, Function<List<K>, Map<K, ? extends V>> loader) {
+        final Map<K, ? extends V> loadedValues;
+        try {
+            loadedValues = loader.apply(new ArrayList<>(valuesToLoad.keySet()));
+        } catch (RuntimeException e) {
+            valuesToLoad.forEach((key, value) -> fail(key, value, e));
+            return;
+        }
+
+        valuesToLoad.forEach((key, value) -> {
+            final V loadedValue = loadedValues.get(key);
+            if (loadedValue == null) {
+                fail(key, value, new IllegalStateException("Value is not loaded: " + key));
+                return;
+            }
+            value.complete(loadedValue);
+            loadListeners.forEach(listener -> listener.accept(key, loadedValue));
+        });
+    }
+
+    private void fail(K key, CompletableFuture<V> value, RuntimeException error) {
+        valuesByKey.remove(key, value);
+        value.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,137 @@
+package ugcs.common;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Thread-safe lazily evaluated value, declared as a final field of the object owning it
+ * <p>
+ * The value is evaluated on the first {@link #get()} under the lock of the slot and published through a volatile
+ * field, so later calls take a single volatile read. Every slot has its own lock, so the evaluation of one slot can
+ * get other slots of the same object; recursive evaluation of the slot itself fails with
+ * {@link IllegalStateException}. Values of {@link #soft(Supplier)} slots may be reclaimed by the garbage collector
+ * under memory pressure or dropped by {@link #evictSoftValues()}, they are evaluated again by the next call.
+ *
+ * @param <T> type of the value
+ */
+public abstract class Lazy<T> implements Supplier<T> {
+    private static final Set<SoftLazy<?>> SOFT_SLOTS = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private boolean evaluating = false;
+
+    /**
+     * @return slot keeping the value evaluated once, the evaluator is released after evaluation
+     */
+    public static <T> Lazy<T> of(Supplier<? extends T> evaluator) {
+        return new StrongLazy<>(evaluator);
+    }
+
+    /**
+     * @return slot keeping the value by {@link SoftReference}, the evaluator must return a non-null value
+     */
+    public static <T> Lazy<T> soft(Supplier<? extends T> evaluator) {
+        final SoftLazy<T> slot = new SoftLazy<>(evaluator);
+        synchronized (SOFT_SLOTS) {
+            SOFT_SLOTS.add(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Drops values of all reachable soft slots, values still used by their callers are kept by the callers
+     */
+    public static void evictSoftValues() {
+        final List<SoftLazy<?>> slots;
+        synchronized (SOFT_SLOTS) {
+            slots = new ArrayList<>(SOFT_SLOTS);
+        }
+        slots.forEach(SoftLazy::evict);
+    }
+
+    private Lazy() {
+    }
+
+    /**
+     * Should be called under the lock of the slot
+     */
+    final T evaluate(Supplier<? extends T> evaluator) {
+        if (evaluating) {
+            throw new IllegalStateException("Recursive evaluation of lazy value");
+        }
+
+        evaluating = true;
+        try {
+            return evaluator.get();
+        } finally {
+            evaluating = false;
+        }
+    }
+
+    private static final class StrongLazy<T> extends Lazy<T> {
+        private static final Object NOT_EVALUATED = new Object();
+
+        private Supplier<? extends T> evaluator;
+        private volatile Object value = NOT_EVALUATED;
+
+        private StrongLazy(Supplier<? extends T> evaluator) {
+            this.evaluator = requireNonNull(evaluator);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get() {
+            Object result = value;
+            if (result == NOT_EVALUATED) {
+                synchronized (this) {
+                    result = value;
+                    if (result == NOT_EVALUATED) {
+                        result = evaluate(evaluator);
+                        value = result;
+                        evaluator = null;
+                    }
+                }
+            }
+            return (T) result;
+        }
+    }
+
+    private static final class SoftLazy<T> extends Lazy<T> {
+        private final Supplier<? extends T> evaluator;
+        private volatile SoftReference<T> reference = null;
+
+        private SoftLazy(Supplier<? extends T> evaluator) {
+            this.evaluator = requireNonNull(evaluator);
+        }
+
+        @Override
+        public T get() {
+            T result = dereference();
+            if (result == null) {
+                synchronized (this) {
+                    result = dereference();
+                    if (result == null) {
+                        result = requireNonNull(evaluate(evaluator), "Soft lazy value must not be null");
+                        reference = new SoftReference<>(result);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void evict() {
+            reference = null;
+        }
+
+        private T dereference() {
+            final SoftReference<T> currentReference = reference;
+            return currentReference == null ? null : currentReference.get();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ugcs.common;
+
+import ugcs.common.metrics.Counter;
+
+import javax.management.NotificationEmitter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
+
+/**
+ * Notifies listeners when a heap memory pool stays above the usage threshold after garbage collection
+ * <p>
+ * The threshold is set as a fraction of the maximum size of every heap {@link MemoryPoolMXBean} supporting
+ * collection usage thresholds, so listeners are called when memory is still in use after a collection, not on every
+ * allocation peak. Listeners are called on the JMX notification thread.
+ */
+public class MemoryPressureMonitor {
+    public static final double DEFAULT_USAGE_THRESHOLD = 0.75;
+
+    private static final Counter PRESSURE_EVENTS =
+            metrics().counter("memory_pressure_events_total", "Heap usage threshold exceeded after collection");
+
+    private final List<Runnable> pressureListeners = new CopyOnWriteArrayList<>();
+    private boolean started = false;
+
+    private static volatile MemoryPressureMonitor instance;
+
+    public static MemoryPressureMonitor memoryMonitor() {
+        if (instance == null) {
+            synchronized (MemoryPressureMonitor.class) {
+                if (instance == null) {
+                    instance = new MemoryPressureMonitor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private MemoryPressureMonitor() {
+    }
+
+    public void addPressureListener(Runnable listener) {
+        pressureListeners.add(listener);
+    }
+
+    /**
+     * @param usageThreshold fraction of the maximum pool size used after collection to notify listeners at
+     */
+    public synchronized void start(double usageThreshold) {
+        if (usageThreshold <= 0 || usageThreshold >= 1) {
+            throw new IllegalArgumentException("Usage threshold must be between 0 and 1");
+        }
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            final long maxSize = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && maxSize > 0) {
+                pool.setCollectionUsageThreshold((long) (maxSize * usageThreshold));
+            }
+        }
+
+        if (!started) {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(
+                    (notification, handback) -> notifyPressure(),
+                    notification -> MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED
+                            .equals(notification.getType()),
+                    null);
+            started = true;
+        }
+    }
+
+    private void notifyPressure() {
+        PRESSURE_EVENTS.increment();
+        getLogger(MemoryPressureMonitor.class).info("Heap usage threshold exceeded after collection");
+        for (Runnable listener : pressureListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                getLogger(MemoryPressureMonitor.class).warn("Memory pressure listener failed", e);
+            }
+        }
+    }
+}
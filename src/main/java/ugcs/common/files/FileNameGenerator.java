@@ -1,8 +1,8 @@
 package ugcs.common.files;
 
 import java.nio.file.Path;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.stream.Stream;
 
@@ -13,7 +13,8 @@ import static java.util.stream.Collectors.joining;
  * Generates unique file name from given tokens on given path in the file system
  */
 public class FileNameGenerator {
-    private static final DateFormat FILE_DATE_FORMAT = new SimpleDateFormat("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter FILE_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").withZone(ZoneId.systemDefault());
 
     private final Path targetFolder;
     private final String extension;
@@ -51,6 +52,6 @@ public class FileNameGenerator {
     }
 
     private static String dateToString(Date date) {
-        return FILE_DATE_FORMAT.format(date);
+        return FILE_DATE_FORMAT.format(date.toInstant());
     }
 }
@@ -0,0 +1,37 @@
+package ugcs.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonically growing count of events, records or bytes
+ */
+public final class Counter extends Metric {
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, String help) {
+        super(name, help);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    void writePrometheusText(StringBuilder out) {
+        appendHeader(out, "counter");
+        out.append(getName()).append(' ').append(getCount()).append('\n');
+    }
+
+    @Override
+    public String getSummary() {
+        return String.valueOf(getCount());
+    }
+}
@@ -0,0 +1,30 @@
+package ugcs.common.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Current value, such as a queue depth, read when the metric is reported
+ */
+public final class Gauge extends Metric {
+    private final LongSupplier value;
+
+    Gauge(String name, String help, LongSupplier value) {
+        super(name, help);
+        this.value = value;
+    }
+
+    public long getValue() {
+        return value.getAsLong();
+    }
+
+    @Override
+    void writePrometheusText(StringBuilder out) {
+        appendHeader(out, "gauge");
+        out.append(getName()).append(' ').append(getValue()).append('\n');
+    }
+
+    @Override
+    public String getSummary() {
+        return String.valueOf(getValue());
+    }
+}
@@ -0,0 +1,126 @@
+package ugcs.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * Distribution of non-negative values with percentile estimates
+ * <p>
+ * Values are counted in log-linear buckets: values below 16 exactly, greater values by eighths of each power of two,
+ * so estimated percentiles are within 12.5% of the recorded values. Recording is lock-free.
+ */
+public class Histogram extends Metric {
+    private static final int EXACT_VALUES = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 4;
+    private static final int BUCKET_COUNT = EXACT_VALUES + (Long.SIZE - 1 - MIN_EXPONENT) * SUB_BUCKETS;
+
+    static final double[] REPORTED_QUANTILES = {0.5, 0.9, 0.99};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final double exportScale;
+
+    Histogram(String name, String help) {
+        this(name, help, 1.0);
+    }
+
+    /**
+     * @param exportScale multiplier of values exported in Prometheus format, to report them in base units
+     */
+    Histogram(String name, String help, double exportScale) {
+        super(name, help);
+        this.exportScale = exportScale;
+    }
+
+    public void record(long value) {
+        final long nonNegativeValue = Math.max(0L, value);
+        buckets.incrementAndGet(bucketOf(nonNegativeValue));
+        count.increment();
+        sum.add(nonNegativeValue);
+        max.accumulateAndGet(nonNegativeValue, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return estimated value not exceeded by the given share of the recorded values, zero if nothing is recorded
+     */
+    public long getPercentile(double quantile) {
+        final long total = getCount();
+        if (total == 0) {
+            return 0L;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(bucketMidpoint(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    void writePrometheusText(StringBuilder out) {
+        appendHeader(out, "summary");
+        for (double quantile : REPORTED_QUANTILES) {
+            out.append(getName()).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(getPercentile(quantile) * exportScale).append('\n');
+        }
+        out.append(getName()).append("_sum ").append(getSum() * exportScale).append('\n');
+        out.append(getName()).append("_count ").append(getCount()).append('\n');
+    }
+
+    @Override
+    public String getSummary() {
+        return format("count %d, p50 %s, p90 %s, p99 %s, max %s", getCount(),
+                formatValue(getPercentile(0.5)), formatValue(getPercentile(0.9)), formatValue(getPercentile(0.99)),
+                formatValue(getMax()));
+    }
+
+    /**
+     * @return value in the units shown to the user
+     */
+    public String formatValue(long value) {
+        return String.valueOf(value);
+    }
+
+    static int bucketOf(long value) {
+        if (value < EXACT_VALUES) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_VALUES + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketMidpoint(int bucket) {
+        if (bucket < EXACT_VALUES) {
+            return bucket;
+        }
+        final int exponent = (bucket - EXACT_VALUES) / SUB_BUCKETS + MIN_EXPONENT;
+        final int subBucket = (bucket - EXACT_VALUES) % SUB_BUCKETS;
+        final long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + width / 2;
+    }
+}
@@ -0,0 +1,37 @@
+package ugcs.common.metrics;
+
+/**
+ * Named measurement registered in {@link MetricsRegistry}
+ */
+public abstract class Metric {
+    private final String name;
+    private final String help;
+
+    Metric(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Appends samples of the metric in Prometheus text exposition format
+     */
+    abstract void writePrometheusText(StringBuilder out);
+
+    /**
+     * @return short human readable state of the metric
+     */
+    public abstract String getSummary();
+
+    void appendHeader(StringBuilder out, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+}
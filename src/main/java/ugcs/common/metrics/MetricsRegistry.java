@@ -0,0 +1,162 @@
+package ugcs.common.metrics;
+
+import lombok.SneakyThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Registry of application metrics: counters, gauges, histograms and timers of the hot paths
+ * <p>
+ * Metrics are registered once by name and updated without locking, so they are cheap enough for per-request and
+ * per-record call sites. Registered metrics are shown by the diagnostics form and exported in Prometheus text format.
+ */
+public class MetricsRegistry {
+    private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+    private ScheduledExecutorService exportExecutor;
+
+    private static volatile MetricsRegistry instance;
+
+    public static MetricsRegistry metrics() {
+        if (instance == null) {
+            synchronized (MetricsRegistry.class) {
+                if (instance == null) {
+                    instance = new MetricsRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    MetricsRegistry() {
+    }
+
+    public Counter counter(String name, String help) {
+        return register(name, Counter.class, metricName -> new Counter(metricName, help));
+    }
+
+    public Histogram histogram(String name, String help) {
+        return register(name, Histogram.class, metricName -> new Histogram(metricName, help));
+    }
+
+    public Timer timer(String name, String help) {
+        return register(name, Timer.class, metricName -> new Timer(metricName, help));
+    }
+
+    /**
+     * Registers the gauge, a gauge previously registered with the same name is replaced
+     */
+    public Gauge gauge(String name, String help, LongSupplier value) {
+        final Gauge gauge = new Gauge(name, help, value);
+        metrics.compute(name, (metricName, previous) -> {
+            if (previous != null && !(previous instanceof Gauge)) {
+                throw new IllegalStateException("Metric " + name + " is already registered as "
+                        + previous.getClass().getSimpleName());
+            }
+            return gauge;
+        });
+        return gauge;
+    }
+
+    /**
+     * @return registered metrics ordered by name
+     */
+    public List<Metric> getMetrics() {
+        final List<Metric> sortedMetrics = new ArrayList<>(metrics.values());
+        sortedMetrics.sort(Comparator.comparing(Metric::getName));
+        return sortedMetrics;
+    }
+
+    public String toPrometheusText() {
+        final StringBuilder out = new StringBuilder();
+        getMetrics().forEach(metric -> metric.writePrometheusText(out));
+        return out.toString();
+    }
+
+    /**
+     * Writes all metrics in Prometheus text format, the file is replaced atomically so it is never read half-written
+     */
+    @SneakyThrows
+    public void exportToFile(Path file) {
+        final Path absoluteFile = file.toAbsolutePath();
+        Files.createDirectories(absoluteFile.getParent());
+        final Path temporaryFile = Files.createTempFile(absoluteFile.getParent(), "metrics", ".tmp");
+        try {
+            Files.write(temporaryFile, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporaryFile, absoluteFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Exports metrics to the file every interval until {@link #stopPeriodicExport()}, replacing the previous export
+     */
+    public synchronized void startPeriodicExport(Path file, long intervalMs) {
+        stopPeriodicExport();
+        exportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exportExecutor.scheduleWithFixedDelay(() -> exportQuietly(file), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopPeriodicExport() {
+        if (exportExecutor != null) {
+            exportExecutor.shutdownNow();
+            exportExecutor = null;
+        }
+    }
+
+    /**
+     * Stops periodic export and writes the final metrics, a failed export is only logged so it never blocks the exit
+     */
+    public void exportOnExit(Path file) {
+        stopPeriodicExport();
+        exportQuietly(file);
+    }
+
+    /**
+     * @return summary of all metrics for the log
+     */
+    public String getStatisticsReport() {
+        final StringBuilder report = new StringBuilder("Metrics:");
+        getMetrics().forEach(metric ->
+                report.append(System.lineSeparator()).append("  ").append(metric.getName()).append(": ")
+                        .append(metric.getSummary()));
+        return report.toString();
+    }
+
+    private void exportQuietly(Path file) {
+        try {
+            exportToFile(file);
+        } catch (Exception e) {
+            getLogger(MetricsRegistry.class).warn("Metrics export to " + file + " failed", e);
+        }
+    }
+
+    private <M extends Metric> M register(String name, Class<M> type, Function<String, M> factory) {
+        final Metric metric = metrics.computeIfAbsent(name, factory);
+        if (metric.getClass() != type) {
+            throw new IllegalStateException("Metric " + name + " is already registered as "
+                    + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+}
@@ -0,0 +1,64 @@
+package ugcs.common.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * {@link Histogram} of durations, recorded in nanoseconds and exported in seconds
+ */
+public final class Timer extends Histogram {
+    private static final double SECONDS_PER_NANO = 1e-9;
+
+    /**
+     * Measurement in progress, recorded on {@link #close()}
+     */
+    public final class Sample implements AutoCloseable {
+        private final long startNanos = System.nanoTime();
+
+        private Sample() {
+        }
+
+        @Override
+        public void close() {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    Timer(String name, String help) {
+        super(name, help, SECONDS_PER_NANO);
+    }
+
+    public Sample start() {
+        return new Sample();
+    }
+
+    public <V> V time(Supplier<V> operation) {
+        final Sample sample = start();
+        try {
+            return operation.get();
+        } finally {
+            sample.close();
+        }
+    }
+
+    public <V> V timeCallable(Callable<V> operation) throws Exception {
+        final Sample sample = start();
+        try {
+            return operation.call();
+        } finally {
+            sample.close();
+        }
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration));
+    }
+
+    @Override
+    public String formatValue(long nanos) {
+        return format("%.1f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,86 @@
+package ugcs.common.operation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * {@link CompletableFuture} of a task which thread is interrupted when the future is cancelled
+ * <p>
+ * Cancelling a future created by {@link #thenApplyInterruptibly(Function, Executor)} cancels the previous stages too,
+ * so a whole chain of stages is stopped by cancelling its last future.
+ *
+ * @param <V> type of the task result
+ */
+public final class InterruptibleFuture<V> extends CompletableFuture<V> {
+    private final CompletableFuture<?> previousStage;
+    private Thread thread;
+
+    private InterruptibleFuture(CompletableFuture<?> previousStage) {
+        this.previousStage = previousStage;
+    }
+
+    public static <V> InterruptibleFuture<V> supplyInterruptibly(Callable<V> task, Executor executor) {
+        final InterruptibleFuture<V> future = new InterruptibleFuture<>(null);
+        future.runOn(executor, task);
+        return future;
+    }
+
+    public <U> InterruptibleFuture<U> thenApplyInterruptibly(Function<? super V, ? extends U> function,
+                                                             Executor executor) {
+        final InterruptibleFuture<U> nextStage = new InterruptibleFuture<>(this);
+        whenComplete((value, error) -> {
+            if (error != null) {
+                nextStage.completeExceptionally(error);
+            } else {
+                nextStage.runOn(executor, () -> function.apply(value));
+            }
+        });
+        return nextStage;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        final boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled && mayInterruptIfRunning) {
+            synchronized (this) {
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+        if (previousStage != null) {
+            previousStage.cancel(mayInterruptIfRunning);
+        }
+        return cancelled;
+    }
+
+    private void runOn(Executor executor, Callable<V> task) {
+        try {
+            executor.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            completeExceptionally(e);
+        }
+    }
+
+    private void run(Callable<V> task) {
+        synchronized (this) {
+            if (isDone()) {
+                return;
+            }
+            thread = Thread.currentThread();
+        }
+        try {
+            complete(task.call());
+        } catch (Throwable e) {
+            completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                thread = null;
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -57,6 +57,13 @@ public class Operation<T extends Identity<?>, R> {
         return new Operation<>(operation.getId(), null, CANCELLED, null, operation.getOperation());
     }
 
+    /**
+     * @return the same operation without the callable, so objects captured by the callable can be collected
+     */
+    static <T extends Identity<?>, R> Operation<T, R> toRetained(Operation<T, R> operation) {
+        return new Operation<>(operation.getId(), operation.result, operation.getState(), operation.error, null);
+    }
+
     public Optional<R> getResult() {
         return ofNullable(result);
     }
@@ -72,4 +79,8 @@ public class Operation<T extends Identity<?>, R> {
     public boolean isCancelled() {
         return CANCELLED == getState();
     }
+
+    public boolean isCompleted() {
+        return PERFORMED == getState() || FAULT == getState() || CANCELLED == getState();
+    }
 }
@@ -0,0 +1,17 @@
+package ugcs.common.operation;
+
+import ugcs.common.identity.Identity;
+
+/**
+ * Listener of {@link Operation} state changes published by {@link OperationPerformer}
+ *
+ * @param <T> identity type for operation tracking
+ * @param <R> type of operation result
+ */
+@FunctionalInterface
+public interface OperationListener<T extends Identity<?>, R> {
+    /**
+     * Called on the thread changing the state, so it has to be fast and thread-safe
+     */
+    void operationChanged(Operation<T, R> operation);
+}
@@ -1,85 +1,364 @@
 package ugcs.common.operation;
 
 import ugcs.common.identity.Identity;
+import ugcs.common.metrics.Counter;
+import ugcs.common.metrics.Timer;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
 import static ugcs.common.operation.Operation.toCancelled;
 import static ugcs.common.operation.Operation.toFault;
 import static ugcs.common.operation.Operation.toPerformed;
 import static ugcs.common.operation.Operation.toPerforming;
+import static ugcs.common.operation.Operation.toRetained;
 
 /**
  * Wrapper for {@link ExecutorService} for performing and tracking {@link Operation} in separate threads
+ * <p>
+ * Waiting operations are started in order of their priority, operations of the same priority in order of submission.
+ * Every state change is published to the {@link OperationListener}s. A cancelled operation is completed at once: it is
+ * removed from the queue if it is waiting, otherwise the thread performing it is interrupted and the rest of its
+ * stages is cancelled.
+ * <p>
+ * Only a bounded number of the latest completed operations is kept for {@link #getOperation(Identity)}, without their
+ * callables, so results and objects captured by the callables of older operations can be collected.
+ * <p>
+ * Queue depth, waiting and performing times of the operations are reported as metrics named by the given prefix.
  *
  * @param <T> identity type for operation tracking
  * @param <R> type of operation result
  */
 public class OperationPerformer<T extends Identity<?>, R> {
+    public static final long DEFAULT_PRIORITY = 0L;
+    public static final int DEFAULT_RETAINED_OPERATIONS = 1000;
+
     private final ExecutorService executorService;
-    private final ConcurrentMap<T, Operation<T, R>> operations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<T, Operation<T, R>> activeOperations = new ConcurrentHashMap<>();
+    private final Map<T, Operation<T, R>> completedOperations;
+    private final ConcurrentMap<T, Task> tasks = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Task> waitingTasks = new PriorityBlockingQueue<>();
+    private final AtomicLong submissionCounter = new AtomicLong();
+    private final List<OperationListener<T, R>> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger queuedOperations = new AtomicInteger();
+    private final AtomicInteger performingOperations = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer durationTimer;
+    private final Counter failedOperations;
+    private final Counter cancelledOperations;
 
     public OperationPerformer(ExecutorService executorService) {
+        this("operations", executorService);
+    }
+
+    public OperationPerformer(String metricsPrefix, ExecutorService executorService) {
+        this(metricsPrefix, executorService, DEFAULT_RETAINED_OPERATIONS);
+    }
+
+    /**
+     * @param retainedOperations number of the latest completed operations kept for {@link #getOperation(Identity)}
+     */
+    public OperationPerformer(String metricsPrefix, ExecutorService executorService, int retainedOperations) {
         this.executorService = executorService;
+        this.completedOperations = new LinkedHashMap<T, Operation<T, R>>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<T, Operation<T, R>> eldest) {
+                return size() > retainedOperations;
+            }
+        };
+
+        metrics().gauge(metricsPrefix + "_queued", "Operations waiting for a thread", queuedOperations::get);
+        metrics().gauge(metricsPrefix + "_active", "Operations being performed", performingOperations::get);
+        metrics().gauge(metricsPrefix + "_retained", "Completed operations kept for lookup",
+                this::getRetainedOperationCount);
+        this.waitTimer = metrics().timer(metricsPrefix + "_wait_seconds", "Time from submission to start");
+        this.durationTimer = metrics().timer(metricsPrefix + "_duration_seconds", "Time from start to completion");
+        this.failedOperations = metrics().counter(metricsPrefix + "_failed_total", "Operations completed with fault");
+        this.cancelledOperations = metrics().counter(metricsPrefix + "_cancelled_total", "Operations cancelled");
     }
 
     public void shutDown() {
         getExecutorService().shutdown();
     }
 
-    public Future<Operation<T, R>> submit(T operationId, Callable<R> callable) {
-        final Operation<T, R> newOperation = Operation.of(operationId, callable);
-        updateOperations(operationId, newOperation);
+    public void addListener(OperationListener<T, R> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OperationListener<T, R> listener) {
+        listeners.remove(listener);
+    }
+
+    public CompletableFuture<Operation<T, R>> submit(T operationId, Callable<R> callable) {
+        return submit(operationId, DEFAULT_PRIORITY, callable);
+    }
+
+    /**
+     * @param priority operations of greater priority are started first
+     */
+    public CompletableFuture<Operation<T, R>> submit(T operationId, long priority, Callable<R> callable) {
+        return enqueue(new Task(Operation.of(operationId, callable), priority,
+                () -> completedFuture(callable.call())));
+    }
 
-        return executorService.submit(() -> {
-            final Operation<T, R> operation =
-                    operations.computeIfPresent(operationId, (_unused_, currentOperationState) -> {
-                        if (currentOperationState.isCancelled()) {
-                            return currentOperationState;
-                        } else {
-                            return toPerforming(newOperation);
-                        }
-                    });
+    public CompletableFuture<Operation<T, R>> submitStaged(T operationId,
+                                                           Callable<? extends CompletionStage<R>> firstStage) {
+        return submitStaged(operationId, DEFAULT_PRIORITY, firstStage);
+    }
 
-            if (requireNonNull(operation).isCancelled()) {
-                return operation;
+    /**
+     * Submits an operation which is started on the performer's executor and continued on other executors
+     * <p>
+     * The first stage is called on the performer's executor and returns the rest of the operation as
+     * {@link CompletionStage}, so the performer's thread is released as soon as the first stage is done. The operation
+     * is tracked and can be cancelled the same way as one submitted by {@link #submit(Identity, long, Callable)}, the
+     * rest of the operation is cancelled through {@link CompletableFuture#cancel(boolean)}.
+     *
+     * @param priority operations of greater priority are started first
+     */
+    public CompletableFuture<Operation<T, R>> submitStaged(T operationId, long priority,
+                                                           Callable<? extends CompletionStage<R>> firstStage) {
+        return enqueue(new Task(Operation.of(operationId, () -> firstStage.call().toCompletableFuture().get()),
+                priority, firstStage));
+    }
+
+    /**
+     * @return true if the operation was waiting or being performed and is cancelled now
+     */
+    public boolean cancel(T operationId) {
+        final Task task = tasks.get(operationId);
+        return task != null && task.cancel(true);
+    }
+
+    /**
+     * Cancels both waiting operations and operations being performed
+     */
+    public void cancelAll() {
+        tasks.values().forEach(task -> task.cancel(true));
+    }
+
+    public void cancelAllWaitingOperations() {
+        tasks.values().forEach(task -> task.cancel(false));
+    }
+
+    /**
+     * @return current state of the operation, completed operations are returned without their callables
+     */
+    public Optional<Operation<T, R>> getOperation(T operationId) {
+        final Operation<T, R> activeOperation = activeOperations.get(operationId);
+        if (activeOperation != null) {
+            return Optional.of(activeOperation);
+        }
+        synchronized (completedOperations) {
+            return Optional.ofNullable(completedOperations.get(operationId));
+        }
+    }
+
+    private CompletableFuture<Operation<T, R>> enqueue(Task task) {
+        tasks.put(task.getId(), task);
+        changeState(task.initialState);
+
+        queuedOperations.incrementAndGet();
+        waitingTasks.add(task);
+        try {
+            executorService.execute(this::performNext);
+        } catch (RejectedExecutionException e) {
+            if (waitingTasks.remove(task)) {
+                queuedOperations.decrementAndGet();
             }
+            tasks.remove(task.getId(), task);
+            throw e;
+        }
+        return task.future;
+    }
+
+    /**
+     * Every submission schedules one call, so each task is taken from the queue either here or by its cancellation
+     */
+    private void performNext() {
+        final Task task = waitingTasks.poll();
+        if (task != null) {
+            task.perform();
+        }
+    }
 
+    private void changeState(Operation<T, R> operation) {
+        if (operation.isCompleted()) {
+            synchronized (completedOperations) {
+                completedOperations.put(operation.getId(), toRetained(operation));
+            }
+            activeOperations.remove(operation.getId());
+        } else {
+            activeOperations.put(operation.getId(), operation);
+            synchronized (completedOperations) {
+                completedOperations.remove(operation.getId());
+            }
+        }
+        for (OperationListener<T, R> listener : listeners) {
             try {
-                final R result = operation.getOperation().call();
-                final Operation<T, R> performedOperation = toPerformed(operation, result);
-                updateOperations(operationId, performedOperation);
-                return performedOperation;
-            } catch (Exception e) {
-                final Operation<T, R> faultOperation = toFault(operation, e);
-                updateOperations(operationId, faultOperation);
-                return faultOperation;
+                listener.operationChanged(operation);
+            } catch (RuntimeException e) {
+                getLogger(OperationPerformer.class).warn("Operation listener failed", e);
             }
-        });
+        }
     }
 
-    public void cancelAllWaitingOperations() {
-        operations.keySet().forEach(
-                id -> operations.computeIfPresent(id, (_unused_, operation) -> {
-                    if (operation.isNotStarted()) {
-                        return toCancelled(operation);
-                    } else {
-                        return operation;
-                    }
-                })
-        );
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private int getRetainedOperationCount() {
+        synchronized (completedOperations) {
+            return completedOperations.size();
+        }
     }
 
     private ExecutorService getExecutorService() {
         return executorService;
     }
 
-    private void updateOperations(T key, Operation<T, R> newState) {
-        operations.put(key, newState);
+    /**
+     * Submitted operation with the state of its execution, guarded by the task itself
+     */
+    private final class Task implements Comparable<Task> {
+        private final Operation<T, R> initialState;
+        private final long priority;
+        private final long submissionNumber = submissionCounter.getAndIncrement();
+        private final long submittedNanos = System.nanoTime();
+        private final Callable<? extends CompletionStage<R>> firstStage;
+        private final CompletableFuture<Operation<T, R>> future = new CompletableFuture<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private boolean started;
+        private boolean cancelled;
+        private long startedNanos;
+        private Thread thread;
+        private CompletableFuture<R> remainingStages;
+
+        private Task(Operation<T, R> initialState, long priority, Callable<? extends CompletionStage<R>> firstStage) {
+            this.initialState = initialState;
+            this.priority = priority;
+            this.firstStage = firstStage;
+        }
+
+        private T getId() {
+            return initialState.getId();
+        }
+
+        private void perform() {
+            queuedOperations.decrementAndGet();
+            waitTimer.record(System.nanoTime() - submittedNanos);
+
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                started = true;
+                startedNanos = System.nanoTime();
+                thread = Thread.currentThread();
+                performingOperations.incrementAndGet();
+                changeState(toPerforming(initialState));
+            }
+
+            final CompletableFuture<R> stages;
+            try {
+                stages = firstStage.call().toCompletableFuture();
+            } catch (Exception e) {
+                complete(toFault(initialState, e));
+                return;
+            } finally {
+                synchronized (this) {
+                    thread = null;
+                    Thread.interrupted();
+                }
+            }
+
+            synchronized (this) {
+                remainingStages = stages;
+                if (cancelled) {
+                    stages.cancel(true);
+                }
+            }
+            stages.whenComplete((result, error) -> complete(error == null
+                    ? toPerformed(initialState, result)
+                    : toFault(initialState, unwrap(error))));
+        }
+
+        private boolean cancel(boolean interruptIfStarted) {
+            final CompletableFuture<R> stagesToCancel;
+            synchronized (this) {
+                if (started && !interruptIfStarted || !completed.compareAndSet(false, true)) {
+                    return false;
+                }
+                cancelled = true;
+                if (!started && waitingTasks.remove(this)) {
+                    queuedOperations.decrementAndGet();
+                }
+                if (thread != null) {
+                    thread.interrupt();
+                }
+                stagesToCancel = remainingStages;
+            }
+
+            publishCompletion(toCancelled(initialState));
+            if (stagesToCancel != null) {
+                stagesToCancel.cancel(true);
+            }
+            return true;
+        }
+
+        private void complete(Operation<T, R> completedOperation) {
+            if (completed.compareAndSet(false, true)) {
+                publishCompletion(completedOperation);
+            }
+        }
+
+        private void publishCompletion(Operation<T, R> completedOperation) {
+            synchronized (this) {
+                if (started) {
+                    durationTimer.record(System.nanoTime() - startedNanos);
+                    performingOperations.decrementAndGet();
+                }
+            }
+            if (completedOperation.isCancelled()) {
+                cancelledOperations.increment();
+            } else if (completedOperation.getError().isPresent()) {
+                failedOperations.increment();
+            }
+
+            changeState(completedOperation);
+            tasks.remove(getId(), this);
+            future.complete(completedOperation);
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return Long.compare(other.priority, priority);
+            }
+            return Long.compare(submissionNumber, other.submissionNumber);
+        }
     }
 }
@@ -1,6 +1,6 @@
 package ugcs.common.security;
 
-import ugcs.common.LazyFieldEvaluator;
+import ugcs.common.Lazy;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -13,27 +13,30 @@ import static javax.xml.bind.DatatypeConverter.printHexBinary;
 /**
  * Class for message digest calculation by MD5 algorithm
  */
-public class MD5HashCalculator extends LazyFieldEvaluator {
+public class MD5HashCalculator {
     private static final Predicate<String> MD5_HASH_PREDICATE = Pattern.compile("^[a-fA-F0-9]{32}$").asPredicate();
 
     private final String rawPasswordOrMd5Hash;
+    private final Lazy<String> md5Hash = Lazy.of(this::evaluateHash);
 
     public static MD5HashCalculator of(String rawPasswordOrMd5Hash) {
         return new MD5HashCalculator(rawPasswordOrMd5Hash);
     }
 
     public String hash() {
-        return evaluateField("md5Hash",
-                () -> Optional.of(rawPasswordOrMd5Hash)
-                        .filter(MD5_HASH_PREDICATE)
-                        .orElseGet(() -> calculateMd5Hash(rawPasswordOrMd5Hash.getBytes()))
-        );
+        return md5Hash.get();
     }
 
     private MD5HashCalculator(String rawPasswordOrMd5Hash) {
         this.rawPasswordOrMd5Hash = rawPasswordOrMd5Hash;
     }
 
+    private String evaluateHash() {
+        return Optional.of(rawPasswordOrMd5Hash)
+                .filter(MD5_HASH_PREDICATE)
+                .orElseGet(() -> calculateMd5Hash(rawPasswordOrMd5Hash.getBytes()));
+    }
+
     private static String calculateMd5Hash(byte[] rawData) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
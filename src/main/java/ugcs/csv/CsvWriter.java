@@ -1,59 +1,164 @@
 package ugcs.csv;
 
-import org.apache.commons.lang3.tuple.Pair;
+import ugcs.common.metrics.Counter;
 
-import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
-import static com.ugcs.common.util.Strings.isNullOrEmpty;
 import static java.util.Collections.unmodifiableList;
-import static java.util.stream.Collectors.joining;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
 
 /**
  * Helper class for writing csv-records to given {@link OutputStream}
+ * <p>
+ * Each record keeps the last non-empty value of a column if no new value is set for it (forward fill). Records are
+ * accumulated in a reusable buffer and written to the stream only when the buffer is full or on {@link #flush()},
+ * so callers have to flush the writer when done. Written records and characters are counted when the buffer is
+ * drained.
  */
-public class CsvWriter {
-    private final static String CSV_SEPARATOR = ",";
+public class CsvWriter implements Flushable {
+    private final static char CSV_SEPARATOR = ',';
+    private final static String LINE_SEPARATOR = System.lineSeparator();
+    private final static int BUFFER_SIZE = 1 << 16;
 
-    private final PrintWriter writer;
+    private static final Counter WRITTEN_RECORDS = metrics().counter("csv_records_total", "Csv records written");
+    private static final Counter WRITTEN_CHARS = metrics().counter("csv_chars_total", "Csv characters written");
+
+    private final Writer writer;
     private final List<String> columnNames;
-    private final Map<String, String> currentCsvRecord;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferLength = 0;
+    private long bufferedRecords = 0;
+
+    private StringBuilder[] currentValues;
+    private StringBuilder[] newValues;
 
     public CsvWriter(List<String> columnNames, OutputStream out, Charset charset) {
         this.columnNames = unmodifiableList(columnNames);
-        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, charset)));
-        currentCsvRecord = new HashMap<>();
-        this.columnNames.forEach(columnName -> currentCsvRecord.put(columnName, ""));
+        writer = new OutputStreamWriter(out, charset);
+        currentValues = new StringBuilder[columnNames.size()];
+        newValues = new StringBuilder[columnNames.size()];
+        for (int i = 0; i < columnNames.size(); i++) {
+            currentValues[i] = new StringBuilder();
+            newValues[i] = new StringBuilder();
+        }
     }
 
     public void printHeader(Function<String, String> columnNameMapper) {
-        writer.println(columnNames.stream()
-                .map(columnNameMapper)
-                .collect(Collectors.joining(CSV_SEPARATOR))
-        );
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (i > 0) {
+                append(CSV_SEPARATOR);
+            }
+            append(columnNameMapper.apply(columnNames.get(i)));
+        }
+        append(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void flush() {
+        drainBuffer();
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected List<String> getColumnNames() {
+        return columnNames;
     }
 
     protected void printRecord(Function<String, String> columnNameToValueFunction) {
-        columnNames.stream()
-                .map(colName -> Pair.of(colName, columnNameToValueFunction.apply(colName)))
-                .forEach(pair -> {
-                    if (!isNullOrEmpty(pair.getRight())) {
-                        currentCsvRecord.put(pair.getLeft(), pair.getRight());
-                    }
-                });
-
-        writer.println(columnNames.stream()
-                .map(currentCsvRecord::get)
-                .collect(joining(CSV_SEPARATOR)));
-
-        writer.flush();
+        for (int i = 0; i < columnNames.size(); i++) {
+            final String value = columnNameToValueFunction.apply(columnNames.get(i));
+            if (value != null) {
+                newValue(i).append(value);
+            }
+        }
+        printRecord();
+    }
+
+    /**
+     * Returns an empty builder for the value of the column in the record being printed, a value left empty keeps the
+     * previous value of the column
+     */
+    protected StringBuilder newValue(int columnIndex) {
+        final StringBuilder value = newValues[columnIndex];
+        value.setLength(0);
+        return value;
+    }
+
+    /**
+     * Prints the record built with {@link #newValue(int)} calls
+     */
+    protected void printRecord() {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (newValues[i].length() > 0) {
+                final StringBuilder previousValue = currentValues[i];
+                currentValues[i] = newValues[i];
+                newValues[i] = previousValue;
+            }
+            newValues[i].setLength(0);
+
+            if (i > 0) {
+                append(CSV_SEPARATOR);
+            }
+            append(currentValues[i]);
+        }
+        append(LINE_SEPARATOR);
+        ++bufferedRecords;
+    }
+
+    private void append(char c) {
+        if (bufferLength == buffer.length) {
+            drainBuffer();
+        }
+        buffer[bufferLength++] = c;
+    }
+
+    private void append(CharSequence chars) {
+        final int length = chars.length();
+        if (length > buffer.length - bufferLength) {
+            drainBuffer();
+            if (length > buffer.length) {
+                writeDirectly(chars);
+                return;
+            }
+        }
+
+        if (chars instanceof StringBuilder) {
+            ((StringBuilder) chars).getChars(0, length, buffer, bufferLength);
+        } else {
+            chars.toString().getChars(0, length, buffer, bufferLength);
+        }
+        bufferLength += length;
+    }
+
+    private void drainBuffer() {
+        try {
+            writer.write(buffer, 0, bufferLength);
+            WRITTEN_CHARS.add(bufferLength);
+            WRITTEN_RECORDS.add(bufferedRecords);
+            bufferLength = 0;
+            bufferedRecords = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDirectly(CharSequence chars) {
+        try {
+            writer.append(chars);
+            WRITTEN_CHARS.add(chars.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,31 @@
+package ugcs.csv.telemetry;
+
+import lombok.SneakyThrows;
+import ugcs.processing.telemetry.frames.TelemetryFrameArchive;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static ugcs.csv.telemetry.TelemetryDataSaver.saveTelemetryDataToCsvFile;
+
+/**
+ * Utility class for saving telemetry data to compressed binary archive file and converting it to csv-file
+ *
+ * @see TelemetryFrameArchive
+ */
+public class TelemetryArchiveSaver {
+
+    @SneakyThrows
+    public static void saveTelemetryDataToArchiveFile(Path pathToFile,
+                                                      TelemetryFrameTable telemetryData,
+                                                      Set<String> fieldCodes) {
+        TelemetryFrameArchive.write(telemetryData, fieldCodes, pathToFile, true);
+    }
+
+    @SneakyThrows
+    public static void convertArchiveToCsvFile(Path pathToArchive, Path pathToCsvFile) {
+        final TelemetryFrameArchive archive = TelemetryFrameArchive.open(pathToArchive);
+        saveTelemetryDataToCsvFile(pathToCsvFile, archive.toFrameTable(), archive.getFieldCodes());
+    }
+}
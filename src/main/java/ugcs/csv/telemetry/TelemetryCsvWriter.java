@@ -1,26 +1,32 @@
 package ugcs.csv.telemetry;
 
-import com.ugcs.ucs.proto.DomainProto;
 import ugcs.csv.CsvWriter;
+import ugcs.processing.telemetry.frames.BooleanColumn;
+import ugcs.processing.telemetry.frames.DoubleColumn;
+import ugcs.processing.telemetry.frames.FloatColumn;
+import ugcs.processing.telemetry.frames.IntColumn;
+import ugcs.processing.telemetry.frames.LongColumn;
+import ugcs.processing.telemetry.frames.StringColumn;
+import ugcs.processing.telemetry.frames.TelemetryColumn;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
 
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.util.List;
-import java.util.Map;
 
 import static com.ugcs.ucs.proto.DomainProto.Semantic.S_LATITUDE;
 import static com.ugcs.ucs.proto.DomainProto.Semantic.S_LONGITUDE;
 import static java.lang.Math.toDegrees;
-import static java.time.Instant.ofEpochMilli;
+import static java.time.Instant.ofEpochSecond;
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
 import static java.time.temporal.ChronoField.HOUR_OF_DAY;
 import static java.time.temporal.ChronoField.MINUTE_OF_HOUR;
 import static java.time.temporal.ChronoField.NANO_OF_SECOND;
 import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
-import static java.util.Objects.isNull;
 import static ugcs.csv.telemetry.TelemetryFieldCodeToCsvColumnNameMapper.mapper;
 import static ugcs.time.TimeUtils.time;
 
@@ -29,8 +35,9 @@ import static ugcs.time.TimeUtils.time;
  */
 public class TelemetryCsvWriter extends CsvWriter {
     public static final Charset CSV_FILE_CHARSET = Charset.forName("UTF-8");
+    private static final String TIME_COLUMN_NAME = "Time";
 
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
+    private static final DateTimeFormatter DATE_TIME_TO_SECONDS_FORMATTER = new DateTimeFormatterBuilder()
             .append(ISO_LOCAL_DATE)
             .appendLiteral("T")
             .appendValue(HOUR_OF_DAY, 2)
@@ -38,9 +45,20 @@ public class TelemetryCsvWriter extends CsvWriter {
             .appendValue(MINUTE_OF_HOUR, 2)
             .appendLiteral(':')
             .appendValue(SECOND_OF_MINUTE, 2)
+            .toFormatter();
+
+    static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .append(DATE_TIME_TO_SECONDS_FORMATTER)
             .appendFraction(NANO_OF_SECOND, 3, 3, true)
             .toFormatter();
 
+    private TelemetryFrameTable currentTable;
+    private TelemetryColumn[] currentTableColumns;
+
+    private String currentSecondPrefix;
+    private long currentEpochSecond;
+    private ZoneId currentZoneId;
+
     public TelemetryCsvWriter(List<String> columnNames, OutputStream out) {
         super(columnNames, out, CSV_FILE_CHARSET);
     }
@@ -49,44 +67,108 @@ public class TelemetryCsvWriter extends CsvWriter {
         super.printHeader(fieldCode -> mapper().convert(fieldCode));
     }
 
-    public void printTelemetryRecord(long timeEpochMilli, Map<String, DomainProto.Telemetry> telemetryRecord) {
-        printRecord(colName -> {
-            if ("Time".equals(colName)) {
-                return convertDateTime(timeEpochMilli);
-            }
-            final DomainProto.Telemetry telemetry = telemetryRecord.get(colName);
-            if (isNull(telemetry)) {
-                return "";
-            }
-            return valueToCsvString(telemetry.getValue(), telemetry.getTelemetryField().getSemantic());
-        });
+    public void printTelemetryRecords(TelemetryFrameTable telemetryTable) {
+        for (int row = 0; row < telemetryTable.getRowCount(); row++) {
+            printTelemetryRecord(telemetryTable, row);
+        }
     }
 
-    private static String convertDateTime(long epochMilli) {
-        final LocalDateTime localDateTime = LocalDateTime.ofInstant(ofEpochMilli(epochMilli), time().defaultZoneId());
-        return localDateTime.format(DATE_TIME_FORMATTER);
+    public void printTelemetryRecord(TelemetryFrameTable telemetryTable, int row) {
+        final TelemetryColumn[] columns = resolveColumns(telemetryTable);
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == null) {
+                if (TIME_COLUMN_NAME.equals(getColumnNames().get(i))) {
+                    appendDateTime(newValue(i), telemetryTable.getTime(row));
+                }
+            } else if (columns[i].isPresent(row)) {
+                appendValue(newValue(i), columns[i], row);
+            }
+        }
+        printRecord();
     }
 
-    private static String valueToCsvString(DomainProto.Value value, DomainProto.Semantic semantic) {
-        if (S_LATITUDE.equals(semantic) || S_LONGITUDE.equals(semantic)) {
-            return String.valueOf(toDegrees(value.getDoubleValue()));
+    /**
+     * Maps column indices to the table columns, the mapping is reused while records of the same table are printed
+     */
+    private TelemetryColumn[] resolveColumns(TelemetryFrameTable telemetryTable) {
+        if (telemetryTable != currentTable) {
+            final List<String> columnNames = getColumnNames();
+            currentTableColumns = new TelemetryColumn[columnNames.size()];
+            for (int i = 0; i < columnNames.size(); i++) {
+                currentTableColumns[i] = telemetryTable.getColumn(columnNames.get(i)).orElse(null);
+            }
+            currentTable = telemetryTable;
         }
+        return currentTableColumns;
+    }
 
-        if (value.hasFloatValue()) {
-            return String.valueOf(value.getFloatValue());
-        }
-        if (value.hasDoubleValue()) {
-            return String.valueOf(value.getDoubleValue());
+    /**
+     * Appends date and time in the format of {@link #DATE_TIME_FORMATTER}, formatted date and time up to seconds is
+     * reused while the records of the same second are printed
+     */
+    private void appendDateTime(StringBuilder out, long epochMilli) {
+        final long epochSecond = Math.floorDiv(epochMilli, 1000L);
+        final ZoneId zoneId = time().defaultZoneId();
+        if (currentSecondPrefix == null || epochSecond != currentEpochSecond || !zoneId.equals(currentZoneId)) {
+            currentSecondPrefix = LocalDateTime.ofInstant(ofEpochSecond(epochSecond), zoneId)
+                    .format(DATE_TIME_TO_SECONDS_FORMATTER);
+            currentEpochSecond = epochSecond;
+            currentZoneId = zoneId;
         }
-        if (value.hasIntValue()) {
-            return String.valueOf(value.getIntValue());
+
+        final int millis = (int) Math.floorMod(epochMilli, 1000L);
+        out.append(currentSecondPrefix)
+                .append('.')
+                .append((char) ('0' + millis / 100))
+                .append((char) ('0' + millis / 10 % 10))
+                .append((char) ('0' + millis % 10));
+    }
+
+    /**
+     * Appends value in the same form as {@link String#valueOf} does, without creating intermediate strings
+     */
+    private static void appendValue(StringBuilder out, TelemetryColumn column, int row) {
+        if (S_LATITUDE.equals(column.getSemantic()) || S_LONGITUDE.equals(column.getSemantic())) {
+            out.append(toDegrees(numericValue(column, row)));
+            return;
         }
-        if (value.hasLongValue()) {
-            return String.valueOf(value.getLongValue());
+
+        switch (column.getType()) {
+            case DOUBLE:
+                out.append(((DoubleColumn) column).get(row));
+                break;
+            case FLOAT:
+                out.append(((FloatColumn) column).get(row));
+                break;
+            case INT:
+                out.append(((IntColumn) column).get(row));
+                break;
+            case LONG:
+                out.append(((LongColumn) column).get(row));
+                break;
+            case BOOLEAN:
+                out.append(((BooleanColumn) column).get(row));
+                break;
+            default:
+                out.append(((StringColumn) column).get(row));
         }
-        if (value.hasBoolValue()) {
-            return String.valueOf(value.getBoolValue());
+    }
+
+    /**
+     * @return value of the numeric column widened to double, zero for non-numeric columns
+     */
+    private static double numericValue(TelemetryColumn column, int row) {
+        switch (column.getType()) {
+            case DOUBLE:
+                return ((DoubleColumn) column).get(row);
+            case FLOAT:
+                return ((FloatColumn) column).get(row);
+            case INT:
+                return ((IntColumn) column).get(row);
+            case LONG:
+                return ((LongColumn) column).get(row);
+            default:
+                return 0.0;
         }
-        return value.getStringValue();
     }
 }
@@ -1,16 +1,14 @@
 package ugcs.csv.telemetry;
 
-import com.ugcs.ucs.proto.DomainProto;
 import lombok.SneakyThrows;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
 
 import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
 
 import static ugcs.csv.telemetry.TelemetryFieldCodeToCsvColumnNameMapper.mapper;
 
@@ -21,7 +19,7 @@ public class TelemetryDataSaver {
 
     @SneakyThrows
     public static void saveTelemetryDataToCsvFile(Path pathToFile,
-                                           SortedMap<Long, Map<String, DomainProto.Telemetry>> telemetryData,
+                                           TelemetryFrameTable telemetryData,
                                            Set<String> fieldCodes) {
         final List<String> columnNames = new LinkedList<>();
         columnNames.add("Time");
@@ -30,7 +28,8 @@ public class TelemetryDataSaver {
         try (final OutputStream out = new FileOutputStream(pathToFile.toFile())) {
             final TelemetryCsvWriter telemetryWriter = new TelemetryCsvWriter(columnNames, out);
             telemetryWriter.printHeader(fieldCode -> mapper().convert(fieldCode));
-            telemetryData.forEach(telemetryWriter::printTelemetryRecord);
+            telemetryWriter.printTelemetryRecords(telemetryData);
+            telemetryWriter.flush();
         }
     }
 }
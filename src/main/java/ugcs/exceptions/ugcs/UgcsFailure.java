@@ -13,9 +13,9 @@ public class UgcsFailure extends ExpectedException {
     }
 
     private static String getMessageFromCause(Throwable cause) {
-        final String causeMessageInLowerCase = cause.getMessage().toLowerCase();
+        final String causeMessage = cause.getMessage();
 
-        if (causeMessageInLowerCase.contains("authentication")) {
+        if (causeMessage != null && causeMessage.toLowerCase().contains("authentication")) {
             return INCORRECT_CREDENTIALS_MESSAGE;
         }
 
@@ -0,0 +1,15 @@
+package ugcs.exceptions.ugcs;
+
+import ugcs.exceptions.ExpectedException;
+
+/**
+ * UgCS request abandoned because the requesting thread was interrupted, e.g. by cancellation of its operation
+ * <p>
+ * Says nothing about the server health, so such requests are neither retried nor counted as server failures.
+ */
+public class UgcsRequestInterruptedException extends ExpectedException {
+
+    public UgcsRequestInterruptedException(InterruptedException cause) {
+        super("UgCS request cancelled.", cause);
+    }
+}
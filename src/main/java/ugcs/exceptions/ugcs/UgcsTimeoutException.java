@@ -0,0 +1,12 @@
+package ugcs.exceptions.ugcs;
+
+import ugcs.exceptions.ExpectedException;
+
+import static java.lang.String.format;
+
+public class UgcsTimeoutException extends ExpectedException {
+
+    public UgcsTimeoutException(long timeoutMs, Throwable cause) {
+        super(format("UgCS did not respond in %d s. Check if server is overloaded.", timeoutMs / 1000), cause);
+    }
+}
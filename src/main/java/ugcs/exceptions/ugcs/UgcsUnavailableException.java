@@ -0,0 +1,12 @@
+package ugcs.exceptions.ugcs;
+
+import ugcs.exceptions.ExpectedException;
+
+import static java.lang.String.format;
+
+public class UgcsUnavailableException extends ExpectedException {
+
+    public UgcsUnavailableException(long retryAfterMs) {
+        super(format("UgCS requests keep failing, next attempt in %d s.", Math.max(1L, retryAfterMs / 1000)));
+    }
+}
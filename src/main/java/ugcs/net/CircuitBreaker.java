@@ -0,0 +1,103 @@
+package ugcs.net;
+
+import ugcs.exceptions.ugcs.UgcsRequestInterruptedException;
+import ugcs.exceptions.ugcs.UgcsUnavailableException;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker suspending UgCS requests after several consecutive failures of the server
+ * <p>
+ * While the circuit is open all requests fail at once with {@link UgcsUnavailableException}. When the open
+ * period is over a single trial request is let through: its success closes the circuit, its failure opens it
+ * again. Only failures accepted by {@link RetryPolicy#isRetryable(Throwable)} are counted, rejected requests
+ * say nothing about the server health. Interrupted requests change nothing: cancellation of an operation is neither
+ * a success nor a failure of the server.
+ */
+class CircuitBreaker {
+    static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    static final long DEFAULT_OPEN_DURATION_MS = 30_000L;
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedTime = 0L;
+
+    CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MS, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    <V> V execute(Supplier<V> operation) {
+        acquirePermission();
+
+        final V result;
+        try {
+            result = operation.get();
+        } catch (UgcsRequestInterruptedException e) {
+            onInterrupted();
+            throw e;
+        } catch (RuntimeException e) {
+            if (RetryPolicy.isRetryable(e)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            throw e;
+        }
+        onSuccess();
+        return result;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.CLOSED) {
+            return;
+        }
+
+        final long openedForMs = clock.getAsLong() - openedTime;
+        if (state == State.OPEN && openedForMs >= openDurationMs) {
+            state = State.HALF_OPEN;
+            return;
+        }
+        throw new UgcsUnavailableException(Math.max(0L, openDurationMs - openedForMs));
+    }
+
+    private synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Interrupted trial request lets the next request be a trial
+     */
+    private synchronized void onInterrupted() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    private synchronized void onFailure() {
+        ++consecutiveFailures;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedTime = clock.getAsLong();
+        }
+    }
+
+    synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+}
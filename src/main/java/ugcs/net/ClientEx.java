@@ -2,12 +2,22 @@ package ugcs.net;
 
 import com.google.protobuf.Message;
 import com.ugcs.ucs.client.Client;
+import ugcs.exceptions.ugcs.UgcsDisconnectedException;
 import ugcs.exceptions.ugcs.UgcsFailure;
+import ugcs.exceptions.ugcs.UgcsRequestInterruptedException;
+import ugcs.exceptions.ugcs.UgcsTimeoutException;
 
+import java.io.IOException;
 import java.net.SocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * {@link Client} with given timeout for message interaction
+ * <p>
+ * Failures are reported as {@link UgcsTimeoutException} if the server did not respond in time,
+ * {@link UgcsDisconnectedException} if the connection failed and {@link UgcsFailure} if the server rejected the
+ * request.
  */
 public class ClientEx extends Client {
     private static final long DEFAULT_REQUEST_TIMEOUT_MS = 120_000L;
@@ -26,8 +36,20 @@ public class ClientEx extends Client {
 
     @Override
     public <T> T execute(Message message) {
+        return execute(message, timeout);
+    }
+
+    @Override
+    public <T> T execute(Message message, long requestTimeout) {
         try {
-            return super.execute(message, timeout);
+            return super.execute(message, requestTimeout);
+        } catch (TimeoutException e) {
+            throw new UgcsTimeoutException(requestTimeout, e);
+        } catch (IOException | ExecutionException e) {
+            throw new UgcsDisconnectedException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UgcsRequestInterruptedException(e);
         } catch (Exception e) {
             throw new UgcsFailure(e);
         }
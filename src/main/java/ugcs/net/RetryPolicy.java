@@ -0,0 +1,79 @@
+package ugcs.net;
+
+import ugcs.exceptions.ugcs.UgcsDisconnectedException;
+import ugcs.exceptions.ugcs.UgcsRequestInterruptedException;
+import ugcs.exceptions.ugcs.UgcsTimeoutException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Retries of UgCS requests with exponential backoff and jitter
+ * <p>
+ * Only failures which may pass by themselves (lost connection or no response in time) are retried, requests
+ * rejected by the server and requests interrupted by cancellation fail at once.
+ */
+class RetryPolicy {
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final long DEFAULT_INITIAL_DELAY_MS = 500L;
+    static final long DEFAULT_MAX_DELAY_MS = 10_000L;
+
+    /**
+     * Pause between attempts, interruptible
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final int maxAttempts;
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final LongUnaryOperator jitter;
+    private final Sleeper sleeper;
+
+    RetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_DELAY_MS, DEFAULT_MAX_DELAY_MS,
+                delay -> delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1), Thread::sleep);
+    }
+
+    /**
+     * @param jitter maps the backoff delay to the actual pause
+     */
+    RetryPolicy(int maxAttempts, long initialDelayMs, long maxDelayMs, LongUnaryOperator jitter, Sleeper sleeper) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.jitter = jitter;
+        this.sleeper = sleeper;
+    }
+
+    <V> V execute(Supplier<V> operation) {
+        long delayMs = initialDelayMs;
+        for (int attempt = 1; ; ++attempt) {
+            try {
+                return operation.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+            }
+
+            try {
+                sleeper.sleep(jitter.applyAsLong(delayMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UgcsRequestInterruptedException(e);
+            }
+            delayMs = Math.min(maxDelayMs, delayMs * 2);
+        }
+    }
+
+    static boolean isRetryable(Throwable failure) {
+        return failure instanceof UgcsDisconnectedException || failure instanceof UgcsTimeoutException;
+    }
+}
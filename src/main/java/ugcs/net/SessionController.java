@@ -4,33 +4,58 @@ import com.google.protobuf.Message;
 import com.ugcs.ucs.client.Client;
 import com.ugcs.ucs.proto.DomainProto;
 import com.ugcs.ucs.proto.DomainProto.DomainObjectWrapper;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
 import com.ugcs.ucs.proto.MessagesProto;
-import lombok.SneakyThrows;
+import ugcs.common.metrics.Counter;
+import ugcs.common.metrics.Timer;
 import ugcs.exceptions.ugcs.UgcsDisconnectedException;
 import ugcs.exceptions.ugcs.UgcsFailure;
 
-import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static ugcs.common.metrics.MetricsRegistry.metrics;
+
 /**
  * Exports service gateway for interactions with {@link Client}
+ * <p>
+ * Requests are executed through a {@link SessionPool}, so requests from different threads run in parallel on
+ * separate UgCS sessions. Failed requests are retried by the {@link RetryPolicy} unless the {@link CircuitBreaker}
+ * suspended requests to the struggling server. Request deadlines grow with the expected response size.
  */
 public class SessionController implements AutoCloseable {
-    private static int TRY_COUNT = 2;
+    private static int TELEMETRY_PAGE_SIZE = 10_000;
+
+    private static final long BASE_REQUEST_TIMEOUT_MS = 30_000L;
+    private static final long TIMEOUT_PER_TELEMETRY_RECORD_MS = 10L;
+    private static final long TIMEOUT_PER_VEHICLE_TRACKS_MS = 5_000L;
+    private static final long MAX_REQUEST_TIMEOUT_MS = 300_000L;
+
+    public static final int DEFAULT_SESSION_POOL_SIZE = 4;
+
+    private static final Timer REQUEST_TIMER =
+            metrics().timer("ugcs_request_duration_seconds", "Latency of UgCS requests including session acquisition");
+    private static final Counter FAILED_REQUESTS =
+            metrics().counter("ugcs_requests_failed_total", "UgCS requests failed before retries");
+    private static final Counter TELEMETRY_RECORDS =
+            metrics().counter("ugcs_telemetry_records_total", "Telemetry records downloaded from UgCS");
 
     private String host;
     private int port;
 
     private String login;
     private String password;
+    private int sessionPoolSize = DEFAULT_SESSION_POOL_SIZE;
 
-    private Client client;
-    private ClientSessionEx session;
+    private volatile SessionPool sessionPool;
+    private final RetryPolicy retryPolicy = new RetryPolicy();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
 
     private static volatile SessionController instance;
 
@@ -53,149 +78,175 @@ public class SessionController implements AutoCloseable {
         this.port = settings.getPort();
         this.login = settings.getUcsServerLogin();
         this.password = settings.getUcsServerPassword();
+        this.sessionPoolSize = settings.getUcsSessionPoolSize();
     }
 
-    public void connect() {
-        final InetSocketAddress serverAddress = new InetSocketAddress(host, port);
+    public synchronized void connect() {
+        final SessionPool newSessionPool =
+                new SessionPool(new InetSocketAddress(host, port), login, password, sessionPoolSize);
+        try {
+            newSessionPool.connect();
+        } catch (RuntimeException e) {
+            newSessionPool.close();
+            throw e;
+        }
 
-        client = new ClientEx(serverAddress);
-        refreshSession();
+        final SessionPool previousSessionPool = sessionPool;
+        sessionPool = newSessionPool;
+        if (previousSessionPool != null) {
+            previousSessionPool.close();
+        }
     }
 
-    @SneakyThrows
     public List<Vehicle> getVehicles() {
-        reconnectIfConnectionLost();
-
-        return session.getObjectList(Vehicle.class).stream()
-                .map(DomainObjectWrapper::getVehicle)
-                .collect(Collectors.toList());
+        return withRetries(() -> getSessionPool().execute(pooledSession -> {
+            try {
+                return pooledSession.getSession().getObjectList(Vehicle.class).stream()
+                        .map(DomainObjectWrapper::getVehicle)
+                        .collect(Collectors.toList());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new UgcsFailure(e);
+            }
+        }));
+    }
+
+    /**
+     * Downloads telemetry for the given time range by pages of bounded size, each page is passed to the
+     * consumer before the next one is requested
+     * <p>
+     * Telemetry is counted first, so the deadline of each page is scaled to the number of records expected in it.
+     */
+    public void getTelemetry(Vehicle vehicle, long startTimeEpochMilli, long endTimeEpochMilli,
+                             Consumer<Telemetry> telemetryConsumer) {
+        long remainingRecords = countTelemetry(vehicle, startTimeEpochMilli, endTimeEpochMilli);
+        long pageStartTimeEpochMilli = startTimeEpochMilli;
+        while (pageStartTimeEpochMilli <= endTimeEpochMilli) {
+            final long pageTimeoutMs = timeoutForRecords(
+                    Math.min(TELEMETRY_PAGE_SIZE, remainingRecords), TIMEOUT_PER_TELEMETRY_RECORD_MS);
+            final MessagesProto.GetTelemetryResponse telemetryPage =
+                    getTelemetryPage(vehicle, pageStartTimeEpochMilli, endTimeEpochMilli, pageTimeoutMs);
+            TELEMETRY_RECORDS.add(telemetryPage.getTelemetryCount());
+            telemetryPage.getTelemetryList().forEach(telemetryConsumer);
+            // the count is only an estimate, late records still get the minimal deadline
+            remainingRecords = Math.max(0L, remainingRecords - telemetryPage.getTelemetryCount());
+
+            if (!telemetryPage.hasNextTelemetryTime()
+                    || telemetryPage.getNextTelemetryTime() <= pageStartTimeEpochMilli) {
+                return;
+            }
+            pageStartTimeEpochMilli = telemetryPage.getNextTelemetryTime();
+        }
     }
 
-    @SneakyThrows
-    public MessagesProto.GetTelemetryResponse getTelemetry(Vehicle vehicle, long startTimeEpochMilli, long endTimeEpochMilli) {
-        return trySeveralTimes(() -> {
-            final MessagesProto.GetTelemetryRequest getTelemetryRequest =
-                    MessagesProto.GetTelemetryRequest.newBuilder()
-                            .setFromTime(startTimeEpochMilli)
-                            .setToTime(endTimeEpochMilli)
-                            .setVehicle(vehicle)
-                            .setClientId(getClientId())
-                            .setLimit(0)
-                            .build();
-
-            return execute(getTelemetryRequest);
-        });
+    private MessagesProto.GetTelemetryResponse getTelemetryPage(Vehicle vehicle, long startTimeEpochMilli,
+                                                                long endTimeEpochMilli, long timeoutMs) {
+        return withRetries(() -> execute(timeoutMs, clientId ->
+                MessagesProto.GetTelemetryRequest.newBuilder()
+                        .setFromTime(startTimeEpochMilli)
+                        .setToTime(endTimeEpochMilli)
+                        .setVehicle(vehicle)
+                        .setClientId(clientId)
+                        .setLimit(TELEMETRY_PAGE_SIZE)
+                        .build()));
     }
 
-    @SneakyThrows
     public MessagesProto.GetVehicleLogByTimeRangeResponse getVehicleLog(Vehicle vehicle, long startTimeEpochMilli, long endTimeEpochMilli) {
-        return trySeveralTimes(() -> {
-            final MessagesProto.GetVehicleLogByTimeRangeRequest getVehicleLogByTimeRangeRequest =
-                    MessagesProto.GetVehicleLogByTimeRangeRequest.newBuilder()
-                            .setFromTime(startTimeEpochMilli)
-                            .setToTime(endTimeEpochMilli)
-                            .setClientId(getClientId())
-                            .setLevel(DomainProto.SeverityLevel.SL_DEBUG)
-                            .addVehicles(vehicle)
-                            .build();
-
-            return execute(getVehicleLogByTimeRangeRequest);
-        });
+        return withRetries(() -> execute(MAX_REQUEST_TIMEOUT_MS, clientId ->
+                MessagesProto.GetVehicleLogByTimeRangeRequest.newBuilder()
+                        .setFromTime(startTimeEpochMilli)
+                        .setToTime(endTimeEpochMilli)
+                        .setClientId(clientId)
+                        .setLevel(DomainProto.SeverityLevel.SL_DEBUG)
+                        .addVehicles(vehicle)
+                        .build()));
     }
 
-    @SneakyThrows
     public long countTelemetry(Vehicle vehicle, ZonedDateTime startTime, ZonedDateTime endTime) {
-        return trySeveralTimes(() -> {
-            final MessagesProto.CountTelemetryRequest countTelemetryRequest =
-                    MessagesProto.CountTelemetryRequest.newBuilder()
-                            .setClientId(getClientId())
-                            .setVehicle(vehicle)
-                            .setFromTime(startTime.toInstant().toEpochMilli())
-                            .setToTime(endTime.toInstant().toEpochMilli())
-                            .build();
+        return countTelemetry(vehicle, startTime.toInstant().toEpochMilli(), endTime.toInstant().toEpochMilli());
+    }
 
-            final MessagesProto.CountTelemetryResponse countTelemetryResponse = execute(countTelemetryRequest);
+    private long countTelemetry(Vehicle vehicle, long startTimeEpochMilli, long endTimeEpochMilli) {
+        return withRetries(() -> {
+            final MessagesProto.CountTelemetryResponse countTelemetryResponse = execute(BASE_REQUEST_TIMEOUT_MS,
+                    clientId -> MessagesProto.CountTelemetryRequest.newBuilder()
+                            .setClientId(clientId)
+                            .setVehicle(vehicle)
+                            .setFromTime(startTimeEpochMilli)
+                            .setToTime(endTimeEpochMilli)
+                            .build());
             return countTelemetryResponse.getCount();
         });
     }
 
-    @SneakyThrows
     public MessagesProto.TraceTelemetryFramesResponse traceTelemetryFrames(Vehicle vehicle, long originTimeEpochMilli, double intervalSec, int number) {
-        return trySeveralTimes(() -> {
-            final MessagesProto.TraceTelemetryFramesRequest traceTelemetryFramesRequest =
-                    MessagesProto.TraceTelemetryFramesRequest.newBuilder()
-                            .setClientId(getClientId())
-                            .setVehicle(vehicle)
-                            .setInterval(intervalSec)
-                            .setOriginTime(originTimeEpochMilli)
-                            .setNumber(number)
-                            .build();
-
-            return execute(traceTelemetryFramesRequest);
-        });
+        return withRetries(() -> execute(timeoutForRecords(number, TIMEOUT_PER_TELEMETRY_RECORD_MS), clientId ->
+                MessagesProto.TraceTelemetryFramesRequest.newBuilder()
+                        .setClientId(clientId)
+                        .setVehicle(vehicle)
+                        .setInterval(intervalSec)
+                        .setOriginTime(originTimeEpochMilli)
+                        .setNumber(number)
+                        .build()));
     }
 
-    @SneakyThrows
     public MessagesProto.GetVehicleTracksResponse getVehicleTracks(List<Vehicle> vehicles, long fromTimeEpochMilli, long toTimeEpochMilli, int limit) {
-        return trySeveralTimes(() -> {
+        final long timeoutMs = timeoutForRecords(vehicles.size(), TIMEOUT_PER_VEHICLE_TRACKS_MS);
+        return withRetries(() -> execute(timeoutMs, clientId -> {
             final MessagesProto.GetVehicleTracksRequest.Builder getVehicleTracksRequestBuilder =
                     MessagesProto.GetVehicleTracksRequest.newBuilder()
-                            .setClientId(getClientId())
+                            .setClientId(clientId)
                             .setFrom(fromTimeEpochMilli)
                             .setTo(toTimeEpochMilli)
                             .setLimit(limit);
             vehicles.forEach(getVehicleTracksRequestBuilder::addVehicles);
 
-            return execute(getVehicleTracksRequestBuilder.build());
-        });
+            return getVehicleTracksRequestBuilder.build();
+        }));
     }
 
-    private <T> T execute(Message message) throws Exception {
-        reconnectIfConnectionLost();
-
-        return client.execute(message);
+    /**
+     * Executes the request built for the client ID of the acquired session
+     */
+    private <T> T execute(long timeoutMs, IntFunction<Message> requestBuilder) {
+        try {
+            return REQUEST_TIMER.time(() -> getSessionPool().execute(pooledSession -> pooledSession.getClient()
+                    .execute(requestBuilder.apply(pooledSession.getClientId()), timeoutMs)));
+        } catch (RuntimeException e) {
+            FAILED_REQUESTS.increment();
+            throw e;
+        }
     }
 
-    private void reconnectIfConnectionLost() {
-        if (!client.isConnected()) {
-            refreshSession();
-        }
+    private <V> V withRetries(Supplier<V> operation) {
+        return retryPolicy.execute(() -> circuitBreaker.execute(operation));
     }
 
-    private void refreshSession() {
-        try {
-            client.connect();
-            session = new ClientSessionEx(client);
-            session.authorizeHci();
-            session.login(login, password);
-        } catch (IOException connectException) {
-            throw new UgcsDisconnectedException(connectException);
-        } catch (Exception ugcsException) {
-            throw new UgcsFailure(ugcsException);
-        }
+    private static long timeoutForRecords(long expectedRecords, long timeoutPerRecordMs) {
+        return Math.min(MAX_REQUEST_TIMEOUT_MS, BASE_REQUEST_TIMEOUT_MS + expectedRecords * timeoutPerRecordMs);
     }
 
-    @Override
-    @SneakyThrows
-    public void close() {
-        if (client != null) {
-            client.close();
+    private SessionPool getSessionPool() {
+        final SessionPool pool = sessionPool;
+        if (pool == null) {
+            throw new UgcsDisconnectedException(new IllegalStateException("Not connected to UgCS"));
         }
+        return pool;
     }
 
-    private int getClientId() {
-        return session.getClientId();
+    /**
+     * @return statistics of session usage since the last {@link #connect()}
+     */
+    public String getStatisticsReport() {
+        final SessionPool pool = sessionPool;
+        return pool != null ? pool.getStatisticsReport() : "UgCS session pool: not connected";
     }
 
-    private static <V> V trySeveralTimes(Callable<V> operation) throws Exception {
-        Exception failure = null;
-        for (int i = 1; i <= TRY_COUNT; i++) {
-            try {
-                return operation.call();
-            } catch (Exception e) {
-                failure = e;
-            }
+    @Override
+    public synchronized void close() {
+        if (sessionPool != null) {
+            sessionPool.close();
         }
-        throw failure;
     }
 }
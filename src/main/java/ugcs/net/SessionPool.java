@@ -0,0 +1,193 @@
+package ugcs.net;
+
+import com.ugcs.ucs.client.Client;
+import ugcs.exceptions.ugcs.UgcsDisconnectedException;
+import ugcs.exceptions.ugcs.UgcsFailure;
+import ugcs.exceptions.ugcs.UgcsRequestInterruptedException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pool of authenticated UgCS sessions, each with its own {@link Client} connection
+ * <p>
+ * A session is used by one thread at a time. Sessions are connected lazily on the first use and reconnected on
+ * the next use after the connection is lost.
+ */
+class SessionPool implements AutoCloseable {
+    private final InetSocketAddress serverAddress;
+    private final String login;
+    private final String password;
+
+    private final List<PooledSession> sessions;
+    private final BlockingQueue<PooledSession> idleSessions;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong waitTimeNanos = new AtomicLong();
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Session of the pool, guarded by the pool: accessed only by the thread which acquired it
+     */
+    static final class PooledSession {
+        private ClientEx client;
+        private ClientSessionEx session;
+
+        ClientSessionEx getSession() {
+            return session;
+        }
+
+        int getClientId() {
+            return session.getClientId();
+        }
+
+        ClientEx getClient() {
+            return client;
+        }
+
+        private boolean isHealthy() {
+            return client != null && session != null && client.isConnected();
+        }
+    }
+
+    SessionPool(InetSocketAddress serverAddress, String login, String password, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Session pool size must be positive");
+        }
+        this.serverAddress = serverAddress;
+        this.login = login;
+        this.password = password;
+        this.sessions = new ArrayList<>(size);
+        this.idleSessions = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; ++i) {
+            final PooledSession session = new PooledSession();
+            sessions.add(session);
+            idleSessions.add(session);
+        }
+    }
+
+    /**
+     * Connects one of the sessions, so wrong address or credentials are reported at once
+     */
+    void connect() {
+        execute(session -> null);
+    }
+
+    /**
+     * Executes the action with a healthy session, waits for a free session if all of them are in use
+     */
+    <T> T execute(Function<PooledSession, T> action) {
+        final PooledSession session = acquire();
+        try {
+            if (!session.isHealthy()) {
+                reconnect(session);
+            }
+            return action.apply(session);
+        } finally {
+            release(session);
+        }
+    }
+
+    private PooledSession acquire() {
+        if (closed) {
+            throw new IllegalStateException("Session pool is closed");
+        }
+
+        final long startTime = System.nanoTime();
+        final PooledSession session;
+        try {
+            session = idleSessions.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UgcsRequestInterruptedException(e);
+        }
+        final long waitTime = System.nanoTime() - startTime;
+
+        acquisitions.incrementAndGet();
+        waitTimeNanos.addAndGet(waitTime);
+        maxWaitTimeNanos.accumulateAndGet(waitTime, Math::max);
+        activeSessions.incrementAndGet();
+        return session;
+    }
+
+    private void release(PooledSession session) {
+        activeSessions.decrementAndGet();
+        idleSessions.add(session);
+        if (closed) {
+            closeIdleSessions();
+        }
+    }
+
+    private void reconnect(PooledSession session) {
+        closeClient(session);
+        reconnects.incrementAndGet();
+        try {
+            session.client = new ClientEx(serverAddress);
+            session.client.connect();
+            session.session = new ClientSessionEx(session.client);
+            session.session.authorizeHci();
+            session.session.login(login, password);
+        } catch (IOException connectException) {
+            closeClient(session);
+            throw new UgcsDisconnectedException(connectException);
+        } catch (Exception ugcsException) {
+            closeClient(session);
+            throw new UgcsFailure(ugcsException);
+        }
+    }
+
+    private static void closeClient(PooledSession session) {
+        final Client client = session.client;
+        session.client = null;
+        session.session = null;
+        if (client != null) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                getLogger(SessionPool.class).debug("UgCS connection not closed properly", e);
+            }
+        }
+    }
+
+    int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    String getStatisticsReport() {
+        final long acquisitionCount = acquisitions.get();
+        return String.format("UgCS session pool: %d of %d sessions active, %d acquisitions, "
+                        + "%.1f ms average wait, %.1f ms max wait, %d connects",
+                activeSessions.get(), sessions.size(), acquisitionCount,
+                acquisitionCount > 0 ? waitTimeNanos.get() / 1e6 / acquisitionCount : 0.0,
+                maxWaitTimeNanos.get() / 1e6, reconnects.get());
+    }
+
+    /**
+     * Closes idle sessions at once, sessions in use are closed when they are released
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeIdleSessions();
+    }
+
+    private void closeIdleSessions() {
+        PooledSession session;
+        while ((session = idleSessions.poll()) != null) {
+            closeClient(session);
+        }
+    }
+}
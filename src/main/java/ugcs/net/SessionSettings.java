@@ -11,4 +11,6 @@ public interface SessionSettings {
     String getUcsServerLogin();
 
     String getUcsServerPassword();
+
+    int getUcsSessionPoolSize();
 }
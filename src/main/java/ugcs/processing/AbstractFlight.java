@@ -3,8 +3,9 @@ package ugcs.processing;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
 import ugcs.common.identity.Identity;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 import static ugcs.common.identity.Identity.of;
 
@@ -12,7 +13,8 @@ import static ugcs.common.identity.Identity.of;
  * Abstract {@link Vehicle} flight implementation
  */
 public abstract class AbstractFlight implements Flight {
-    private static SimpleDateFormat FLIGHT_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter FLIGHT_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
 
     private final long flightStartEpochMilli;
     private final long flightEndEpochMilli;
@@ -56,7 +58,7 @@ public abstract class AbstractFlight implements Flight {
     }
 
     private static String textRepresentation(long flightStartEpochMilli) {
-        return "Flight at " + FLIGHT_DATE_FORMAT.format(new Date(flightStartEpochMilli));
+        return "Flight at " + FLIGHT_DATE_FORMAT.format(Instant.ofEpochMilli(flightStartEpochMilli));
     }
 
     private static Identity<String> getIdentity(long flightStartEpochMilli, long flightEndEpochMilli, Vehicle vehicle) {
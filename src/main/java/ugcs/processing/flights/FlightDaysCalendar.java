@@ -0,0 +1,132 @@
+package ugcs.processing.flights;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import ugcs.common.AsyncCache;
+import ugcs.processing.Flight;
+import ugcs.processing.telemetry.tracks.VehicleTracksProcessor;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static ugcs.time.TimeUtils.time;
+
+/**
+ * Days with flights of the vehicles by month, loaded in background and cached
+ * <p>
+ * Each month of a vehicle is kept as a set of days, so months once loaded are answered without server requests.
+ * Months are loaded one by one in order of request, so the displayed month is loaded before the adjacent months
+ * requested for prefetch. A month failed to load is dropped and loaded again on the next request.
+ */
+public class FlightDaysCalendar {
+    private final BiFunction<Vehicle, YearMonth, List<? extends Flight>> flightsSource;
+    private final AsyncCache<MonthKey, BitSet> flightDaysByMonth;
+
+    public FlightDaysCalendar() {
+        this(FlightDaysCalendar::getVehicleTracks, Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "flight-days-loader");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    FlightDaysCalendar(BiFunction<Vehicle, YearMonth, List<? extends Flight>> flightsSource, Executor executor) {
+        this.flightsSource = flightsSource;
+        this.flightDaysByMonth = new AsyncCache<>(executor);
+    }
+
+    /**
+     * Adds the listener called once for each loaded month on the loading thread
+     */
+    public void addLoadListener(BiConsumer<Vehicle, YearMonth> listener) {
+        flightDaysByMonth.addLoadListener((key, flightDays) -> listener.accept(key.vehicle, key.month));
+    }
+
+    /**
+     * @return whether the vehicle has flights started at the date, empty if the month is not loaded yet
+     */
+    public Optional<Boolean> hasFlights(Vehicle vehicle, LocalDate date) {
+        return flightDaysByMonth.getLoaded(new MonthKey(vehicle, YearMonth.from(date)))
+                .map(flightDays -> flightDays.get(date.getDayOfMonth()));
+    }
+
+    /**
+     * Starts loading of the month unless it is loaded or being loaded
+     *
+     * @return future completed when the month is loaded
+     */
+    public CompletableFuture<?> load(Vehicle vehicle, YearMonth month) {
+        return flightDaysByMonth.load(new MonthKey(vehicle, month), () -> loadFlightDays(vehicle, month));
+    }
+
+    /**
+     * Loads the given number of months before and after the month, nearest months first
+     */
+    public void prefetch(Vehicle vehicle, YearMonth month, int adjacentMonths) {
+        for (int i = 1; i <= adjacentMonths; i++) {
+            load(vehicle, month.plusMonths(i));
+            load(vehicle, month.minusMonths(i));
+        }
+    }
+
+    /**
+     * Drops months starting from the given one for all vehicles, so new flights are found on the next request
+     */
+    public void invalidateFrom(YearMonth month) {
+        flightDaysByMonth.invalidateIf(key -> !key.month.isBefore(month));
+    }
+
+    private BitSet loadFlightDays(Vehicle vehicle, YearMonth month) {
+        final BitSet flightDays = new BitSet(month.lengthOfMonth() + 1);
+        for (Flight flight : flightsSource.apply(vehicle, month)) {
+            final LocalDate startDate = flight.getStartLocalDate();
+            if (YearMonth.from(startDate).equals(month)) {
+                flightDays.set(startDate.getDayOfMonth());
+            }
+        }
+        return flightDays;
+    }
+
+    private static List<? extends Flight> getVehicleTracks(Vehicle vehicle, YearMonth month) {
+        final ZonedDateTime startTime = month.atDay(1).atStartOfDay(time().defaultZoneId());
+        return new VehicleTracksProcessor(startTime, startTime.plusMonths(1), vehicle).getVehicleTracks();
+    }
+
+    private static final class MonthKey {
+        private final Vehicle vehicle;
+        private final String serialNumber;
+        private final YearMonth month;
+
+        private MonthKey(Vehicle vehicle, YearMonth month) {
+            this.vehicle = vehicle;
+            this.serialNumber = vehicle.getSerialNumber();
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final MonthKey monthKey = (MonthKey) o;
+            return serialNumber.equals(monthKey.serialNumber) && month.equals(monthKey.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serialNumber, month);
+        }
+    }
+}
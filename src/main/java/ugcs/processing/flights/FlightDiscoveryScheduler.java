@@ -0,0 +1,187 @@
+package ugcs.processing.flights;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import ugcs.common.AsyncCache;
+import ugcs.common.Lazy;
+import ugcs.processing.Flight;
+import ugcs.processing.telemetry.tracks.FleetTracksScanner;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.BiConsumer;
+
+import static java.util.Collections.singletonList;
+import static ugcs.processing.telemetry.tracks.FleetTracksScanner.DEFAULT_BATCH_SIZE;
+import static ugcs.processing.telemetry.tracks.FleetTracksScanner.DEFAULT_CONCURRENCY;
+
+/**
+ * Background discovery of the flights of all vehicles in the fleet on a shared {@link ForkJoinPool}
+ * <p>
+ * {@link #discoverFleet(Collection, Query)} starts discovery of all the vehicles at once for the given query, the
+ * flights are kept in memory until the next query, so switching between vehicles needs no server requests. Vehicles
+ * are discovered in batches by the {@link FleetTracksScanner}, vehicles of a batch share server requests. Pool
+ * parallelism bounds the number of concurrent server requests, batches are discovered in order of submission. A
+ * vehicle failed to discover is dropped and discovered again on the next request.
+ */
+public class FlightDiscoveryScheduler {
+    /**
+     * Source of the latest flights of a batch of vehicles by vehicle serial number, sorted by start time
+     */
+    @FunctionalInterface
+    interface FlightsSource {
+        Map<String, ? extends List<? extends Flight>> getFlights(List<Vehicle> vehicles, ZonedDateTime fromTime,
+                                                                  ZonedDateTime toTime, int tracksLimit);
+    }
+
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile int concurrency = DEFAULT_CONCURRENCY;
+
+    private final Lazy<FlightsSource> flightsSource;
+    private final Lazy<Executor> executor;
+    private final List<BiConsumer<Vehicle, List<? extends Flight>>> discoveryListeners = new CopyOnWriteArrayList<>();
+    private volatile Discovery currentDiscovery = null;
+
+    private static volatile FlightDiscoveryScheduler instance;
+
+    public static FlightDiscoveryScheduler discoveryScheduler() {
+        if (instance == null) {
+            synchronized (FlightDiscoveryScheduler.class) {
+                if (instance == null) {
+                    instance = new FlightDiscoveryScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private FlightDiscoveryScheduler() {
+        this.flightsSource = Lazy.of(() -> new FleetTracksScanner(batchSize, concurrency)::scanBatch);
+        this.executor = Lazy.of(this::createDiscoveryPool);
+    }
+
+    FlightDiscoveryScheduler(FlightsSource flightsSource, int batchSize, Executor executor) {
+        this.flightsSource = Lazy.of(() -> flightsSource);
+        this.executor = Lazy.of(() -> executor);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Settings take effect only if updated before the first discovery
+     *
+     * @param batchSize   number of vehicles discovered by a single server request
+     * @param concurrency number of server requests sent at once
+     */
+    public void updateSettings(int batchSize, int concurrency) {
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Adds the listener called once for each discovered vehicle of the current query on the discovering thread
+     */
+    public void addDiscoveryListener(BiConsumer<Vehicle, List<? extends Flight>> listener) {
+        discoveryListeners.add(listener);
+    }
+
+    /**
+     * Drops flights of the previous query and starts discovery of the vehicles in the given order
+     */
+    public void discoverFleet(Collection<Vehicle> vehicles, Query query) {
+        final Discovery discovery = new Discovery(query);
+        currentDiscovery = discovery;
+
+        final List<Vehicle> vehicleList = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicleList.size(); i += batchSize) {
+            discovery.discover(vehicleList.subList(i, Math.min(i + batchSize, vehicleList.size())));
+        }
+    }
+
+    /**
+     * Starts discovery of the vehicle for the current query unless it is discovered or being discovered
+     *
+     * @return future completed with the flights of the vehicle sorted by start time
+     */
+    public CompletableFuture<List<? extends Flight>> discover(Vehicle vehicle) {
+        final Discovery discovery = currentDiscovery;
+        if (discovery == null) {
+            throw new IllegalStateException("Fleet discovery is not started");
+        }
+        return discovery.discover(singletonList(vehicle)).get(vehicle);
+    }
+
+    /**
+     * @return flights of the vehicle for the current query, empty if they are not discovered yet
+     */
+    public Optional<List<? extends Flight>> getDiscoveredFlights(Vehicle vehicle) {
+        final Discovery discovery = currentDiscovery;
+        return discovery == null ? Optional.empty() : discovery.flightsByVehicle.getLoaded(vehicle);
+    }
+
+    private Executor createDiscoveryPool() {
+        return new ForkJoinPool(concurrency, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("flight-discovery-" + thread.getPoolIndex());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Time range and maximum number of the latest flights to discover for each vehicle
+     */
+    public static final class Query {
+        private final ZonedDateTime fromTime;
+        private final ZonedDateTime toTime;
+        private final int tracksLimit;
+
+        public Query(ZonedDateTime fromTime, ZonedDateTime toTime, int tracksLimit) {
+            this.fromTime = fromTime;
+            this.toTime = toTime;
+            this.tracksLimit = tracksLimit;
+        }
+    }
+
+    /**
+     * Flights of the vehicles discovered for a single query
+     */
+    private final class Discovery {
+        private final Query query;
+        private final AsyncCache<Vehicle, List<? extends Flight>> flightsByVehicle = new AsyncCache<>(executor.get());
+
+        private Discovery(Query query) {
+            this.query = query;
+            flightsByVehicle.addLoadListener((vehicle, flights) -> {
+                if (this == currentDiscovery) {
+                    discoveryListeners.forEach(listener -> listener.accept(vehicle, flights));
+                }
+            });
+        }
+
+        private Map<Vehicle, CompletableFuture<List<? extends Flight>>> discover(List<Vehicle> vehicles) {
+            return flightsByVehicle.loadAll(vehicles, this::getFlights);
+        }
+
+        private Map<Vehicle, List<? extends Flight>> getFlights(List<Vehicle> vehicles) {
+            final Map<String, ? extends List<? extends Flight>> flightsBySerial =
+                    flightsSource.get().getFlights(vehicles, query.fromTime, query.toTime, query.tracksLimit);
+
+            final Map<Vehicle, List<? extends Flight>> flightsByVehicle = new HashMap<>();
+            for (Vehicle vehicle : vehicles) {
+                final List<? extends Flight> flights = flightsBySerial.get(vehicle.getSerialNumber());
+                if (flights != null) {
+                    flightsByVehicle.put(vehicle, flights);
+                }
+            }
+            return flightsByVehicle;
+        }
+    }
+}
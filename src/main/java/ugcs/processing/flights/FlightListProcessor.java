@@ -1,6 +1,6 @@
 package ugcs.processing.flights;
 
-import ugcs.common.LazyFieldEvaluator;
+import ugcs.common.Lazy;
 import ugcs.processing.Flight;
 
 import java.time.LocalDate;
@@ -11,8 +11,9 @@ import java.util.stream.Collectors;
 /**
  * Class for processing list of {@link Flight}s
  */
-public class FlightListProcessor extends LazyFieldEvaluator {
+public class FlightListProcessor {
     private final List<? extends Flight> flights;
+    private final Lazy<Set<LocalDate>> flightDates = Lazy.of(this::collectFlightDates);
 
     public FlightListProcessor(List<? extends Flight> flights) {
         this.flights = flights;
@@ -23,10 +24,12 @@ public class FlightListProcessor extends LazyFieldEvaluator {
     }
 
     private Set<LocalDate> getFlightDates() {
-        return evaluateField("flightDates",
-                () -> flights.stream()
-                        .map(Flight::getStartLocalDate)
-                        .collect(Collectors.toSet())
-        );
+        return flightDates.get();
+    }
+
+    private Set<LocalDate> collectFlightDates() {
+        return flights.stream()
+                .map(Flight::getStartLocalDate)
+                .collect(Collectors.toSet());
     }
 }
@@ -2,7 +2,7 @@ package ugcs.processing.logs;
 
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
 import com.ugcs.ucs.proto.DomainProto.VehicleLogEntry;
-import ugcs.common.LazyFieldEvaluator;
+import ugcs.common.Lazy;
 import ugcs.processing.Flight;
 
 import java.util.LinkedList;
@@ -15,12 +15,14 @@ import static java.util.stream.Collectors.toList;
 /**
  * Class for {@link Flight} calculation based on {@link VehicleLogEntry}
  */
-public class LogsProcessor extends LazyFieldEvaluator {
+public class LogsProcessor {
     private final static long UNDEFINED = Long.MIN_VALUE;
 
     private final List<VehicleLogEntry> sortedByTimeLogEntryList;
     private final Vehicle vehicle;
 
+    private final Lazy<List<FlightLog>> flightLogs = Lazy.of(this::splitIntoFlightLogs);
+
     public LogsProcessor(List<VehicleLogEntry> logEntryList, Vehicle vehicle) {
         this.sortedByTimeLogEntryList = logEntryList.stream()
                 .sorted((e1, e2) -> (int) (e1.getTime() - e2.getTime()))
@@ -30,23 +32,24 @@ public class LogsProcessor extends LazyFieldEvaluator {
     }
 
     public List<FlightLog> getFlightLogs() {
-        return evaluateField("flightLogs",
-                () -> {
-                    final List<FlightLog> flightLogs = new LinkedList<>();
-
-                    long armTime = UNDEFINED;
-                    for (VehicleLogEntry logEntry : sortedByTimeLogEntryList) {
-                        if (armTime == UNDEFINED && checkLogEntry(logEntry, "arm")) {
-                            armTime = logEntry.getTime();
-                        } else if (armTime != UNDEFINED && checkLogEntry(logEntry, "disarm")) {
-                            final long disarmTime = logEntry.getTime();
-                            flightLogs.add(new FlightLog(armTime, disarmTime, vehicle));
-                            armTime = UNDEFINED;
-                        }
-                    }
-
-                    return unmodifiableList(flightLogs);
-                });
+        return flightLogs.get();
+    }
+
+    private List<FlightLog> splitIntoFlightLogs() {
+        final List<FlightLog> flightLogs = new LinkedList<>();
+
+        long armTime = UNDEFINED;
+        for (VehicleLogEntry logEntry : sortedByTimeLogEntryList) {
+            if (armTime == UNDEFINED && checkLogEntry(logEntry, "arm")) {
+                armTime = logEntry.getTime();
+            } else if (armTime != UNDEFINED && checkLogEntry(logEntry, "disarm")) {
+                final long disarmTime = logEntry.getTime();
+                flightLogs.add(new FlightLog(armTime, disarmTime, vehicle));
+                armTime = UNDEFINED;
+            }
+        }
+
+        return unmodifiableList(flightLogs);
     }
 
     private static boolean checkLogEntry(VehicleLogEntry entry, String commandCode) {
@@ -0,0 +1,18 @@
+package ugcs.processing.telemetry;
+
+import ugcs.common.files.FileNameGenerator;
+import ugcs.processing.Flight;
+import ugcs.processing.telemetry.frames.TelemetryFrameArchive;
+
+import java.nio.file.Path;
+
+/**
+ * {@link FileNameGenerator} for {@link TelemetryFrameArchive} files
+ */
+public class ArchiveFileNameGenerator extends FileNameGenerator {
+
+    public ArchiveFileNameGenerator(Path targetFolder, Flight flight) {
+        super(targetFolder, TelemetryFrameArchive.FILE_EXTENSION,
+                flight.getVehicle().getName(), flight.getStartDate(), flight.getEndDate());
+    }
+}
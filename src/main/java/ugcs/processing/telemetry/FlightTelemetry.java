@@ -2,37 +2,83 @@ package ugcs.processing.telemetry;
 
 import com.ugcs.ucs.proto.DomainProto.Telemetry;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
-import org.apache.commons.lang3.tuple.Pair;
 import ugcs.common.identity.Identity;
 import ugcs.processing.AbstractFlight;
 import ugcs.processing.Flight;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
 
-import java.util.List;
-import java.util.Map;
-
-import static java.util.Collections.unmodifiableList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * {@link Flight} implementation with {@link Telemetry}
+ * <p>
+ * Flight telemetry may be a projection holding the fields needed by its consumers only, see
+ * {@link #project(Collection)}. Telemetry of other fields is acquired again when it is requested.
  */
 public class FlightTelemetry extends AbstractFlight {
-    private final List<Pair<Long, Map<String, Telemetry>>> telemetry;
+    private final TelemetryFrameTable telemetry;
+    private final Set<String> projectedFieldCodes;
+    private final Function<Flight, TelemetryFrameTable> telemetryAcquirer;
+
+    private FlightTelemetry(TelemetryFrameTable telemetryRecords, Vehicle vehicle, Identity<?> id,
+                            Set<String> projectedFieldCodes,
+                            Function<Flight, TelemetryFrameTable> telemetryAcquirer) {
+        super(telemetryRecords.getTime(0), telemetryRecords.getTime(telemetryRecords.getRowCount() - 1), vehicle, id);
+        this.telemetry = telemetryRecords;
+        this.projectedFieldCodes = projectedFieldCodes;
+        this.telemetryAcquirer = telemetryAcquirer;
+    }
 
-    private FlightTelemetry(List<Pair<Long, Map<String, Telemetry>>> telemetryRecords, Vehicle vehicle, Identity<?> id) {
-        super(telemetryRecords.get(0).getLeft(), telemetryRecords.get(telemetryRecords.size() - 1).getLeft(), vehicle, id);
-        this.telemetry = unmodifiableList(telemetryRecords);
+    FlightTelemetry(TelemetryFrameTable telemetryRecords, Vehicle vehicle) {
+        this(telemetryRecords, vehicle, FlightTelemetryProcessor::acquireTelemetry);
     }
 
-    FlightTelemetry(List<Pair<Long, Map<String, Telemetry>>> telemetryRecords, Vehicle vehicle) {
-        super(telemetryRecords.get(0).getLeft(), telemetryRecords.get(telemetryRecords.size() - 1).getLeft(), vehicle);
-        this.telemetry = unmodifiableList(telemetryRecords);
+    /**
+     * @param telemetryAcquirer acquires complete telemetry of the flight for fields missing in the projection
+     */
+    FlightTelemetry(TelemetryFrameTable telemetryRecords, Vehicle vehicle,
+                    Function<Flight, TelemetryFrameTable> telemetryAcquirer) {
+        super(telemetryRecords.getTime(0), telemetryRecords.getTime(telemetryRecords.getRowCount() - 1), vehicle);
+        this.telemetry = telemetryRecords;
+        this.projectedFieldCodes = null;
+        this.telemetryAcquirer = telemetryAcquirer;
     }
 
     public static FlightTelemetry withId(FlightTelemetry flight, Identity<?> id) {
-        return new FlightTelemetry(flight.getTelemetry(), flight.getVehicle(), id);
+        return new FlightTelemetry(flight.telemetry, flight.getVehicle(), id, flight.projectedFieldCodes,
+                flight.telemetryAcquirer);
+    }
+
+    /**
+     * @return flight keeping columns of the given fields only, the other columns may be freed
+     */
+    public FlightTelemetry project(Collection<String> fieldCodes) {
+        return new FlightTelemetry(getTelemetry(fieldCodes).project(fieldCodes), getVehicle(), getId(),
+                new LinkedHashSet<>(fieldCodes), telemetryAcquirer);
     }
 
-    public List<Pair<Long, Map<String, Telemetry>>> getTelemetry() {
+    /**
+     * @return telemetry held by the flight, only the projected fields if the flight is a projection
+     */
+    public TelemetryFrameTable getTelemetry() {
         return telemetry;
     }
+
+    /**
+     * @return telemetry having the given fields (if recorded for the flight), acquired again if some of the fields
+     * are not in the projection
+     */
+    public TelemetryFrameTable getTelemetry(Collection<String> fieldCodes) {
+        if (projectedFieldCodes == null || projectedFieldCodes.containsAll(fieldCodes)) {
+            return telemetry;
+        }
+        return telemetryAcquirer.apply(this);
+    }
+
+    public boolean isProjection() {
+        return projectedFieldCodes != null;
+    }
 }
@@ -1,64 +1,87 @@
 package ugcs.processing.telemetry;
 
-import com.ugcs.ucs.proto.DomainProto;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
-import org.apache.commons.lang3.tuple.Pair;
 import ugcs.net.SessionController;
 import ugcs.processing.Flight;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.stream.Stream;
 
+import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
 import static ugcs.net.SessionController.sessionController;
+import static ugcs.processing.telemetry.FlightTelemetrySegmenter.NO_FLIGHT_SEPARATION;
+import static ugcs.processing.telemetry.cache.TelemetryCache.telemetryCache;
 
 /**
  * {@link TelemetryProcessor} extension with support of dynamic {@link FlightTelemetry} calculation for a {@link Flight}
  */
 public class FlightTelemetryProcessor extends TelemetryProcessor {
-    private final List<FlightTelemetry> flightTelemetries;
-
     public FlightTelemetryProcessor(List<FlightTelemetry> flightTelemetries, Vehicle vehicle) {
-        super(null, vehicle);
-
-        this.flightTelemetries = flightTelemetries;
+        this(flightTelemetries, vehicle, NO_FLIGHT_SEPARATION);
     }
 
     public FlightTelemetryProcessor(Flight flight) {
-        super(null, flight.getVehicle());
+        this(flight, NO_FLIGHT_SEPARATION);
+    }
+
+    public FlightTelemetryProcessor(Flight flight, long flightSeparationThresholdMs) {
+        this(getFlightTelemetry(flight, sessionController(), flightSeparationThresholdMs), flight.getVehicle(),
+                flightSeparationThresholdMs);
+    }
 
-        flightTelemetries = getFlightTelemetry(flight, sessionController());
+    private FlightTelemetryProcessor(List<FlightTelemetry> flightTelemetries, Vehicle vehicle,
+                                     long flightSeparationThresholdMs) {
+        super(() -> mergeFlightTelemetries(flightTelemetries), vehicle, flightSeparationThresholdMs);
     }
 
-    @Override
-    public SortedMap<Long, Map<String, DomainProto.Telemetry>> getProcessedTelemetry() {
-        return evaluateField("processedTelemetry",
-                () -> flightTelemetries.stream()
-                        .flatMap(flightTelemetry -> flightTelemetry.getTelemetry().stream())
-                        .collect(toMap(Pair::getKey, Pair::getValue, (t1, t2) -> t1, TreeMap::new))
-        );
+    /**
+     * Acquires complete telemetry of the flight frames in the flight time range
+     */
+    static TelemetryFrameTable acquireTelemetry(Flight flight) {
+        return mergeFlightTelemetries(acquireFlightTelemetry(flight, sessionController(), NO_FLIGHT_SEPARATION));
     }
 
-    private static List<FlightTelemetry> getFlightTelemetry(Flight flight, SessionController sessionController) {
+    private static TelemetryFrameTable mergeFlightTelemetries(List<FlightTelemetry> flightTelemetries) {
+        if (flightTelemetries.size() == 1) {
+            return flightTelemetries.get(0).getTelemetry();
+        }
+
+        final TelemetryFrameTable.Builder builder = TelemetryFrameTable.builder();
+        flightTelemetries.stream()
+                .sorted(comparing(FlightTelemetry::getStartEpochMilli))
+                .map(FlightTelemetry::getTelemetry)
+                .forEach(telemetry -> {
+                    for (int row = 0; row < telemetry.getRowCount(); row++) {
+                        builder.appendRow(telemetry, row);
+                    }
+                });
+        return builder.build();
+    }
+
+    private static List<FlightTelemetry> getFlightTelemetry(Flight flight, SessionController sessionController,
+                                                            long flightSeparationThresholdMs) {
         return Stream.of(flight)
                 .flatMap(f -> f instanceof FlightTelemetry
                         ? Stream.of((FlightTelemetry) f)
-                        : acquireFlightTelemetry(f, sessionController).stream())
+                        : acquireFlightTelemetry(f, sessionController, flightSeparationThresholdMs).stream())
                 .collect(toList());
     }
 
-    private static List<FlightTelemetry> acquireFlightTelemetry(Flight flight, SessionController sessionController) {
+    private static List<FlightTelemetry> acquireFlightTelemetry(Flight flight, SessionController sessionController,
+                                                                long flightSeparationThresholdMs) {
         final Vehicle vehicle = flight.getVehicle();
         final long startEpochMilli = flight.getStartEpochMilli();
         final long endEpochMilli = flight.getEndEpochMilli();
 
-        return new TelemetryProcessor(
-                sessionController.getTelemetry(vehicle, startEpochMilli, endEpochMilli).getTelemetryList(),
-                vehicle
-        ).getFlightTelemetries();
+        final List<FlightTelemetry> flightTelemetries = new ArrayList<>();
+        final FlightTelemetrySegmenter segmenter =
+                new FlightTelemetrySegmenter(vehicle, flightSeparationThresholdMs, flightTelemetries::add);
+        telemetryCache().getTelemetry(sessionController::getTelemetry, vehicle, startEpochMilli, endEpochMilli, segmenter);
+        segmenter.finish();
+
+        return flightTelemetries;
     }
 }
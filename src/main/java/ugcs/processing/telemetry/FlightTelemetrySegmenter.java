@@ -0,0 +1,146 @@
+package ugcs.processing.telemetry;
+
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import ugcs.processing.telemetry.frames.DoubleColumn;
+import ugcs.processing.telemetry.frames.TelemetryColumn;
+import ugcs.processing.telemetry.frames.TelemetryFrameConsumer;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Single pass splitter of {@link Telemetry} into {@link FlightTelemetry}
+ * <p>
+ * Telemetry values are reordered by time within a window of the latest frames, so values of interleaved or slightly
+ * out of order frames are merged. A frame is complete when it leaves the window; a value older than the window fails
+ * with {@link IllegalArgumentException}. Frames without valid coordinates are dropped as soon as they are complete,
+ * so only the frames of the flight being assembled are kept in memory. A flight is closed when the time gap between
+ * two consecutive frames reaches the separation threshold, closed flights are passed to the flight consumer.
+ * {@link #finish()} closes the last one.
+ */
+public class FlightTelemetrySegmenter implements TelemetryFrameConsumer {
+    public static final long NO_FLIGHT_SEPARATION = Long.MAX_VALUE;
+    static final int DEFAULT_REORDER_WINDOW_FRAMES = 1024;
+
+    private final Vehicle vehicle;
+    private final long flightSeparationThresholdMs;
+    private final Consumer<FlightTelemetry> flightConsumer;
+    private final int reorderWindowFrames;
+
+    private final NavigableMap<Long, List<Telemetry>> pendingFrames = new TreeMap<>();
+    private TelemetryFrameTable.Builder currentFlight = TelemetryFrameTable.builder();
+    private boolean hasFrames = false;
+    private long lastFrameTime;
+
+    public FlightTelemetrySegmenter(Vehicle vehicle, long flightSeparationThresholdMs,
+                                    Consumer<FlightTelemetry> flightConsumer) {
+        this(vehicle, flightSeparationThresholdMs, flightConsumer, DEFAULT_REORDER_WINDOW_FRAMES);
+    }
+
+    FlightTelemetrySegmenter(Vehicle vehicle, long flightSeparationThresholdMs,
+                             Consumer<FlightTelemetry> flightConsumer, int reorderWindowFrames) {
+        if (flightSeparationThresholdMs <= 0) {
+            throw new IllegalArgumentException("Flight separation threshold must be positive: "
+                    + flightSeparationThresholdMs);
+        }
+
+        this.vehicle = vehicle;
+        this.flightSeparationThresholdMs = flightSeparationThresholdMs;
+        this.flightConsumer = flightConsumer;
+        this.reorderWindowFrames = reorderWindowFrames;
+    }
+
+    @Override
+    public void accept(Telemetry telemetry) {
+        final long time = telemetry.getTime();
+        checkNotCompleted(time);
+        pendingFrames.computeIfAbsent(time, key -> new ArrayList<>()).add(telemetry);
+        if (pendingFrames.size() > reorderWindowFrames) {
+            completeFrame(pendingFrames.pollFirstEntry());
+        }
+    }
+
+    @Override
+    public void acceptRow(TelemetryFrameTable table, int row) {
+        final long time = table.getTime(row);
+        checkNotCompleted(time);
+        while (!pendingFrames.isEmpty() && pendingFrames.firstKey() < time) {
+            completeFrame(pendingFrames.pollFirstEntry());
+        }
+
+        startFrame(time);
+        currentFlight.appendRow(table, row);
+        final List<Telemetry> pendingValues = pendingFrames.remove(time);
+        if (pendingValues != null) {
+            pendingValues.forEach(currentFlight::add);
+        }
+        dropIfNotFlightRecord();
+    }
+
+    /**
+     * Completes pending frames and passes the last flight (if any) to the flight consumer
+     */
+    public void finish() {
+        while (!pendingFrames.isEmpty()) {
+            completeFrame(pendingFrames.pollFirstEntry());
+        }
+        closeFlight();
+    }
+
+    private void checkNotCompleted(long time) {
+        if (hasFrames && time <= lastFrameTime) {
+            throw new IllegalArgumentException("Telemetry at " + time + " is out of time order beyond "
+                    + reorderWindowFrames + " frames, frame at " + lastFrameTime + " is already complete");
+        }
+    }
+
+    private void completeFrame(Map.Entry<Long, List<Telemetry>> frame) {
+        startFrame(frame.getKey());
+        frame.getValue().forEach(currentFlight::add);
+        dropIfNotFlightRecord();
+    }
+
+    private void startFrame(long time) {
+        final long timeDiff = hasFrames ? time - lastFrameTime : Long.MAX_VALUE;
+        hasFrames = true;
+        lastFrameTime = time;
+
+        if (!currentFlight.isEmpty() && timeDiff >= flightSeparationThresholdMs) {
+            closeFlight();
+        }
+    }
+
+    private void dropIfNotFlightRecord() {
+        if (!isFlightRecord(currentFlight.getRowCount() - 1)) {
+            currentFlight.dropLastRow();
+        }
+    }
+
+    private void closeFlight() {
+        if (currentFlight.getRowCount() > 1) {
+            flightConsumer.accept(new FlightTelemetry(currentFlight.build(), vehicle));
+        }
+        currentFlight = TelemetryFrameTable.builder();
+    }
+
+    private boolean isFlightRecord(int row) {
+        final Optional<TelemetryColumn> latitude = currentFlight.getColumn("latitude");
+        final Optional<TelemetryColumn> longitude = currentFlight.getColumn("longitude");
+        if (row >= 0 && latitude.isPresent() && longitude.isPresent()
+                && latitude.get().isPresent(row) && longitude.get().isPresent(row)) {
+            return coordinateValue(latitude.get(), row) != 0.0 && coordinateValue(longitude.get(), row) != 0.0;
+        }
+        return false;
+    }
+
+    private static double coordinateValue(TelemetryColumn column, int row) {
+        return column instanceof DoubleColumn ? ((DoubleColumn) column).get(row) : 0.0;
+    }
+}
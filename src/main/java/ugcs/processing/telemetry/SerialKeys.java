@@ -0,0 +1,24 @@
+package ugcs.processing.telemetry;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File name keys of vehicles for the on-disk telemetry and tracks storages
+ */
+public final class SerialKeys {
+    private SerialKeys() {
+    }
+
+    /**
+     * @return hex encoded UTF-8 bytes of the serial number, distinct for distinct serials on any file system
+     */
+    public static String serialKey(Vehicle vehicle) {
+        final StringBuilder serialKey = new StringBuilder();
+        for (byte b : vehicle.getSerialNumber().getBytes(StandardCharsets.UTF_8)) {
+            serialKey.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return serialKey.toString();
+    }
+}
@@ -2,117 +2,91 @@ package ugcs.processing.telemetry;
 
 import com.ugcs.ucs.proto.DomainProto.Telemetry;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
-import ugcs.common.LazyFieldEvaluator;
+import ugcs.common.Lazy;
+import ugcs.common.metrics.Counter;
+import ugcs.common.metrics.Timer;
 import ugcs.processing.Flight;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toMap;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
+import static ugcs.processing.telemetry.FlightTelemetrySegmenter.NO_FLIGHT_SEPARATION;
 
 /**
  * Class for {@link Flight} calculation based on {@link Telemetry}
+ * <p>
+ * The processed telemetry table is kept for the life of the processor, as building it may take a download. The flights
+ * split from it are softly referenced: under memory pressure they are reclaimed and split again from the table.
  */
-public class TelemetryProcessor extends LazyFieldEvaluator {
-    private static final int FLIGHT_SEPARATION_THRESHOLD_MS = Integer.MAX_VALUE;
+public class TelemetryProcessor {
+    private static final Timer TABLE_BUILD_TIMER = metrics().timer("telemetry_table_build_seconds",
+            "Time to build the telemetry table, including download of the telemetry not found in the cache");
+    private static final Timer SEGMENTATION_TIMER =
+            metrics().timer("telemetry_segmentation_seconds", "Time to split telemetry into flights");
+    private static final Counter PROCESSED_ROWS =
+            metrics().counter("telemetry_processed_rows_total", "Telemetry frames split into flights");
 
-    private final List<Telemetry> telemetryList;
     private final Vehicle vehicle;
+    private final long flightSeparationThresholdMs;
+
+    private final Lazy<TelemetryFrameTable> processedTelemetry;
+    private final Lazy<Set<String>> allFieldCodes = Lazy.of(() -> getProcessedTelemetry().getFieldCodes());
+    private final Lazy<List<FlightTelemetry>> flightTelemetries = Lazy.soft(this::splitIntoFlights);
 
     public TelemetryProcessor(List<Telemetry> telemetryList, Vehicle vehicle) {
-        this.telemetryList = telemetryList;
+        this(() -> {
+            final TelemetryFrameTable.Builder builder = TelemetryFrameTable.builder();
+            telemetryList.forEach(builder::add);
+            return builder.build();
+        }, vehicle, NO_FLIGHT_SEPARATION);
+    }
+
+    public TelemetryProcessor(TelemetryFrameTable processedTelemetry, Vehicle vehicle) {
+        this(processedTelemetry, vehicle, NO_FLIGHT_SEPARATION);
+    }
+
+    public TelemetryProcessor(TelemetryFrameTable processedTelemetry, Vehicle vehicle,
+                              long flightSeparationThresholdMs) {
+        this(() -> processedTelemetry, vehicle, flightSeparationThresholdMs);
+    }
+
+    protected TelemetryProcessor(Supplier<TelemetryFrameTable> telemetrySupplier, Vehicle vehicle,
+                                 long flightSeparationThresholdMs) {
+        this.processedTelemetry = Lazy.of(() -> TABLE_BUILD_TIMER.time(telemetrySupplier));
         this.vehicle = vehicle;
+        this.flightSeparationThresholdMs = flightSeparationThresholdMs;
     }
 
-    public SortedMap<Long, Map<String, Telemetry>> getProcessedTelemetry() {
-        return evaluateField("processedTelemetry",
-                () -> telemetryList.stream()
-                        .sorted(comparing(Telemetry::getTime))
-                        .collect(groupingBy(Telemetry::getTime, TreeMap::new,
-                                toMap(t -> t.getTelemetryField().getCode(), t -> t, (t1, t2) -> {
-                                    System.err.println("*** Merge fail:");
-                                    System.err.println(t1);
-                                    System.err.println(t2);
-                                    return t1;
-                                }))));
+    public TelemetryFrameTable getProcessedTelemetry() {
+        return processedTelemetry.get();
     }
 
     public Set<String> getAllFieldCodes() {
-        return evaluateField("allFieldCodes",
-                () -> getProcessedTelemetry().values().stream()
-                        .flatMap(m -> m.values().stream())
-                        .map(t -> t.getTelemetryField().getCode())
-                        .collect(Collectors.toSet()));
+        return allFieldCodes.get();
     }
 
     public List<FlightTelemetry> getFlightTelemetries() {
-        return evaluateField("flightTelemetries",
-                () -> {
-                    final List<FlightTelemetry> flightTelemetries = new ArrayList<>();
-
-                    final SortedMap<Long, Map<String, Telemetry>> allTelemetry = getProcessedTelemetry();
-
-                    long lastTelemetryTime = 0;
-                    final List<Triple<Long, Long, Map<String, Telemetry>>> telemetryByTimeDiff = new LinkedList<>();
-                    for (Map.Entry<Long, Map<String, Telemetry>> entry : allTelemetry.entrySet()) {
-                        if (lastTelemetryTime == 0) {
-                            telemetryByTimeDiff.add(Triple.of(Long.MAX_VALUE, entry.getKey(), entry.getValue()));
-                        } else {
-                            telemetryByTimeDiff.add(Triple.of(entry.getKey() - lastTelemetryTime, entry.getKey(), entry.getValue()));
-                        }
-                        lastTelemetryTime = entry.getKey();
-                    }
-
-                    List<Pair<Long, Map<String, Telemetry>>> currentFlightTelemetry = new LinkedList<>();
-                    for (Triple<Long, Long, Map<String, Telemetry>> telemetryWithTimeDiff : telemetryByTimeDiff) {
-                        final Pair<Long, Map<String, Telemetry>> telemetryRecordPair =
-                                Pair.of(telemetryWithTimeDiff.getMiddle(), telemetryWithTimeDiff.getRight());
-                        if (currentFlightTelemetry.isEmpty()) {
-                            addFlightRecord(currentFlightTelemetry, telemetryRecordPair);
-                        } else {
-                            if (telemetryWithTimeDiff.getLeft() < FLIGHT_SEPARATION_THRESHOLD_MS) {
-                                addFlightRecord(currentFlightTelemetry, telemetryRecordPair);
-                            } else {
-                                if (currentFlightTelemetry.size() > 1) {
-                                    flightTelemetries.add(new FlightTelemetry(currentFlightTelemetry, vehicle));
-                                }
-                                currentFlightTelemetry = new LinkedList<>();
-                                addFlightRecord(currentFlightTelemetry, telemetryRecordPair);
-                            }
-                        }
-                    }
-
-                    if (currentFlightTelemetry.size() > 1) {
-                        flightTelemetries.add(new FlightTelemetry(currentFlightTelemetry, vehicle));
-                    }
-
-                    return flightTelemetries;
-                });
-    }
-
-    private static boolean isFlightRecord(Map<String, Telemetry> telemetryRecord) {
-        if (telemetryRecord.containsKey("latitude") && telemetryRecord.containsKey("longitude")) {
-            final double latitude = telemetryRecord.get("latitude").getValue().getDoubleValue();
-            final double longitude = telemetryRecord.get("longitude").getValue().getDoubleValue();
-            return latitude != 0.0 && longitude != 0.0;
-        }
-        return false;
+        return flightTelemetries.get();
     }
 
-    private static void addFlightRecord(List<Pair<Long, Map<String, Telemetry>>> flightTelemetry,
-                                        Pair<Long, Map<String, Telemetry>> telemetryRecordPair) {
-        if (isFlightRecord(telemetryRecordPair.getRight())) {
-            flightTelemetry.add(telemetryRecordPair);
-        }
+    private List<FlightTelemetry> splitIntoFlights() {
+        final TelemetryFrameTable allTelemetry = getProcessedTelemetry();
+        return SEGMENTATION_TIMER.time(() -> {
+            final List<FlightTelemetry> flightTelemetries = new ArrayList<>();
+            final FlightTelemetrySegmenter segmenter = new FlightTelemetrySegmenter(
+                    vehicle, flightSeparationThresholdMs, flightTelemetries::add);
+
+            for (int row = 0; row < allTelemetry.getRowCount(); row++) {
+                segmenter.acceptRow(allTelemetry, row);
+            }
+            segmenter.finish();
+            PROCESSED_ROWS.add(allTelemetry.getRowCount());
+
+            return flightTelemetries;
+        });
     }
 }
@@ -0,0 +1,339 @@
+package ugcs.processing.telemetry.cache;
+
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import lombok.SneakyThrows;
+import ugcs.processing.telemetry.frames.TelemetryFrameConsumer;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+import ugcs.processing.telemetry.frames.TelemetryFrameTableCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.processing.telemetry.SerialKeys.serialKey;
+
+/**
+ * Disk cache of downloaded telemetry, keyed by vehicle serial number and time range
+ * <p>
+ * Each cached segment is a {@link TelemetryFrameTable} of a time range stored in the compact binary form.
+ * Requests are served from overlapping segments and only missing gaps are fetched from the {@link TelemetrySource}.
+ * Fetched telemetry is passed to the consumer as it arrives and stored as a new segment when the gap is complete. Least recently used segments are evicted when the total size exceeds the limit.
+ * Ranges which are not older than the settling time are never cached, because telemetry may still be arriving.
+ * Until {@link #open(Path, long)} is called all requests go straight to the source.
+ */
+public class TelemetryCache {
+    private static final String SEGMENT_FILE_EXTENSION = ".seg";
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("(-?\\d+)_(-?\\d+)\\" + SEGMENT_FILE_EXTENSION);
+    private static final long SETTLING_TIME_MS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Source of telemetry for the cache misses
+     */
+    @FunctionalInterface
+    public interface TelemetrySource {
+        void getTelemetry(Vehicle vehicle, long startTimeEpochMilli, long endTimeEpochMilli,
+                          Consumer<Telemetry> telemetryConsumer);
+    }
+
+    private final Map<String, NavigableMap<Long, Segment>> segmentsBySerial = new HashMap<>();
+    private volatile Path cacheFolder;
+    private long maxSizeBytes;
+    private long totalSizeBytes;
+
+    private final AtomicLong segmentHits = new AtomicLong();
+    private final AtomicLong gapMisses = new AtomicLong();
+    private final AtomicLong rowsFromCache = new AtomicLong();
+    private final AtomicLong rowsFromSource = new AtomicLong();
+
+    private static volatile TelemetryCache instance;
+
+    public static TelemetryCache telemetryCache() {
+        if (instance == null) {
+            synchronized (TelemetryCache.class) {
+                if (instance == null) {
+                    instance = new TelemetryCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    TelemetryCache() {
+    }
+
+    /**
+     * Loads the index of cached segments from the given folder and enables caching
+     */
+    @SneakyThrows
+    public synchronized void open(Path cacheFolder, long maxSizeBytes) {
+        this.cacheFolder = Files.createDirectories(cacheFolder);
+        this.maxSizeBytes = maxSizeBytes;
+        segmentsBySerial.clear();
+        totalSizeBytes = 0;
+
+        try (DirectoryStream<Path> vehicleFolders = Files.newDirectoryStream(cacheFolder, Files::isDirectory)) {
+            for (Path vehicleFolder : vehicleFolders) {
+                final String serialKey = vehicleFolder.getFileName().toString();
+                try (DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(vehicleFolder)) {
+                    for (Path segmentFile : segmentFiles) {
+                        loadSegment(serialKey, segmentFile);
+                    }
+                }
+            }
+        }
+        evictIfNeeded();
+    }
+
+    public boolean isOpen() {
+        return cacheFolder != null;
+    }
+
+    /**
+     * Passes all telemetry of the vehicle in the given time range to the consumer in time order
+     */
+    public void getTelemetry(TelemetrySource source, Vehicle vehicle, long startTimeEpochMilli,
+                             long endTimeEpochMilli, TelemetryFrameConsumer telemetryConsumer) {
+        if (!isOpen()) {
+            source.getTelemetry(vehicle, startTimeEpochMilli, endTimeEpochMilli, telemetryConsumer);
+            return;
+        }
+
+        final String serialKey = serialKey(vehicle);
+        long cursor = startTimeEpochMilli;
+        for (Segment segment : overlappingSegments(serialKey, startTimeEpochMilli, endTimeEpochMilli)) {
+            if (segment.startTime > cursor) {
+                fetchGap(source, vehicle, cursor, segment.startTime - 1, telemetryConsumer);
+            }
+
+            final long segmentEnd = Math.min(segment.endTime, endTimeEpochMilli);
+            final long segmentStart = Math.max(cursor, segment.startTime);
+            final TelemetryFrameTable cachedTelemetry = readSegment(serialKey, segment);
+            if (cachedTelemetry == null) {
+                fetchGap(source, vehicle, segmentStart, segmentEnd, telemetryConsumer);
+            } else {
+                segmentHits.incrementAndGet();
+                rowsFromCache.addAndGet(emitRows(cachedTelemetry, segmentStart, segmentEnd, telemetryConsumer));
+            }
+            cursor = segmentEnd + 1;
+        }
+
+        if (cursor <= endTimeEpochMilli) {
+            fetchGap(source, vehicle, cursor, endTimeEpochMilli, telemetryConsumer);
+        }
+
+        getLogger(getClass()).debug(getStatisticsReport());
+    }
+
+    public synchronized String getStatisticsReport() {
+        return String.format("Telemetry cache: %d segment hits (%d frames), %d gap misses (%d frames), "
+                        + "%d segments, %d of %d bytes used",
+                segmentHits.get(), rowsFromCache.get(), gapMisses.get(), rowsFromSource.get(),
+                segmentsBySerial.values().stream().mapToInt(Map::size).sum(), totalSizeBytes, maxSizeBytes);
+    }
+
+    private void fetchGap(TelemetrySource source, Vehicle vehicle, long startTime, long endTime,
+                          TelemetryFrameConsumer telemetryConsumer) {
+        gapMisses.incrementAndGet();
+
+        final TelemetryFrameTable.Builder segmentBuilder =
+                endTime < System.currentTimeMillis() - SETTLING_TIME_MS ? TelemetryFrameTable.builder() : null;
+        final FrameCounter frameCounter = new FrameCounter();
+        source.getTelemetry(vehicle, startTime, endTime, telemetry -> {
+            telemetryConsumer.accept(telemetry);
+            frameCounter.accept(telemetry);
+            if (segmentBuilder != null) {
+                segmentBuilder.add(telemetry);
+            }
+        });
+        rowsFromSource.addAndGet(frameCounter.frames);
+
+        if (segmentBuilder != null) {
+            storeSegment(serialKey(vehicle), startTime, endTime, segmentBuilder.build());
+        }
+    }
+
+    private static int emitRows(TelemetryFrameTable table, long startTime, long endTime,
+                                TelemetryFrameConsumer telemetryConsumer) {
+        int emittedRows = 0;
+        for (int row = table.firstRowAtOrAfter(startTime);
+             row < table.getRowCount() && table.getTime(row) <= endTime; row++) {
+            telemetryConsumer.acceptRow(table, row);
+            ++emittedRows;
+        }
+        return emittedRows;
+    }
+
+    private synchronized List<Segment> overlappingSegments(String serialKey, long startTime, long endTime) {
+        final NavigableMap<Long, Segment> segments = segmentsBySerial.get(serialKey);
+        if (segments == null) {
+            return new ArrayList<>();
+        }
+
+        final List<Segment> overlappingSegments = new ArrayList<>();
+        final Long firstKey = segments.floorKey(startTime);
+        for (Segment segment : segments.tailMap(firstKey == null ? startTime : firstKey, true).values()) {
+            if (segment.startTime > endTime) {
+                break;
+            }
+            if (segment.endTime >= startTime) {
+                overlappingSegments.add(segment);
+            }
+        }
+        return overlappingSegments;
+    }
+
+    private TelemetryFrameTable readSegment(String serialKey, Segment segment) {
+        final Path segmentPath = segmentPath(serialKey, segment.startTime, segment.endTime);
+        try (InputStream in = Files.newInputStream(segmentPath)) {
+            final TelemetryFrameTable table = TelemetryFrameTableCodec.read(in);
+            touch(segment, segmentPath);
+            return table;
+        } catch (NoSuchFileException evicted) {
+            return null;
+        } catch (IOException readFailure) {
+            getLogger(getClass()).warn("Corrupted telemetry cache segment removed: " + segmentPath, readFailure);
+            removeSegment(serialKey, segment);
+            return null;
+        }
+    }
+
+    private synchronized void storeSegment(String serialKey, long startTime, long endTime,
+                                           TelemetryFrameTable telemetry) {
+        if (!isOpen() || !overlappingSegments(serialKey, startTime, endTime).isEmpty()) {
+            return;
+        }
+
+        final Path segmentPath = segmentPath(serialKey, startTime, endTime);
+        final Path tempPath = segmentPath.resolveSibling(segmentPath.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(segmentPath.getParent());
+            try (OutputStream out = Files.newOutputStream(tempPath)) {
+                TelemetryFrameTableCodec.write(telemetry, out);
+            }
+            Files.move(tempPath, segmentPath, ATOMIC_MOVE, REPLACE_EXISTING);
+
+            final Segment segment = new Segment(startTime, endTime, Files.size(segmentPath), System.currentTimeMillis());
+            segmentsBySerial.computeIfAbsent(serialKey, key -> new TreeMap<>()).put(startTime, segment);
+            totalSizeBytes += segment.sizeBytes;
+        } catch (IOException writeFailure) {
+            getLogger(getClass()).warn("Telemetry cache segment is not stored: " + segmentPath, writeFailure);
+            return;
+        }
+
+        evictIfNeeded();
+    }
+
+    private synchronized void evictIfNeeded() {
+        if (totalSizeBytes <= maxSizeBytes) {
+            return;
+        }
+
+        final List<Map.Entry<String, Segment>> segmentsByAccessTime = new ArrayList<>();
+        segmentsBySerial.forEach((serialKey, segments) ->
+                segments.values().forEach(segment ->
+                        segmentsByAccessTime.add(new AbstractMap.SimpleEntry<>(serialKey, segment))));
+        segmentsByAccessTime.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessTime));
+
+        for (Map.Entry<String, Segment> entry : segmentsByAccessTime) {
+            if (totalSizeBytes <= maxSizeBytes) {
+                break;
+            }
+            removeSegment(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private synchronized void removeSegment(String serialKey, Segment segment) {
+        final NavigableMap<Long, Segment> segments = segmentsBySerial.get(serialKey);
+        if (segments == null || segments.get(segment.startTime) != segment) {
+            return;
+        }
+
+        segments.remove(segment.startTime);
+        totalSizeBytes -= segment.sizeBytes;
+        try {
+            Files.deleteIfExists(segmentPath(serialKey, segment.startTime, segment.endTime));
+        } catch (IOException deleteFailure) {
+            getLogger(getClass()).warn("Telemetry cache segment is not deleted", deleteFailure);
+        }
+    }
+
+    private void touch(Segment segment, Path segmentPath) {
+        segment.lastAccessTime = System.currentTimeMillis();
+        try {
+            Files.setLastModifiedTime(segmentPath, FileTime.fromMillis(segment.lastAccessTime));
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void loadSegment(String serialKey, Path segmentFile) throws IOException {
+        final Matcher matcher = SEGMENT_FILE_NAME.matcher(segmentFile.getFileName().toString());
+        if (!matcher.matches()) {
+            Files.deleteIfExists(segmentFile);
+            return;
+        }
+
+        final Segment segment = new Segment(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                Files.size(segmentFile), Files.getLastModifiedTime(segmentFile).toMillis());
+        segmentsBySerial.computeIfAbsent(serialKey, key -> new TreeMap<>()).put(segment.startTime, segment);
+        totalSizeBytes += segment.sizeBytes;
+    }
+
+    private Path segmentPath(String serialKey, long startTime, long endTime) {
+        return cacheFolder.resolve(serialKey).resolve(startTime + "_" + endTime + SEGMENT_FILE_EXTENSION);
+    }
+
+    /**
+     * Counts frames of time ordered telemetry passed from the source
+     */
+    private static final class FrameCounter implements Consumer<Telemetry> {
+        private int frames = 0;
+        private long lastFrameTime;
+
+        @Override
+        public void accept(Telemetry telemetry) {
+            if (frames == 0 || telemetry.getTime() != lastFrameTime) {
+                ++frames;
+                lastFrameTime = telemetry.getTime();
+            }
+        }
+    }
+
+    /**
+     * Cached telemetry of the closed time range [startTime, endTime]
+     */
+    private static final class Segment {
+        private final long startTime;
+        private final long endTime;
+        private final long sizeBytes;
+        private volatile long lastAccessTime;
+
+        private Segment(long startTime, long endTime, long sizeBytes, long lastAccessTime) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.sizeBytes = sizeBytes;
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+}
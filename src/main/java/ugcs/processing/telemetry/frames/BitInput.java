@@ -0,0 +1,48 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Reader of a bit stream written by {@link BitOutput}
+ */
+final class BitInput {
+    private final DataInput in;
+    private int currentByte = 0;
+    private int availableBitCount = 0;
+
+    BitInput(DataInput in) {
+        this.in = in;
+    }
+
+    boolean readBit() throws IOException {
+        return readBits(1) != 0;
+    }
+
+    long readBits(int bitCount) throws IOException {
+        long value = 0L;
+        while (bitCount > 0) {
+            if (availableBitCount == 0) {
+                currentByte = in.readUnsignedByte();
+                availableBitCount = 8;
+            }
+            final int chunk = Math.min(availableBitCount, bitCount);
+            availableBitCount -= chunk;
+            bitCount -= chunk;
+            value = (value << chunk) | ((currentByte >>> availableBitCount) & ((1 << chunk) - 1));
+        }
+        return value;
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final long group = readBits(8);
+            value |= (group & 0x7F) << shift;
+            if ((group & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length value");
+    }
+}
@@ -0,0 +1,57 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writer of a bit stream to {@link DataOutput}, most significant bits first
+ * <p>
+ * The last partial byte is padded with zeros by {@link #flush()}, the underlying output is not closed.
+ */
+final class BitOutput {
+    private final DataOutput out;
+    private int currentByte = 0;
+    private int currentBitCount = 0;
+
+    BitOutput(DataOutput out) {
+        this.out = out;
+    }
+
+    void writeBit(boolean bit) throws IOException {
+        writeBits(bit ? 1L : 0L, 1);
+    }
+
+    /**
+     * Writes the lowest bitCount bits of the value
+     */
+    void writeBits(long value, int bitCount) throws IOException {
+        while (bitCount > 0) {
+            final int chunk = Math.min(8 - currentBitCount, bitCount);
+            bitCount -= chunk;
+            currentByte = (currentByte << chunk) | (int) ((value >>> bitCount) & ((1 << chunk) - 1));
+            currentBitCount += chunk;
+            if (currentBitCount == 8) {
+                out.writeByte(currentByte);
+                currentByte = 0;
+                currentBitCount = 0;
+            }
+        }
+    }
+
+    /**
+     * Writes unsigned value by 7-bit groups, lowest group first
+     */
+    void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeBits((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        writeBits(value, 8);
+    }
+
+    void flush() throws IOException {
+        if (currentBitCount > 0) {
+            writeBits(0L, 8 - currentBitCount);
+        }
+    }
+}
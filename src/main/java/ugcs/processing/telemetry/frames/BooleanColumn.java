@@ -0,0 +1,79 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * {@link TelemetryColumn} of boolean values packed into a bitmap
+ */
+public final class BooleanColumn extends TelemetryColumn {
+    private final BitSet values = new BitSet();
+    private int capacity;
+
+    BooleanColumn(String fieldCode, Semantic semantic, int capacity) {
+        super(fieldCode, semantic);
+        this.capacity = capacity;
+    }
+
+    public boolean get(int row) {
+        return values.get(row);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.BOOLEAN;
+    }
+
+    @Override
+    int capacity() {
+        return capacity;
+    }
+
+    @Override
+    void resize(int capacity) {
+        if (capacity < this.capacity) {
+            values.clear(capacity, this.capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    void setValue(int row, Value value) {
+        values.set(row, value.hasBoolValue() ? value.getBoolValue() : toLong(value) != 0);
+    }
+
+    @Override
+    void copyValue(int row, TelemetryColumn source, int sourceRow) {
+        values.set(row, ((BooleanColumn) source).values.get(sourceRow));
+    }
+
+    @Override
+    void writeValue(DataOutput out, int row) throws IOException {
+        out.writeBoolean(values.get(row));
+    }
+
+    @Override
+    void readValue(DataInput in, int row) throws IOException {
+        values.set(row, in.readBoolean());
+    }
+
+    @Override
+    long getBits(int row) {
+        return values.get(row) ? 1L : 0L;
+    }
+
+    @Override
+    void setBits(int row, long bits) {
+        values.set(row, bits != 0);
+    }
+
+    @Override
+    TelemetryColumn emptyCopy(int capacity) {
+        return new BooleanColumn(getFieldCode(), getSemantic(), capacity);
+    }
+}
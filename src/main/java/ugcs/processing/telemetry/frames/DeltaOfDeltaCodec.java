@@ -0,0 +1,84 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.IOException;
+
+/**
+ * Delta-of-delta encoding of integer time series, regular timestamps cost a single bit per value
+ * <p>
+ * The first value is written as is. Each next value is written as the difference between its delta and the
+ * previous delta, zigzag-encoded and prefixed by the bucket of its width: {@code 0} for zero, {@code 10} for 7 bits,
+ * {@code 110} for 9 bits, {@code 1110} for 12 bits and {@code 1111} for 64 bits.
+ */
+final class DeltaOfDeltaCodec {
+    private static final int[] BUCKET_WIDTHS = {0, 7, 9, 12, Long.SIZE};
+
+    private DeltaOfDeltaCodec() {
+    }
+
+    static final class Encoder implements ValueEncoder {
+        private final BitOutput out;
+        private boolean first = true;
+        private long previous;
+        private long previousDelta = 0L;
+
+        Encoder(BitOutput out) {
+            this.out = out;
+        }
+
+        @Override
+        public void encode(long value) throws IOException {
+            if (first) {
+                out.writeBits(value, Long.SIZE);
+                first = false;
+            } else {
+                final long delta = value - previous;
+                final long deltaOfDelta = delta - previousDelta;
+                final long zigzag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+
+                int bucket = 0;
+                while (bucket < BUCKET_WIDTHS.length - 1 && (zigzag >>> BUCKET_WIDTHS[bucket]) != 0) {
+                    ++bucket;
+                }
+                // bucket prefix: ones by the bucket number, terminated by zero except for the widest bucket
+                if (bucket < BUCKET_WIDTHS.length - 1) {
+                    out.writeBits((1L << (bucket + 1)) - 2, bucket + 1);
+                } else {
+                    out.writeBits((1L << bucket) - 1, bucket);
+                }
+                out.writeBits(zigzag, BUCKET_WIDTHS[bucket]);
+                previousDelta = delta;
+            }
+            previous = value;
+        }
+    }
+
+    static final class Decoder implements ValueDecoder {
+        private final BitInput in;
+        private boolean first = true;
+        private long previous;
+        private long previousDelta = 0L;
+
+        Decoder(BitInput in) {
+            this.in = in;
+        }
+
+        @Override
+        public long decode() throws IOException {
+            if (first) {
+                previous = in.readBits(Long.SIZE);
+                first = false;
+                return previous;
+            }
+
+            int bucket = 0;
+            while (bucket < BUCKET_WIDTHS.length - 1 && in.readBit()) {
+                ++bucket;
+            }
+            final long zigzag = in.readBits(BUCKET_WIDTHS[bucket]);
+            final long deltaOfDelta = (zigzag >>> 1) ^ -(zigzag & 1);
+            previousDelta += deltaOfDelta;
+            previous += previousDelta;
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link TelemetryColumn} of double values
+ */
+public final class DoubleColumn extends TelemetryColumn {
+    private double[] values;
+
+    DoubleColumn(String fieldCode, Semantic semantic, int capacity) {
+        super(fieldCode, semantic);
+        this.values = new double[capacity];
+    }
+
+    public double get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Type getType() {
+        return Type.DOUBLE;
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void setValue(int row, Value value) {
+        values[row] = toDouble(value);
+    }
+
+    @Override
+    void copyValue(int row, TelemetryColumn source, int sourceRow) {
+        values[row] = ((DoubleColumn) source).values[sourceRow];
+    }
+
+    @Override
+    void writeValue(DataOutput out, int row) throws IOException {
+        out.writeDouble(values[row]);
+    }
+
+    @Override
+    void readValue(DataInput in, int row) throws IOException {
+        values[row] = in.readDouble();
+    }
+
+    @Override
+    long getBits(int row) {
+        return Double.doubleToRawLongBits(values[row]);
+    }
+
+    @Override
+    void setBits(int row, long bits) {
+        values[row] = Double.longBitsToDouble(bits);
+    }
+
+    @Override
+    TelemetryColumn emptyCopy(int capacity) {
+        return new DoubleColumn(getFieldCode(), getSemantic(), capacity);
+    }
+}
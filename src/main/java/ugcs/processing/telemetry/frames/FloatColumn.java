@@ -0,0 +1,75 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link TelemetryColumn} of float values
+ */
+public final class FloatColumn extends TelemetryColumn {
+    private float[] values;
+
+    FloatColumn(String fieldCode, Semantic semantic, int capacity) {
+        super(fieldCode, semantic);
+        this.values = new float[capacity];
+    }
+
+    public float get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Type getType() {
+        return Type.FLOAT;
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void setValue(int row, Value value) {
+        values[row] = value.hasFloatValue() ? value.getFloatValue() : (float) toDouble(value);
+    }
+
+    @Override
+    void copyValue(int row, TelemetryColumn source, int sourceRow) {
+        values[row] = ((FloatColumn) source).values[sourceRow];
+    }
+
+    @Override
+    void writeValue(DataOutput out, int row) throws IOException {
+        out.writeFloat(values[row]);
+    }
+
+    @Override
+    void readValue(DataInput in, int row) throws IOException {
+        values[row] = in.readFloat();
+    }
+
+    @Override
+    long getBits(int row) {
+        return Float.floatToRawIntBits(values[row]) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    void setBits(int row, long bits) {
+        values[row] = Float.intBitsToFloat((int) bits);
+    }
+
+    @Override
+    TelemetryColumn emptyCopy(int capacity) {
+        return new FloatColumn(getFieldCode(), getSemantic(), capacity);
+    }
+}
@@ -0,0 +1,75 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link TelemetryColumn} of int values
+ */
+public final class IntColumn extends TelemetryColumn {
+    private int[] values;
+
+    IntColumn(String fieldCode, Semantic semantic, int capacity) {
+        super(fieldCode, semantic);
+        this.values = new int[capacity];
+    }
+
+    public int get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Type getType() {
+        return Type.INT;
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void setValue(int row, Value value) {
+        values[row] = value.hasIntValue() ? value.getIntValue() : (int) toLong(value);
+    }
+
+    @Override
+    void copyValue(int row, TelemetryColumn source, int sourceRow) {
+        values[row] = ((IntColumn) source).values[sourceRow];
+    }
+
+    @Override
+    void writeValue(DataOutput out, int row) throws IOException {
+        out.writeInt(values[row]);
+    }
+
+    @Override
+    void readValue(DataInput in, int row) throws IOException {
+        values[row] = in.readInt();
+    }
+
+    @Override
+    long getBits(int row) {
+        return values[row];
+    }
+
+    @Override
+    void setBits(int row, long bits) {
+        values[row] = (int) bits;
+    }
+
+    @Override
+    TelemetryColumn emptyCopy(int capacity) {
+        return new IntColumn(getFieldCode(), getSemantic(), capacity);
+    }
+}
@@ -0,0 +1,67 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.IOException;
+
+/**
+ * Run-length encoding of rarely changing values such as flags, modes and string codes
+ * <p>
+ * Each run is written as the zigzag-encoded value followed by the run length, both as variable-length integers.
+ */
+final class RunLengthCodec {
+    private RunLengthCodec() {
+    }
+
+    static final class Encoder implements ValueEncoder {
+        private final BitOutput out;
+        private long value;
+        private long runLength = 0L;
+
+        Encoder(BitOutput out) {
+            this.out = out;
+        }
+
+        @Override
+        public void encode(long bits) throws IOException {
+            if (runLength > 0 && bits == value) {
+                ++runLength;
+                return;
+            }
+            finish();
+            value = bits;
+            runLength = 1L;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (runLength > 0) {
+                out.writeVarLong((value << 1) ^ (value >> 63));
+                out.writeVarLong(runLength);
+                runLength = 0L;
+            }
+        }
+    }
+
+    static final class Decoder implements ValueDecoder {
+        private final BitInput in;
+        private long value;
+        private long remainingRunLength = 0L;
+
+        Decoder(BitInput in) {
+            this.in = in;
+        }
+
+        @Override
+        public long decode() throws IOException {
+            if (remainingRunLength == 0) {
+                final long zigzag = in.readVarLong();
+                value = (zigzag >>> 1) ^ -(zigzag & 1);
+                remainingRunLength = in.readVarLong();
+                if (remainingRunLength <= 0) {
+                    throw new IOException("Malformed run length");
+                }
+            }
+            --remainingRunLength;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TelemetryColumn} of dictionary-encoded string values
+ */
+public final class StringColumn extends TelemetryColumn {
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+    private int[] codes;
+
+    StringColumn(String fieldCode, Semantic semantic, int capacity) {
+        super(fieldCode, semantic);
+        this.codes = new int[capacity];
+    }
+
+    public String get(int row) {
+        return dictionary.get(codes[row]);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.STRING;
+    }
+
+    @Override
+    int capacity() {
+        return codes.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+    }
+
+    @Override
+    void setValue(int row, Value value) {
+        codes[row] = encode(toString(value));
+    }
+
+    @Override
+    void copyValue(int row, TelemetryColumn source, int sourceRow) {
+        codes[row] = encode(((StringColumn) source).get(sourceRow));
+    }
+
+    @Override
+    void writeDictionary(DataOutput out) throws IOException {
+        out.writeInt(dictionary.size());
+        for (String value : dictionary) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Override
+    void readDictionary(DataInput in) throws IOException {
+        final int dictionarySize = in.readInt();
+        for (int i = 0; i < dictionarySize; i++) {
+            encode(in.readUTF());
+        }
+    }
+
+    @Override
+    void writeValue(DataOutput out, int row) throws IOException {
+        out.writeInt(codes[row]);
+    }
+
+    @Override
+    void readValue(DataInput in, int row) throws IOException {
+        codes[row] = in.readInt();
+    }
+
+    @Override
+    long getBits(int row) {
+        return codes[row];
+    }
+
+    @Override
+    void setBits(int row, long bits) {
+        codes[row] = (int) bits;
+    }
+
+    @Override
+    TelemetryColumn emptyCopy(int capacity) {
+        return new StringColumn(getFieldCode(), getSemantic(), capacity);
+    }
+
+    private int encode(String value) {
+        return dictionaryIndex.computeIfAbsent(value, v -> {
+            dictionary.add(v);
+            return dictionary.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,273 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * Primitive column of {@link TelemetryFrameTable} holding values of a single telemetry field
+ * <p>
+ * Column type is determined by the first value added to the column. Values of other types added later
+ * are coerced to the column type.
+ */
+public abstract class TelemetryColumn {
+    public enum Type {
+        BOOLEAN,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        STRING
+    }
+
+    private final String fieldCode;
+    private final Semantic semantic;
+    private final BitSet validity;
+
+    TelemetryColumn(String fieldCode, Semantic semantic) {
+        this.fieldCode = fieldCode;
+        this.semantic = semantic;
+        this.validity = new BitSet();
+    }
+
+    public String getFieldCode() {
+        return fieldCode;
+    }
+
+    public Semantic getSemantic() {
+        return semantic;
+    }
+
+    public boolean isPresent(int row) {
+        return validity.get(row);
+    }
+
+    public abstract Type getType();
+
+    static TelemetryColumn create(Telemetry telemetry, int capacity) {
+        final String fieldCode = telemetry.getTelemetryField().getCode();
+        final Semantic semantic = telemetry.getTelemetryField().getSemantic();
+        final Value value = telemetry.getValue();
+
+        if (value.hasFloatValue()) {
+            return new FloatColumn(fieldCode, semantic, capacity);
+        }
+        if (value.hasDoubleValue()) {
+            return new DoubleColumn(fieldCode, semantic, capacity);
+        }
+        if (value.hasIntValue()) {
+            return new IntColumn(fieldCode, semantic, capacity);
+        }
+        if (value.hasLongValue()) {
+            return new LongColumn(fieldCode, semantic, capacity);
+        }
+        if (value.hasBoolValue()) {
+            return new BooleanColumn(fieldCode, semantic, capacity);
+        }
+        return new StringColumn(fieldCode, semantic, capacity);
+    }
+
+    static TelemetryColumn create(String fieldCode, Semantic semantic, Type type, int capacity) {
+        switch (type) {
+            case BOOLEAN:
+                return new BooleanColumn(fieldCode, semantic, capacity);
+            case INT:
+                return new IntColumn(fieldCode, semantic, capacity);
+            case LONG:
+                return new LongColumn(fieldCode, semantic, capacity);
+            case FLOAT:
+                return new FloatColumn(fieldCode, semantic, capacity);
+            case DOUBLE:
+                return new DoubleColumn(fieldCode, semantic, capacity);
+            default:
+                return new StringColumn(fieldCode, semantic, capacity);
+        }
+    }
+
+    final void set(int row, Value value) {
+        ensureCapacity(row + 1);
+        setValue(row, value);
+        validity.set(row);
+    }
+
+    final void copy(int row, TelemetryColumn source, int sourceRow) {
+        if (source.isPresent(sourceRow)) {
+            ensureCapacity(row + 1);
+            copyValue(row, source, sourceRow);
+            validity.set(row);
+        }
+    }
+
+    final void clear(int row) {
+        validity.clear(row);
+    }
+
+    final boolean isEmpty() {
+        return validity.isEmpty();
+    }
+
+    /**
+     * Writes validity bitmap and present values of the first rowCount rows
+     */
+    final void write(DataOutput out, int rowCount) throws IOException {
+        write(out, rowCount, TelemetryFrameArchive.Encoding.PLAIN);
+    }
+
+    /**
+     * Writes validity bitmap and present values of the first rowCount rows in the given encoding, values of
+     * encodings other than {@link TelemetryFrameArchive.Encoding#PLAIN} are streamed to a bit stream
+     */
+    final void write(DataOutput out, int rowCount, TelemetryFrameArchive.Encoding encoding) throws IOException {
+        final long[] validityWords = validity.get(0, rowCount).toLongArray();
+        out.writeInt(validityWords.length);
+        for (long word : validityWords) {
+            out.writeLong(word);
+        }
+        writeDictionary(out);
+
+        if (encoding == TelemetryFrameArchive.Encoding.PLAIN) {
+            writeValues(out, rowCount);
+            return;
+        }
+        final BitOutput bits = new BitOutput(out);
+        final ValueEncoder encoder = encoding.encoder(bits, getType());
+        for (int row = validity.nextSetBit(0); row >= 0 && row < rowCount; row = validity.nextSetBit(row + 1)) {
+            encoder.encode(getBits(row));
+        }
+        encoder.finish();
+        bits.flush();
+    }
+
+    /**
+     * Reads rows written by {@link #write(DataOutput, int)} into the empty column
+     */
+    final void read(DataInput in, int rowCount) throws IOException {
+        read(in, rowCount, TelemetryFrameArchive.Encoding.PLAIN);
+    }
+
+    /**
+     * Reads rows written by {@link #write(DataOutput, int, TelemetryFrameArchive.Encoding)} into the empty column
+     */
+    final void read(DataInput in, int rowCount, TelemetryFrameArchive.Encoding encoding) throws IOException {
+        final long[] validityWords = new long[in.readInt()];
+        for (int i = 0; i < validityWords.length; i++) {
+            validityWords[i] = in.readLong();
+        }
+        validity.or(BitSet.valueOf(validityWords));
+        ensureCapacity(rowCount);
+        readDictionary(in);
+
+        if (encoding == TelemetryFrameArchive.Encoding.PLAIN) {
+            readValues(in, rowCount);
+            return;
+        }
+        final ValueDecoder decoder = encoding.decoder(new BitInput(in), getType());
+        for (int row = validity.nextSetBit(0); row >= 0 && row < rowCount; row = validity.nextSetBit(row + 1)) {
+            setBits(row, decoder.decode());
+        }
+    }
+
+    /**
+     * Writes data shared by all values of the column, such as the dictionary of string values
+     */
+    void writeDictionary(DataOutput out) throws IOException {
+    }
+
+    void readDictionary(DataInput in) throws IOException {
+    }
+
+    void writeValues(DataOutput out, int rowCount) throws IOException {
+        for (int row = validity.nextSetBit(0); row >= 0 && row < rowCount; row = validity.nextSetBit(row + 1)) {
+            writeValue(out, row);
+        }
+    }
+
+    void readValues(DataInput in, int rowCount) throws IOException {
+        for (int row = validity.nextSetBit(0); row >= 0 && row < rowCount; row = validity.nextSetBit(row + 1)) {
+            readValue(in, row);
+        }
+    }
+
+    abstract void writeValue(DataOutput out, int row) throws IOException;
+
+    abstract void readValue(DataInput in, int row) throws IOException;
+
+    /**
+     * @return raw bits of the value: bit patterns of floating point values, codes of string values
+     */
+    abstract long getBits(int row);
+
+    abstract void setBits(int row, long bits);
+
+    abstract int capacity();
+
+    abstract void resize(int capacity);
+
+    abstract void setValue(int row, Value value);
+
+    /**
+     * Copies value from the column of the same type
+     */
+    abstract void copyValue(int row, TelemetryColumn source, int sourceRow);
+
+    abstract TelemetryColumn emptyCopy(int capacity);
+
+    private void ensureCapacity(int requiredCapacity) {
+        if (capacity() < requiredCapacity) {
+            resize(Math.max(capacity() * 2, requiredCapacity));
+        }
+    }
+
+    static double toDouble(Value value) {
+        if (value.hasDoubleValue()) {
+            return value.getDoubleValue();
+        }
+        if (value.hasFloatValue()) {
+            return value.getFloatValue();
+        }
+        return toLong(value);
+    }
+
+    static long toLong(Value value) {
+        if (value.hasLongValue()) {
+            return value.getLongValue();
+        }
+        if (value.hasIntValue()) {
+            return value.getIntValue();
+        }
+        if (value.hasDoubleValue()) {
+            return (long) value.getDoubleValue();
+        }
+        if (value.hasFloatValue()) {
+            return (long) value.getFloatValue();
+        }
+        if (value.hasBoolValue()) {
+            return value.getBoolValue() ? 1 : 0;
+        }
+        return 0;
+    }
+
+    static String toString(Value value) {
+        if (value.hasFloatValue()) {
+            return String.valueOf(value.getFloatValue());
+        }
+        if (value.hasDoubleValue()) {
+            return String.valueOf(value.getDoubleValue());
+        }
+        if (value.hasIntValue()) {
+            return String.valueOf(value.getIntValue());
+        }
+        if (value.hasLongValue()) {
+            return String.valueOf(value.getLongValue());
+        }
+        if (value.hasBoolValue()) {
+            return String.valueOf(value.getBoolValue());
+        }
+        return value.getStringValue();
+    }
+}
@@ -0,0 +1,575 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Columnar file archive of {@link TelemetryFrameTable} read through a memory-mapped buffer
+ * <p>
+ * The file consists of a header, frame times, column sections and the field dictionary with type, encoding and
+ * location of each column section. Column sections have the uncompressed layout of
+ * {@link TelemetryFrameTableCodec}, so opening the archive reads only the header and the dictionary, values are
+ * read straight from the mapped file.
+ * <p>
+ * Compressed archives keep frame times delta-of-delta encoded and each column in the most compact of the time series
+ * encodings suitable for its type. Values of such columns are decoded to the heap on the first access to the column.
+ */
+public final class TelemetryFrameArchive {
+    public static final String FILE_EXTENSION = "dlfa";
+
+    private static final int MAGIC = 0x444C4641;
+    private static final int VERSION = 1;
+    private static final int DICTIONARY_OFFSET_POSITION = 13;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Encoding of times or column values
+     */
+    public enum Encoding {
+        /**
+         * Fixed width values, random access by row
+         */
+        PLAIN,
+        /**
+         * Delta-of-delta bit stream of integers, see {@link DeltaOfDeltaCodec}
+         */
+        DELTA_OF_DELTA,
+        /**
+         * XOR bit stream of floating point values, see {@link XorCodec}
+         */
+        XOR,
+        /**
+         * Runs of repeated values, see {@link RunLengthCodec}
+         */
+        RUN_LENGTH;
+
+        private static final List<Encoding> NUMERIC_ENCODINGS = asList(RUN_LENGTH, DELTA_OF_DELTA, PLAIN);
+        private static final List<Encoding> FLOATING_POINT_ENCODINGS = asList(RUN_LENGTH, XOR, PLAIN);
+        private static final List<Encoding> CATEGORICAL_ENCODINGS = asList(RUN_LENGTH, PLAIN);
+
+        /**
+         * @return encodings tried for the column of the given type when the archive is compressed
+         */
+        static List<Encoding> compressionCandidates(TelemetryColumn.Type type) {
+            switch (type) {
+                case INT:
+                case LONG:
+                    return NUMERIC_ENCODINGS;
+                case FLOAT:
+                case DOUBLE:
+                    return FLOATING_POINT_ENCODINGS;
+                default:
+                    return CATEGORICAL_ENCODINGS;
+            }
+        }
+
+        ValueEncoder encoder(BitOutput out, TelemetryColumn.Type type) {
+            switch (this) {
+                case DELTA_OF_DELTA:
+                    return new DeltaOfDeltaCodec.Encoder(out);
+                case XOR:
+                    return new XorCodec.Encoder(out, bitWidth(type));
+                case RUN_LENGTH:
+                    return new RunLengthCodec.Encoder(out);
+                default:
+                    throw new IllegalStateException(this + " is not a bit stream encoding");
+            }
+        }
+
+        ValueDecoder decoder(BitInput in, TelemetryColumn.Type type) {
+            switch (this) {
+                case DELTA_OF_DELTA:
+                    return new DeltaOfDeltaCodec.Decoder(in);
+                case XOR:
+                    return new XorCodec.Decoder(in, bitWidth(type));
+                case RUN_LENGTH:
+                    return new RunLengthCodec.Decoder(in);
+                default:
+                    throw new IllegalStateException(this + " is not a bit stream encoding");
+            }
+        }
+
+        private static int bitWidth(TelemetryColumn.Type type) {
+            return type == TelemetryColumn.Type.FLOAT ? Integer.SIZE : Long.SIZE;
+        }
+
+        private static Encoding valueOf(int ordinal) throws IOException {
+            if (ordinal < 0 || ordinal >= values().length) {
+                throw new IOException("Unsupported telemetry archive encoding " + ordinal);
+            }
+            return values()[ordinal];
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final LongBuffer times;
+    private final Map<String, ArchivedColumn> columns;
+
+    private TelemetryFrameArchive(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        final ByteBuffer header = buffer.duplicate();
+        if (header.remaining() < DICTIONARY_OFFSET_POSITION + 9
+                || header.getInt() != MAGIC || header.get() != VERSION) {
+            throw new IOException("Unsupported telemetry archive format");
+        }
+        this.rowCount = header.getInt();
+        final int columnCount = header.getInt();
+        final long dictionaryOffset = header.getLong();
+        final Encoding timeEncoding = Encoding.valueOf(header.get());
+        final int timesOffset = header.position();
+
+        final DataInputStream dictionary = new DataInputStream(
+                new ByteBufferInputStream(slice(dictionaryOffset, buffer.capacity() - dictionaryOffset)));
+        this.columns = new LinkedHashMap<>();
+        long timesEnd = dictionaryOffset;
+        for (int i = 0; i < columnCount; i++) {
+            final String fieldCode = dictionary.readUTF();
+            final Semantic semantic = Semantic.valueOf(dictionary.readInt());
+            final TelemetryColumn.Type type = TelemetryColumn.Type.values()[dictionary.readByte()];
+            final Encoding encoding = Encoding.valueOf(dictionary.readByte());
+            final long offset = dictionary.readLong();
+            final long length = dictionary.readLong();
+            columns.put(fieldCode, new ArchivedColumn(fieldCode, semantic == null ? Semantic.S_DEFAULT : semantic,
+                    type, encoding, slice(offset, length), rowCount));
+            timesEnd = Math.min(timesEnd, offset);
+        }
+
+        switch (timeEncoding) {
+            case PLAIN:
+                this.times = slice(timesOffset, (long) rowCount * Long.BYTES).asLongBuffer();
+                break;
+            case DELTA_OF_DELTA:
+                this.times = decodeTimes(slice(timesOffset, timesEnd - timesOffset), rowCount);
+                break;
+            default:
+                throw new IOException("Unsupported telemetry archive time encoding " + timeEncoding);
+        }
+    }
+
+    /**
+     * Maps the archive file to memory, the file mustn't be modified while the archive is in use
+     */
+    public static TelemetryFrameArchive open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            return new TelemetryFrameArchive(channel.map(READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes uncompressed columns of the given fields in the given order, fields missing in the table are skipped
+     */
+    public static void write(TelemetryFrameTable table, Collection<String> fieldCodes, Path path)
+            throws IOException {
+        write(table, fieldCodes, path, false);
+    }
+
+    /**
+     * Writes columns of the given fields in the given order, fields missing in the table are skipped
+     *
+     * @param compressed whether times and columns are written in time series encodings instead of
+     *                   {@link Encoding#PLAIN}
+     */
+    public static void write(TelemetryFrameTable table, Collection<String> fieldCodes, Path path,
+                             boolean compressed) throws IOException {
+        final List<TelemetryColumn> archivedColumns = new ArrayList<>();
+        for (String fieldCode : fieldCodes) {
+            table.getColumn(fieldCode).ifPresent(archivedColumns::add);
+        }
+
+        final int rowCount = table.getRowCount();
+        final long[] columnOffsets = new long[archivedColumns.size() + 1];
+        final Encoding[] columnEncodings = new Encoding[archivedColumns.size()];
+        final long dictionaryOffset;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(rowCount);
+            out.writeInt(archivedColumns.size());
+            out.writeLong(0L);
+            if (compressed) {
+                out.writeByte(Encoding.DELTA_OF_DELTA.ordinal());
+                final BitOutput bits = new BitOutput(out);
+                final ValueEncoder encoder = Encoding.DELTA_OF_DELTA.encoder(bits, TelemetryColumn.Type.LONG);
+                for (int row = 0; row < rowCount; row++) {
+                    encoder.encode(table.getTime(row));
+                }
+                bits.flush();
+            } else {
+                out.writeByte(Encoding.PLAIN.ordinal());
+                for (int row = 0; row < rowCount; row++) {
+                    out.writeLong(table.getTime(row));
+                }
+            }
+
+            for (int i = 0; i < archivedColumns.size(); i++) {
+                columnOffsets[i] = out.size();
+                columnEncodings[i] = compressed
+                        ? writeCompressedColumn(out, archivedColumns.get(i), rowCount)
+                        : writePlainColumn(out, archivedColumns.get(i), rowCount);
+            }
+            columnOffsets[archivedColumns.size()] = out.size();
+
+            dictionaryOffset = out.size();
+            for (int i = 0; i < archivedColumns.size(); i++) {
+                final TelemetryColumn column = archivedColumns.get(i);
+                out.writeUTF(column.getFieldCode());
+                out.writeInt(column.getSemantic().getNumber());
+                out.writeByte(column.getType().ordinal());
+                out.writeByte(columnEncodings[i].ordinal());
+                out.writeLong(columnOffsets[i]);
+                out.writeLong(columnOffsets[i + 1] - columnOffsets[i]);
+            }
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("Telemetry is too large for the archive");
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, WRITE)) {
+            final ByteBuffer offset = ByteBuffer.allocate(Long.BYTES).putLong(0, dictionaryOffset);
+            channel.write(offset, DICTIONARY_OFFSET_POSITION);
+        }
+    }
+
+    private static Encoding writePlainColumn(DataOutputStream out, TelemetryColumn column, int rowCount)
+            throws IOException {
+        column.write(out, rowCount);
+        return Encoding.PLAIN;
+    }
+
+    /**
+     * Encodes the column with each candidate encoding and writes the smallest section
+     */
+    private static Encoding writeCompressedColumn(DataOutputStream out, TelemetryColumn column, int rowCount)
+            throws IOException {
+        ByteArrayOutputStream bestSection = null;
+        Encoding bestEncoding = null;
+        for (Encoding encoding : Encoding.compressionCandidates(column.getType())) {
+            final ByteArrayOutputStream section = new ByteArrayOutputStream();
+            column.write(new DataOutputStream(section), rowCount, encoding);
+            if (bestSection == null || section.size() < bestSection.size()) {
+                bestSection = section;
+                bestEncoding = encoding;
+            }
+        }
+        bestSection.writeTo(out);
+        return bestEncoding;
+    }
+
+    private static LongBuffer decodeTimes(ByteBuffer section, int rowCount) throws IOException {
+        final ValueDecoder decoder = Encoding.DELTA_OF_DELTA.decoder(
+                new BitInput(new DataInputStream(new ByteBufferInputStream(section))), TelemetryColumn.Type.LONG);
+        final long[] decodedTimes = new long[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            decodedTimes[row] = decoder.decode();
+        }
+        return LongBuffer.wrap(decodedTimes);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getTime(int row) {
+        return times.get(row);
+    }
+
+    public Set<String> getFieldCodes() {
+        return unmodifiableSet(columns.keySet());
+    }
+
+    public Optional<ArchivedColumn> getColumn(String fieldCode) {
+        return ofNullable(columns.get(fieldCode));
+    }
+
+    /**
+     * Copies the archive content to the heap
+     */
+    public TelemetryFrameTable toFrameTable() throws IOException {
+        final long[] tableTimes = new long[rowCount];
+        times.duplicate().get(tableTimes);
+
+        final Map<String, TelemetryColumn> tableColumns = new LinkedHashMap<>();
+        for (ArchivedColumn archivedColumn : columns.values()) {
+            final TelemetryColumn column = TelemetryColumn.create(archivedColumn.getFieldCode(),
+                    archivedColumn.getSemantic(), archivedColumn.getType(), rowCount);
+            column.read(new DataInputStream(new ByteBufferInputStream(archivedColumn.section.duplicate())), rowCount,
+                    archivedColumn.encoding);
+            tableColumns.put(column.getFieldCode(), column);
+        }
+        return new TelemetryFrameTable(tableTimes, tableColumns);
+    }
+
+    private ByteBuffer slice(long offset, long length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > buffer.capacity()) {
+            throw new IOException("Corrupted telemetry archive");
+        }
+        final ByteBuffer section = buffer.duplicate();
+        section.position((int) offset);
+        section.limit((int) (offset + length));
+        return section.slice();
+    }
+
+    /**
+     * Column of the archive reading values from the mapped file
+     * <p>
+     * Values are located through the validity bitmap: index of the value is the number of present rows before it.
+     * The index of the bitmap words is built on the first access to the column. Values of columns in bit stream
+     * encodings are decoded on the first access to a value.
+     */
+    public static final class ArchivedColumn {
+        private static final int[] VALUE_SIZES = {1, Integer.BYTES, Long.BYTES, Float.BYTES, Double.BYTES,
+                Integer.BYTES};
+
+        private final String fieldCode;
+        private final Semantic semantic;
+        private final TelemetryColumn.Type type;
+        private final Encoding encoding;
+        private final ByteBuffer section;
+        private final int rowCount;
+
+        private volatile LongBuffer validity;
+        private volatile TelemetryColumn decodedColumn;
+        private int[] presentRowsBeforeWord;
+        private String[] dictionary;
+        private int valuesOffset;
+
+        private ArchivedColumn(String fieldCode, Semantic semantic, TelemetryColumn.Type type, Encoding encoding,
+                               ByteBuffer section, int rowCount) {
+            this.fieldCode = fieldCode;
+            this.semantic = semantic;
+            this.type = type;
+            this.encoding = encoding;
+            this.section = section;
+            this.rowCount = rowCount;
+        }
+
+        public String getFieldCode() {
+            return fieldCode;
+        }
+
+        public Semantic getSemantic() {
+            return semantic;
+        }
+
+        public TelemetryColumn.Type getType() {
+            return type;
+        }
+
+        public Encoding getEncoding() {
+            return encoding;
+        }
+
+        public boolean isPresent(int row) {
+            index();
+            final int word = row >>> 6;
+            return word < validity.limit() && (validity.get(word) & (1L << row)) != 0;
+        }
+
+        /**
+         * @return value of the present row of a numeric or boolean column
+         */
+        public double getDouble(int row) {
+            final long bits = valueBits(row);
+            switch (type) {
+                case FLOAT:
+                    return Float.intBitsToFloat((int) bits);
+                case DOUBLE:
+                    return Double.longBitsToDouble(bits);
+                case STRING:
+                    throw new IllegalStateException("Column " + fieldCode + " is not numeric");
+                default:
+                    return bits;
+            }
+        }
+
+        /**
+         * @return value of the present row of an integer or boolean column
+         */
+        public long getLong(int row) {
+            switch (type) {
+                case FLOAT:
+                case DOUBLE:
+                case STRING:
+                    return (long) getDouble(row);
+                default:
+                    return valueBits(row);
+            }
+        }
+
+        public boolean getBoolean(int row) {
+            return getLong(row) != 0;
+        }
+
+        /**
+         * @return value of the present row of a string column
+         */
+        public String getString(int row) {
+            if (type != TelemetryColumn.Type.STRING) {
+                throw new IllegalStateException("Column " + fieldCode + " is not a string column");
+            }
+            final int code = (int) valueBits(row);
+            return dictionary[code];
+        }
+
+        /**
+         * @return raw bits of the value as in {@link TelemetryColumn#getBits(int)}
+         */
+        private long valueBits(int row) {
+            if (encoding != Encoding.PLAIN) {
+                if (!isPresent(row)) {
+                    throw new IllegalArgumentException("No value of " + fieldCode + " in row " + row);
+                }
+                return decoded().getBits(row);
+            }
+
+            final int position = valuePosition(row);
+            switch (type) {
+                case BOOLEAN:
+                    return section.get(position);
+                case INT:
+                case STRING:
+                    return section.getInt(position);
+                case FLOAT:
+                    return section.getInt(position) & 0xFFFFFFFFL;
+                default:
+                    return section.getLong(position);
+            }
+        }
+
+        private int valuePosition(int row) {
+            if (!isPresent(row)) {
+                throw new IllegalArgumentException("No value of " + fieldCode + " in row " + row);
+            }
+            final int word = row >>> 6;
+            final int valueIndex =
+                    presentRowsBeforeWord[word] + Long.bitCount(validity.get(word) & ((1L << row) - 1));
+            return valuesOffset + valueIndex * VALUE_SIZES[type.ordinal()];
+        }
+
+        private TelemetryColumn decoded() {
+            if (decodedColumn == null) {
+                decode();
+            }
+            return decodedColumn;
+        }
+
+        private synchronized void decode() {
+            if (decodedColumn != null) {
+                return;
+            }
+
+            final TelemetryColumn column = TelemetryColumn.create(fieldCode, semantic, type, rowCount);
+            try {
+                column.read(new DataInputStream(new ByteBufferInputStream(section.duplicate())), rowCount, encoding);
+            } catch (IOException e) {
+                throw new IllegalStateException("Corrupted column " + fieldCode, e);
+            }
+            decodedColumn = column;
+        }
+
+        private void index() {
+            if (validity == null) {
+                buildIndex();
+            }
+        }
+
+        /**
+         * Index fields are published by the volatile write of the validity bitmap
+         */
+        private synchronized void buildIndex() {
+            if (validity != null) {
+                return;
+            }
+
+            final int wordCount = section.getInt(0);
+            final LongBuffer words = ((ByteBuffer) section.duplicate().position(Integer.BYTES)).slice()
+                    .asLongBuffer();
+            words.limit(wordCount);
+
+            final int[] presentRows = new int[wordCount];
+            int present = 0;
+            for (int word = 0; word < wordCount; word++) {
+                presentRows[word] = present;
+                present += Long.bitCount(words.get(word));
+            }
+
+            int offset = Integer.BYTES + wordCount * Long.BYTES;
+            if (type == TelemetryColumn.Type.STRING) {
+                try {
+                    final ByteBufferInputStream in =
+                            new ByteBufferInputStream((ByteBuffer) section.duplicate().position(offset));
+                    final DataInputStream data = new DataInputStream(in);
+                    dictionary = new String[data.readInt()];
+                    for (int i = 0; i < dictionary.length; i++) {
+                        dictionary[i] = data.readUTF();
+                    }
+                    offset = in.position();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Corrupted string column " + fieldCode, e);
+                }
+            }
+
+            this.presentRowsBeforeWord = presentRows;
+            this.valuesOffset = offset;
+            this.validity = words;
+        }
+    }
+
+    /**
+     * {@link InputStream} reading the remaining bytes of the buffer
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private int position() {
+            return buffer.position();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
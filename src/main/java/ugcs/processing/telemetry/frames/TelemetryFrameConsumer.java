@@ -0,0 +1,13 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+
+import java.util.function.Consumer;
+
+/**
+ * Consumer of time ordered telemetry, which accepts both single {@link Telemetry} values and
+ * {@link TelemetryFrameTable} rows
+ */
+public interface TelemetryFrameConsumer extends Consumer<Telemetry> {
+    void acceptRow(TelemetryFrameTable table, int row);
+}
@@ -0,0 +1,259 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Optional.ofNullable;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Columnar storage for {@link Telemetry} frames ordered by time
+ * <p>
+ * Each row is a telemetry frame (all telemetry values sharing the same timestamp), each column holds values of a
+ * single telemetry field in primitive form.
+ */
+public final class TelemetryFrameTable {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long[] times;
+    private final Map<String, TelemetryColumn> columns;
+
+    TelemetryFrameTable(long[] times, Map<String, TelemetryColumn> columns) {
+        this.times = times;
+        this.columns = columns;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getRowCount() {
+        return times.length;
+    }
+
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    public long getTime(int row) {
+        return times[row];
+    }
+
+    /**
+     * @return index of the first row with time not less than the given one, or row count if there is no such row
+     */
+    public int firstRowAtOrAfter(long time) {
+        final int index = Arrays.binarySearch(times, time);
+        if (index < 0) {
+            return -index - 1;
+        }
+        return index;
+    }
+
+    public Set<String> getFieldCodes() {
+        return unmodifiableSet(columns.keySet());
+    }
+
+    public Collection<TelemetryColumn> getColumns() {
+        return unmodifiableCollection(columns.values());
+    }
+
+    public Optional<TelemetryColumn> getColumn(String fieldCode) {
+        return ofNullable(columns.get(fieldCode));
+    }
+
+    /**
+     * @return table of the same frames with columns of the given fields only, in the given order; columns are shared
+     * with this table, no values are copied
+     */
+    public TelemetryFrameTable project(Collection<String> fieldCodes) {
+        final Map<String, TelemetryColumn> projectedColumns = new LinkedHashMap<>();
+        for (String fieldCode : fieldCodes) {
+            final TelemetryColumn column = columns.get(fieldCode);
+            if (column != null) {
+                projectedColumns.put(fieldCode, column);
+            }
+        }
+        return new TelemetryFrameTable(times, projectedColumns);
+    }
+
+    /**
+     * Builder of {@link TelemetryFrameTable}
+     * <p>
+     * Frames are expected to be added in time order, out of order frames are supported at the cost of
+     * reordering on {@link #build()}. Values of the same field with the same timestamp are merged, the first one wins.
+     * Builder is not intended to be used after {@link #build()} call.
+     */
+    public static final class Builder {
+        private long[] times = new long[INITIAL_CAPACITY];
+        private int rowCount = 0;
+        private boolean ordered = true;
+        private final Map<String, TelemetryColumn> columns = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(Telemetry telemetry) {
+            final int row = rowFor(telemetry.getTime());
+
+            final String fieldCode = telemetry.getTelemetryField().getCode();
+            TelemetryColumn column = columns.get(fieldCode);
+            if (column == null) {
+                column = TelemetryColumn.create(telemetry, times.length);
+                columns.put(fieldCode, column);
+            }
+
+            if (column.isPresent(row)) {
+                getLogger(TelemetryFrameTable.class).debug("Duplicate telemetry value dropped: {}", telemetry);
+                return this;
+            }
+
+            column.set(row, telemetry.getValue());
+            return this;
+        }
+
+        public Builder appendRow(TelemetryFrameTable table, int row) {
+            final int targetRow = rowFor(table.getTime(row));
+
+            for (TelemetryColumn sourceColumn : table.getColumns()) {
+                if (!sourceColumn.isPresent(row)) {
+                    continue;
+                }
+
+                final TelemetryColumn column = columns.computeIfAbsent(sourceColumn.getFieldCode(),
+                        fieldCode -> sourceColumn.emptyCopy(times.length));
+                if (column.getType() == sourceColumn.getType() && !column.isPresent(targetRow)) {
+                    column.copy(targetRow, sourceColumn, row);
+                }
+            }
+
+            return this;
+        }
+
+        /**
+         * Removes the last added frame
+         */
+        public void dropLastRow() {
+            if (rowCount > 0) {
+                --rowCount;
+                columns.values().forEach(column -> column.clear(rowCount));
+            }
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public boolean isEmpty() {
+            return rowCount == 0;
+        }
+
+        public Optional<TelemetryColumn> getColumn(String fieldCode) {
+            return ofNullable(columns.get(fieldCode));
+        }
+
+        public TelemetryFrameTable build() {
+            if (!ordered) {
+                return buildReordered();
+            }
+
+            final Map<String, TelemetryColumn> builtColumns = new LinkedHashMap<>();
+            columns.values().stream()
+                    .filter(column -> !column.isEmpty())
+                    .forEach(column -> {
+                        column.resize(rowCount);
+                        builtColumns.put(column.getFieldCode(), column);
+                    });
+
+            return new TelemetryFrameTable(Arrays.copyOf(times, rowCount), builtColumns);
+        }
+
+        private int rowFor(long time) {
+            if (rowCount > 0 && times[rowCount - 1] == time) {
+                return rowCount - 1;
+            }
+
+            if (rowCount > 0 && times[rowCount - 1] > time) {
+                ordered = false;
+            }
+
+            if (rowCount == times.length) {
+                times = Arrays.copyOf(times, times.length * 2);
+            }
+            times[rowCount] = time;
+            return rowCount++;
+        }
+
+        private TelemetryFrameTable buildReordered() {
+            final int[] order = sortedRowOrder();
+
+            final long[] sortedTimes = new long[rowCount];
+            final Map<String, TelemetryColumn> sortedColumns = new LinkedHashMap<>();
+            columns.values().stream()
+                    .filter(column -> !column.isEmpty())
+                    .forEach(column -> sortedColumns.put(column.getFieldCode(), column.emptyCopy(rowCount)));
+
+            int targetRow = -1;
+            for (int sourceRow : order) {
+                if (targetRow < 0 || sortedTimes[targetRow] != times[sourceRow]) {
+                    sortedTimes[++targetRow] = times[sourceRow];
+                }
+                for (TelemetryColumn column : sortedColumns.values()) {
+                    if (!column.isPresent(targetRow)) {
+                        column.copy(targetRow, columns.get(column.getFieldCode()), sourceRow);
+                    }
+                }
+            }
+
+            final int sortedRowCount = targetRow + 1;
+            sortedColumns.values().forEach(column -> column.resize(sortedRowCount));
+
+            return new TelemetryFrameTable(Arrays.copyOf(sortedTimes, sortedRowCount), sortedColumns);
+        }
+
+        /**
+         * Stable merge sort of row indices by row time
+         */
+        private int[] sortedRowOrder() {
+            int[] order = new int[rowCount];
+            int[] buffer = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                order[i] = i;
+            }
+
+            for (int width = 1; width < rowCount; width *= 2) {
+                for (int left = 0; left < rowCount; left += 2 * width) {
+                    final int middle = Math.min(left + width, rowCount);
+                    final int right = Math.min(left + 2 * width, rowCount);
+
+                    int i = left;
+                    int j = middle;
+                    int k = left;
+                    while (i < middle && j < right) {
+                        buffer[k++] = times[order[j]] < times[order[i]] ? order[j++] : order[i++];
+                    }
+                    while (i < middle) {
+                        buffer[k++] = order[i++];
+                    }
+                    while (j < right) {
+                        buffer[k++] = order[j++];
+                    }
+                }
+
+                final int[] swap = order;
+                order = buffer;
+                buffer = swap;
+            }
+
+            return order;
+        }
+    }
+}
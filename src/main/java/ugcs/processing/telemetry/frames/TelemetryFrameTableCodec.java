@@ -0,0 +1,91 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary serialization of {@link TelemetryFrameTable}
+ * <p>
+ * Frame times are delta-encoded, each column is stored as a validity bitmap followed by present values only.
+ * The whole stream is deflate-compressed.
+ */
+public final class TelemetryFrameTableCodec {
+    private static final int MAGIC = 0x444C5446;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private TelemetryFrameTableCodec() {
+    }
+
+    public static void write(TelemetryFrameTable table, OutputStream out) throws IOException {
+        final DeflaterOutputStream deflater =
+                new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE);
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(deflater, BUFFER_SIZE));
+
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+
+        final int rowCount = table.getRowCount();
+        data.writeInt(rowCount);
+        long previousTime = 0;
+        for (int row = 0; row < rowCount; row++) {
+            data.writeLong(table.getTime(row) - previousTime);
+            previousTime = table.getTime(row);
+        }
+
+        data.writeInt(table.getColumns().size());
+        for (TelemetryColumn column : table.getColumns()) {
+            data.writeUTF(column.getFieldCode());
+            data.writeInt(column.getSemantic().getNumber());
+            data.writeByte(column.getType().ordinal());
+            column.write(data, rowCount);
+        }
+
+        data.flush();
+        deflater.finish();
+    }
+
+    public static TelemetryFrameTable read(InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(
+                new BufferedInputStream(new InflaterInputStream(in), BUFFER_SIZE));
+
+        if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+            throw new IOException("Unsupported telemetry frame table format");
+        }
+
+        final int rowCount = data.readInt();
+        final long[] times = new long[rowCount];
+        long previousTime = 0;
+        for (int row = 0; row < rowCount; row++) {
+            times[row] = previousTime + data.readLong();
+            previousTime = times[row];
+        }
+
+        final int columnCount = data.readInt();
+        final Map<String, TelemetryColumn> columns = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            final String fieldCode = data.readUTF();
+            final Semantic semantic = Semantic.valueOf(data.readInt());
+            final TelemetryColumn.Type type = TelemetryColumn.Type.values()[data.readByte()];
+
+            final TelemetryColumn column = TelemetryColumn.create(fieldCode,
+                    semantic == null ? Semantic.S_DEFAULT : semantic, type, rowCount);
+            column.read(data, rowCount);
+            columns.put(fieldCode, column);
+        }
+
+        return new TelemetryFrameTable(times, columns);
+    }
+}
@@ -0,0 +1,10 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.IOException;
+
+/**
+ * Streaming decoder of values written by the matching {@link ValueEncoder}
+ */
+interface ValueDecoder {
+    long decode() throws IOException;
+}
@@ -0,0 +1,16 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.IOException;
+
+/**
+ * Streaming encoder of column values given as raw bits, see {@link TelemetryColumn#getBits(int)}
+ */
+interface ValueEncoder {
+    void encode(long bits) throws IOException;
+
+    /**
+     * Writes the pending state after the last value
+     */
+    default void finish() throws IOException {
+    }
+}
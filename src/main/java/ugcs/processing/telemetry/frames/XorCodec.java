@@ -0,0 +1,102 @@
+package ugcs.processing.telemetry.frames;
+
+import java.io.IOException;
+
+/**
+ * Gorilla-style XOR encoding of floating point time series, slowly changing values share sign, exponent and high
+ * mantissa bits with the previous value
+ * <p>
+ * The first value is written as is. Each next value is XOR-ed with the previous one: {@code 0} marks an equal value,
+ * {@code 10} is followed by the meaningful bits if they fit the window of the previous value, {@code 11} is followed
+ * by 5 bits of leading zeros, 6 bits of the meaningful bit count and the meaningful bits. Float bits are shifted to
+ * the high half of the long, so both widths share the same windows.
+ */
+final class XorCodec {
+    private static final int MAX_LEADING_ZEROS = 31;
+
+    private XorCodec() {
+    }
+
+    static final class Encoder implements ValueEncoder {
+        private final BitOutput out;
+        private final int width;
+        private boolean first = true;
+        private long previous;
+        private int previousLeadingZeros = -1;
+        private int previousTrailingZeros;
+
+        /**
+         * @param width bit width of the values, 32 for floats and 64 for doubles
+         */
+        Encoder(BitOutput out, int width) {
+            this.out = out;
+            this.width = width;
+        }
+
+        @Override
+        public void encode(long bits) throws IOException {
+            final long value = bits << (Long.SIZE - width);
+            if (first) {
+                out.writeBits(bits, width);
+                first = false;
+                previous = value;
+                return;
+            }
+
+            final long xor = value ^ previous;
+            previous = value;
+            if (xor == 0) {
+                out.writeBit(false);
+                return;
+            }
+            out.writeBit(true);
+
+            final int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+            final int trailingZeros = Long.numberOfTrailingZeros(xor);
+            if (previousLeadingZeros >= 0
+                    && leadingZeros >= previousLeadingZeros && trailingZeros >= previousTrailingZeros) {
+                out.writeBit(false);
+                out.writeBits(xor >>> previousTrailingZeros,
+                        Long.SIZE - previousLeadingZeros - previousTrailingZeros);
+            } else {
+                final int meaningfulBitCount = Long.SIZE - leadingZeros - trailingZeros;
+                out.writeBit(true);
+                out.writeBits(leadingZeros, 5);
+                out.writeBits(meaningfulBitCount - 1, 6);
+                out.writeBits(xor >>> trailingZeros, meaningfulBitCount);
+                previousLeadingZeros = leadingZeros;
+                previousTrailingZeros = trailingZeros;
+            }
+        }
+    }
+
+    static final class Decoder implements ValueDecoder {
+        private final BitInput in;
+        private final int width;
+        private boolean first = true;
+        private long previous;
+        private int previousLeadingZeros;
+        private int previousTrailingZeros;
+
+        Decoder(BitInput in, int width) {
+            this.in = in;
+            this.width = width;
+        }
+
+        @Override
+        public long decode() throws IOException {
+            if (first) {
+                previous = in.readBits(width) << (Long.SIZE - width);
+                first = false;
+            } else if (in.readBit()) {
+                if (in.readBit()) {
+                    previousLeadingZeros = (int) in.readBits(5);
+                    previousTrailingZeros = Long.SIZE - previousLeadingZeros - ((int) in.readBits(6) + 1);
+                }
+                final int meaningfulBitCount = Long.SIZE - previousLeadingZeros - previousTrailingZeros;
+                previous ^= in.readBits(meaningfulBitCount) << previousTrailingZeros;
+            }
+            return previous >>> (Long.SIZE - width);
+        }
+    }
+}
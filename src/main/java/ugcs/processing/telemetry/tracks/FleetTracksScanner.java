@@ -0,0 +1,116 @@
+package ugcs.processing.telemetry.tracks;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import ugcs.net.SessionController;
+import ugcs.processing.AbstractFlight;
+import ugcs.processing.telemetry.tracks.VehicleTracksIndex.TracksSource;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Comparator.comparing;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static ugcs.net.SessionController.sessionController;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.UNLIMITED_TRACKS;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.tracksIndex;
+
+/**
+ * Discovery of vehicle tracks for the whole fleet
+ * <p>
+ * Vehicles are requested in batches, the vehicles of a batch with similar watermarks share a single request. At most
+ * {@code concurrency} batches are requested from the server at once. Tracks are taken through the
+ * {@link VehicleTracksIndex}, so only time not covered by the index is requested.
+ */
+public class FleetTracksScanner {
+    public static final int DEFAULT_BATCH_SIZE = 16;
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private final VehicleTracksIndex index;
+    private final TracksSource source;
+    private final int batchSize;
+    private final int concurrency;
+
+    public FleetTracksScanner(int batchSize, int concurrency) {
+        this(tracksIndex(), serverTracksSource(sessionController()), batchSize, concurrency);
+    }
+
+    FleetTracksScanner(VehicleTracksIndex index, TracksSource source, int batchSize, int concurrency) {
+        if (batchSize <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Batch size and concurrency must be positive");
+        }
+        this.index = index;
+        this.source = source;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Source of tracks requested from UgCS server
+     */
+    static TracksSource serverTracksSource(SessionController controller) {
+        return (vehicles, fromTimeEpochMilli, toTimeEpochMilli, tracksLimit) -> controller
+                .getVehicleTracks(vehicles, fromTimeEpochMilli, toTimeEpochMilli, tracksLimit)
+                .getVehicleTracksList();
+    }
+
+    /**
+     * Returns tracks of all the vehicles intersecting the given time range sorted by start time
+     */
+    public List<VehicleTrack> scan(Collection<Vehicle> vehicles, ZonedDateTime fromTime, ZonedDateTime toTime) {
+        final List<List<Vehicle>> batches = new ArrayList<>();
+        final List<Vehicle> vehicleList = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicleList.size(); i += batchSize) {
+            batches.add(vehicleList.subList(i, Math.min(i + batchSize, vehicleList.size())));
+        }
+        if (batches.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final ExecutorService executor = newFixedThreadPool(Math.min(concurrency, batches.size()));
+        try {
+            final List<CompletableFuture<Map<String, List<VehicleTrack>>>> batchResults = new ArrayList<>();
+            for (List<Vehicle> batch : batches) {
+                batchResults.add(supplyAsync(() -> scanBatch(batch, fromTime, toTime, UNLIMITED_TRACKS), executor));
+            }
+
+            final List<VehicleTrack> tracks = new ArrayList<>();
+            for (CompletableFuture<Map<String, List<VehicleTrack>>> batchResult : batchResults) {
+                batchResult.join().values().forEach(tracks::addAll);
+            }
+            tracks.sort(comparing(AbstractFlight::getStartEpochMilli));
+            return tracks;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the latest tracks of each vehicle (by serial number) of the batch intersecting the given time range
+     * sorted by start time, see {@link VehicleTracksIndex} for the requests sent to the server
+     *
+     * @param tracksLimit maximum number of the latest tracks of each vehicle or
+     *                    {@link VehicleTracksIndex#UNLIMITED_TRACKS}
+     */
+    public Map<String, List<VehicleTrack>> scanBatch(List<Vehicle> batch, ZonedDateTime fromTime,
+                                                     ZonedDateTime toTime, int tracksLimit) {
+        return index.getVehicleTracks(source, batch,
+                fromTime.toInstant().toEpochMilli(), toTime.toInstant().toEpochMilli(), tracksLimit);
+    }
+}
@@ -16,6 +16,10 @@ class VehicleTrack extends AbstractFlight {
         super(getFlightStartTimeEpochMilli(dto), getFlightEndTimeEpochMilli(dto), vehicle);
     }
 
+    VehicleTrack(DomainProto.Vehicle vehicle, long startEpochMilli, long endEpochMilli) {
+        super(startEpochMilli, endEpochMilli, vehicle);
+    }
+
     private static long getFlightStartTimeEpochMilli(DomainProto.VehicleTrack dto) {
         return dto.getTrack().getPointsList().stream()
                 .findFirst()
@@ -0,0 +1,401 @@
+package ugcs.processing.telemetry.tracks;
+
+import com.ugcs.ucs.proto.DomainProto;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import lombok.SneakyThrows;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.processing.telemetry.SerialKeys.serialKey;
+
+/**
+ * Persisted index of already known vehicle tracks with a per-vehicle high-watermark
+ * <p>
+ * For each vehicle the index keeps the covered time range: all tracks ended before the watermark are known, so only
+ * the time after the watermark is requested from the {@link TracksSource}. Tracks ended within the settling window
+ * (they may be still growing) are not stored and the watermark is never moved past their start, so they are
+ * requested again by the next call. Requests for the time before the covered range reload the vehicle tracks
+ * from the server. Until {@link #open(Path, long)} is called all requests go straight to the source.
+ */
+public class VehicleTracksIndex {
+    public static final long DEFAULT_SETTLING_WINDOW_MS = TimeUnit.HOURS.toMillis(1);
+    public static final int UNLIMITED_TRACKS = -1;
+
+    private static final String INDEX_FILE_EXTENSION = ".tracks";
+
+    /**
+     * Source of vehicle tracks for the time not covered by the index
+     */
+    @FunctionalInterface
+    public interface TracksSource {
+        List<DomainProto.VehicleTrack> getVehicleTracks(List<Vehicle> vehicles, long fromTimeEpochMilli,
+                                                        long toTimeEpochMilli, int tracksLimit);
+    }
+
+    private final ConcurrentMap<String, VehicleEntry> entriesBySerial = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private volatile Path indexFolder;
+    private volatile long settlingWindowMs = DEFAULT_SETTLING_WINDOW_MS;
+
+    private static volatile VehicleTracksIndex instance;
+
+    public static VehicleTracksIndex tracksIndex() {
+        if (instance == null) {
+            synchronized (VehicleTracksIndex.class) {
+                if (instance == null) {
+                    instance = new VehicleTracksIndex(System::currentTimeMillis);
+                }
+            }
+        }
+        return instance;
+    }
+
+    VehicleTracksIndex(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Enables the index stored in the given folder
+     */
+    @SneakyThrows
+    public synchronized void open(Path indexFolder, long settlingWindowMs) {
+        this.indexFolder = Files.createDirectories(indexFolder);
+        this.settlingWindowMs = settlingWindowMs;
+        entriesBySerial.clear();
+    }
+
+    public boolean isOpen() {
+        return indexFolder != null;
+    }
+
+    /**
+     * Returns tracks of the vehicle intersecting the given time range sorted by start time
+     */
+    public List<VehicleTrack> getVehicleTracks(TracksSource source, Vehicle vehicle,
+                                               long fromTimeEpochMilli, long toTimeEpochMilli) {
+        return getVehicleTracks(source, singletonList(vehicle), fromTimeEpochMilli, toTimeEpochMilli,
+                UNLIMITED_TRACKS).get(vehicle.getSerialNumber());
+    }
+
+    /**
+     * Returns the latest tracks of each vehicle (by serial number) intersecting the given time range sorted by
+     * start time
+     * <p>
+     * Vehicles with no known tracks for the range are requested one by one with the tracks limit, so the server
+     * returns only the latest tracks of each. Without a limit they are requested together with the other vehicles.
+     * The other vehicles are requested in groups from the earliest time not covered for any vehicle of the group;
+     * a group takes vehicles whose uncovered time starts within the settling window, so a vehicle with an old
+     * watermark doesn't make the whole fleet request its time.
+     *
+     * @param tracksLimit maximum number of the latest tracks of each vehicle or {@link #UNLIMITED_TRACKS}
+     */
+    public Map<String, List<VehicleTrack>> getVehicleTracks(TracksSource source, List<Vehicle> vehicles,
+                                                            long fromTimeEpochMilli, long toTimeEpochMilli,
+                                                            int tracksLimit) {
+        final Map<String, List<VehicleTrack>> tracksBySerial = new LinkedHashMap<>();
+        if (!isOpen()) {
+            final List<FetchGroup> groups = new ArrayList<>();
+            for (Vehicle vehicle : vehicles) {
+                if (groups.isEmpty() || tracksLimit != UNLIMITED_TRACKS) {
+                    groups.add(new FetchGroup(fromTimeEpochMilli, tracksLimit));
+                }
+                groups.get(groups.size() - 1).vehicles.add(vehicle);
+            }
+            for (FetchGroup group : groups) {
+                final Map<String, NavigableMap<Long, Long>> fetchedTracks =
+                        fetchTracks(source, group.vehicles, group.fromTime, toTimeEpochMilli, group.tracksLimit);
+                for (Vehicle vehicle : group.vehicles) {
+                    tracksBySerial.put(vehicle.getSerialNumber(), toVehicleTracks(vehicle,
+                            fetchedTracks.get(vehicle.getSerialNumber()), fromTimeEpochMilli, toTimeEpochMilli,
+                            tracksLimit));
+                }
+            }
+            return tracksBySerial;
+        }
+
+        final SortedMap<String, Vehicle> vehiclesByKey = new TreeMap<>();
+        vehicles.forEach(vehicle -> vehiclesByKey.put(serialKey(vehicle), vehicle));
+        final List<VehicleEntry> entries = vehiclesByKey.keySet().stream()
+                .map(serialKey -> entriesBySerial.computeIfAbsent(serialKey, this::loadEntry))
+                .collect(toList());
+
+        // entries are locked in the order of serial keys, so concurrent requests can't deadlock
+        entries.forEach(entry -> entry.lock.lock());
+        try {
+            final Map<String, Boolean> resetBySerial = new HashMap<>();
+            final Map<Vehicle, Long> fetchFromTimes = new LinkedHashMap<>();
+            final List<FetchGroup> groups = new ArrayList<>();
+            int i = 0;
+            for (Vehicle vehicle : vehiclesByKey.values()) {
+                final VehicleEntry entry = entries.get(i++);
+                final boolean reset = fromTimeEpochMilli < entry.coveredFrom
+                        && (tracksLimit == UNLIMITED_TRACKS
+                        || entry.countTracks(fromTimeEpochMilli, toTimeEpochMilli) < tracksLimit);
+                resetBySerial.put(vehicle.getSerialNumber(), reset);
+                if (reset && tracksLimit != UNLIMITED_TRACKS) {
+                    final FetchGroup group = new FetchGroup(fromTimeEpochMilli, tracksLimit);
+                    group.vehicles.add(vehicle);
+                    groups.add(group);
+                } else if (reset) {
+                    fetchFromTimes.put(vehicle, fromTimeEpochMilli);
+                } else if (toTimeEpochMilli > entry.watermark) {
+                    fetchFromTimes.put(vehicle, entry.watermark);
+                }
+            }
+            groups.addAll(groupByFetchFromTime(fetchFromTimes));
+
+            final Map<String, NavigableMap<Long, Long>> fetchedTracks = new HashMap<>();
+            final Map<String, Long> fetchedFromTimes = new HashMap<>();
+            for (FetchGroup group : groups) {
+                final Map<String, NavigableMap<Long, Long>> groupTracks =
+                        fetchTracks(source, group.vehicles, group.fromTime, toTimeEpochMilli, group.tracksLimit);
+                for (Vehicle vehicle : group.vehicles) {
+                    final NavigableMap<Long, Long> vehicleTracks = groupTracks.get(vehicle.getSerialNumber());
+                    fetchedTracks.put(vehicle.getSerialNumber(), vehicleTracks);
+                    // tracks older than the returned ones are unknown once the server limit is reached
+                    fetchedFromTimes.put(vehicle.getSerialNumber(),
+                            group.tracksLimit != UNLIMITED_TRACKS && vehicleTracks.size() >= group.tracksLimit
+                                    ? Math.max(group.fromTime, vehicleTracks.firstKey())
+                                    : group.fromTime);
+                }
+            }
+
+            final long settledTime = Math.min(toTimeEpochMilli, clock.getAsLong() - settlingWindowMs);
+            i = 0;
+            for (Map.Entry<String, Vehicle> keyAndVehicle : vehiclesByKey.entrySet()) {
+                final VehicleEntry entry = entries.get(i++);
+                final Vehicle vehicle = keyAndVehicle.getValue();
+                final NavigableMap<Long, Long> vehicleFetchedTracks = fetchedTracks.get(vehicle.getSerialNumber());
+                if (vehicleFetchedTracks != null) {
+                    final long fetchedFrom = fetchedFromTimes.get(vehicle.getSerialNumber());
+                    if (resetBySerial.get(vehicle.getSerialNumber())) {
+                        entry.reset(fetchedFrom);
+                        entry.settle(vehicleFetchedTracks, settledTime);
+                        saveEntry(keyAndVehicle.getKey(), entry);
+                    } else if (entry.extend(fetchedFrom) | entry.settle(vehicleFetchedTracks, settledTime)) {
+                        saveEntry(keyAndVehicle.getKey(), entry);
+                    }
+                }
+
+                final Long firstTrackStart = entry.tracks.floorKey(fromTimeEpochMilli);
+                final NavigableMap<Long, Long> tracks = new TreeMap<>(entry.tracks.subMap(
+                        firstTrackStart != null ? firstTrackStart : fromTimeEpochMilli, true,
+                        toTimeEpochMilli, true));
+                if (vehicleFetchedTracks != null) {
+                    tracks.putAll(vehicleFetchedTracks);
+                }
+                tracksBySerial.put(vehicle.getSerialNumber(),
+                        toVehicleTracks(vehicle, tracks, fromTimeEpochMilli, toTimeEpochMilli, tracksLimit));
+            }
+            return tracksBySerial;
+        } finally {
+            entries.forEach(entry -> entry.lock.unlock());
+        }
+    }
+
+    /**
+     * Groups the vehicles by the time to fetch from, each group spans no more than the settling window
+     */
+    private List<FetchGroup> groupByFetchFromTime(Map<Vehicle, Long> fetchFromTimes) {
+        final List<Map.Entry<Vehicle, Long>> vehiclesByTime = new ArrayList<>(fetchFromTimes.entrySet());
+        vehiclesByTime.sort(Map.Entry.comparingByValue());
+
+        final List<FetchGroup> groups = new ArrayList<>();
+        FetchGroup group = null;
+        for (Map.Entry<Vehicle, Long> vehicleAndTime : vehiclesByTime) {
+            if (group == null || vehicleAndTime.getValue() - group.fromTime > settlingWindowMs) {
+                group = new FetchGroup(vehicleAndTime.getValue(), UNLIMITED_TRACKS);
+                groups.add(group);
+            }
+            group.vehicles.add(vehicleAndTime.getKey());
+        }
+        return groups;
+    }
+
+    private static List<VehicleTrack> toVehicleTracks(Vehicle vehicle, NavigableMap<Long, Long> tracks,
+                                                      long fromTimeEpochMilli, long toTimeEpochMilli,
+                                                      int tracksLimit) {
+        final List<VehicleTrack> vehicleTracks = new ArrayList<>(tracks.size());
+        for (Map.Entry<Long, Long> track : tracks.entrySet()) {
+            if (track.getValue() >= fromTimeEpochMilli && track.getKey() <= toTimeEpochMilli) {
+                vehicleTracks.add(new VehicleTrack(vehicle, track.getKey(), track.getValue()));
+            }
+        }
+        if (tracksLimit != UNLIMITED_TRACKS && vehicleTracks.size() > tracksLimit) {
+            return new ArrayList<>(vehicleTracks.subList(vehicleTracks.size() - tracksLimit, vehicleTracks.size()));
+        }
+        return vehicleTracks;
+    }
+
+    /**
+     * Requests tracks of the vehicles and groups them by vehicle serial number (start time to end time)
+     */
+    private static Map<String, NavigableMap<Long, Long>> fetchTracks(TracksSource source, List<Vehicle> vehicles,
+                                                                     long fromTimeEpochMilli, long toTimeEpochMilli,
+                                                                     int tracksLimit) {
+        final Map<String, NavigableMap<Long, Long>> fetchedTracks = new HashMap<>();
+        vehicles.forEach(vehicle -> fetchedTracks.put(vehicle.getSerialNumber(), new TreeMap<>()));
+        for (DomainProto.VehicleTrack dto : source.getVehicleTracks(vehicles, fromTimeEpochMilli, toTimeEpochMilli,
+                tracksLimit)) {
+            // tracks of a single vehicle request belong to it even if the server omits the vehicle
+            final String serialNumber = vehicles.size() == 1
+                    ? vehicles.get(0).getSerialNumber()
+                    : dto.getVehicle().getSerialNumber();
+            final NavigableMap<Long, Long> vehicleTracks = fetchedTracks.get(serialNumber);
+            if (vehicleTracks != null && dto.getTrack().getPointsCount() > 0) {
+                final VehicleTrack track = new VehicleTrack(dto.getVehicle(), dto);
+                vehicleTracks.put(track.getStartEpochMilli(), track.getEndEpochMilli());
+            }
+        }
+        return fetchedTracks;
+    }
+
+    private VehicleEntry loadEntry(String serialKey) {
+        final VehicleEntry entry = new VehicleEntry();
+        final Path entryPath = indexFolder.resolve(serialKey + INDEX_FILE_EXTENSION);
+        if (!Files.isRegularFile(entryPath)) {
+            return entry;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(entryPath, StandardCharsets.UTF_8)) {
+            final String[] range = reader.readLine().split(" ");
+            final long coveredFrom = Long.parseLong(range[0]);
+            final long watermark = Long.parseLong(range[1]);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] track = line.split(" ");
+                entry.tracks.put(Long.parseLong(track[0]), Long.parseLong(track[1]));
+            }
+            entry.coveredFrom = coveredFrom;
+            entry.watermark = watermark;
+        } catch (IOException | RuntimeException e) {
+            getLogger(getClass()).warn("Corrupted tracks index skipped: " + entryPath, e);
+            return new VehicleEntry();
+        }
+        return entry;
+    }
+
+    /**
+     * Writes the entry to the temporary file which atomically replaces the previous one
+     */
+    private void saveEntry(String serialKey, VehicleEntry entry) {
+        final Path entryPath = indexFolder.resolve(serialKey + INDEX_FILE_EXTENSION);
+        final Path tempPath = entryPath.resolveSibling(entryPath.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                writer.write(entry.coveredFrom + " " + entry.watermark);
+                writer.newLine();
+                for (Map.Entry<Long, Long> track : entry.tracks.entrySet()) {
+                    writer.write(track.getKey() + " " + track.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, entryPath, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            getLogger(getClass()).warn("Tracks index not saved: " + entryPath, e);
+        }
+    }
+
+    /**
+     * Known tracks (start time to end time) of the covered range [coveredFrom, watermark)
+     */
+    private static final class VehicleEntry {
+        private final Lock lock = new ReentrantLock();
+        private long coveredFrom = Long.MAX_VALUE;
+        private long watermark = Long.MAX_VALUE;
+        private final NavigableMap<Long, Long> tracks = new TreeMap<>();
+
+        private int countTracks(long fromTime, long toTime) {
+            int count = 0;
+            for (Map.Entry<Long, Long> track : tracks.entrySet()) {
+                if (track.getValue() >= fromTime && track.getKey() <= toTime) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        private void reset(long coveredFrom) {
+            this.coveredFrom = coveredFrom;
+            this.watermark = coveredFrom;
+            tracks.clear();
+        }
+
+        /**
+         * Moves the start of the covered range back to the start of the fetched range
+         *
+         * @return true if the entry is changed
+         */
+        private boolean extend(long fetchedFrom) {
+            if (fetchedFrom >= coveredFrom) {
+                return false;
+            }
+            coveredFrom = fetchedFrom;
+            return true;
+        }
+
+        /**
+         * Stores the fetched tracks ended before the settled time and moves the watermark up to the settled time
+         * or the start of the first not settled track
+         *
+         * @return true if the entry is changed
+         */
+        private boolean settle(NavigableMap<Long, Long> fetchedTracks, long settledTime) {
+            long newWatermark = Math.max(watermark, settledTime);
+            for (Map.Entry<Long, Long> track : fetchedTracks.entrySet()) {
+                if (track.getValue() >= newWatermark) {
+                    newWatermark = Math.max(watermark, Math.min(newWatermark, track.getKey()));
+                }
+            }
+
+            boolean changed = newWatermark != watermark;
+            for (Map.Entry<Long, Long> track : fetchedTracks.entrySet()) {
+                if (track.getValue() < newWatermark) {
+                    final Long previousEnd = tracks.put(track.getKey(), track.getValue());
+                    changed |= !track.getValue().equals(previousEnd);
+                }
+            }
+            watermark = newWatermark;
+            return changed;
+        }
+    }
+
+    /**
+     * Vehicles requested from the source by a single request
+     */
+    private static final class FetchGroup {
+        private final long fromTime;
+        private final int tracksLimit;
+        private final List<Vehicle> vehicles = new ArrayList<>();
+
+        private FetchGroup(long fromTime, int tracksLimit) {
+            this.fromTime = fromTime;
+            this.tracksLimit = tracksLimit;
+        }
+    }
+}
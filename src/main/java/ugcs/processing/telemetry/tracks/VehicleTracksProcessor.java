@@ -1,32 +1,35 @@
 package ugcs.processing.telemetry.tracks;
 
-import com.ugcs.ucs.proto.DomainProto;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
-import ugcs.common.LazyFieldEvaluator;
+import ugcs.common.Lazy;
 import ugcs.net.SessionController;
-import ugcs.processing.AbstractFlight;
 import ugcs.processing.Flight;
 
 import java.time.ZonedDateTime;
 import java.util.List;
 
 import static java.util.Collections.singletonList;
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.toList;
 import static ugcs.net.SessionController.sessionController;
+import static ugcs.processing.telemetry.tracks.FleetTracksScanner.serverTracksSource;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.UNLIMITED_TRACKS;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.tracksIndex;
 
 /**
  * Class for {@link Flight} calculation based on vehicle tracks
+ * <p>
+ * Tracks are taken through the {@link VehicleTracksIndex}: if it is open, only tracks newer than the index watermark
+ * are requested from the server. The tracks limit is sent to the server whenever the tracks of the range are not
+ * known yet.
  */
-public class VehicleTracksProcessor extends LazyFieldEvaluator {
-    private final static int UNLIMITED_TRACKS = -1;
-
+public class VehicleTracksProcessor {
     private final SessionController controller;
     private final Vehicle vehicle;
     private final ZonedDateTime fromTime;
     private final ZonedDateTime toTime;
     private final int tracksLimit;
 
+    private final Lazy<List<VehicleTrack>> vehicleTracks = Lazy.of(this::evaluateVehicleTracks);
+
     public VehicleTracksProcessor(ZonedDateTime fromTime, ZonedDateTime toTime, Vehicle vehicle) {
         this(fromTime, toTime, UNLIMITED_TRACKS, vehicle);
     }
@@ -40,21 +43,12 @@ public class VehicleTracksProcessor extends LazyFieldEvaluator {
     }
 
     public List<VehicleTrack> getVehicleTracks() {
-        return evaluateField("vehicleTracks",
-                () -> getVehicleTracksProto().stream()
-                        .map(dto -> new VehicleTrack(vehicle, dto))
-                        .sorted(comparing(AbstractFlight::getStartEpochMilli))
-                        .collect(toList())
-        );
+        return vehicleTracks.get();
     }
 
-    private List<DomainProto.VehicleTrack> getVehicleTracksProto() {
-        return evaluateField("tracksDto", () -> {
-            final long fromTimeEpochMilli = fromTime.toInstant().toEpochMilli();
-            final long toTimeEpochMilli = toTime.toInstant().toEpochMilli();
-            return controller
-                    .getVehicleTracks(singletonList(vehicle), fromTimeEpochMilli, toTimeEpochMilli, tracksLimit)
-                    .getVehicleTracksList();
-        });
+    private List<VehicleTrack> evaluateVehicleTracks() {
+        return tracksIndex().getVehicleTracks(serverTracksSource(controller), singletonList(vehicle),
+                fromTime.toInstant().toEpochMilli(), toTime.toInstant().toEpochMilli(), tracksLimit)
+                .get(vehicle.getSerialNumber());
     }
 }
@@ -0,0 +1,82 @@
+package ugcs.ucsHub;
+
+import ugcs.common.identity.Identity;
+import ugcs.common.operation.Operation;
+import ugcs.exceptions.logic.NoFlightTelemetryFoundException;
+import ugcs.processing.Flight;
+import ugcs.processing.telemetry.ArchiveFileNameGenerator;
+import ugcs.processing.telemetry.CsvFileNameGenerator;
+import ugcs.processing.telemetry.FlightTelemetry;
+import ugcs.processing.telemetry.FlightTelemetryProcessor;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+import ugcs.upload.logbook.DroneLogbookResponse;
+import ugcs.upload.logbook.LogbookUploader;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.csv.telemetry.TelemetryArchiveSaver.saveTelemetryDataToArchiveFile;
+import static ugcs.csv.telemetry.TelemetryDataSaver.saveTelemetryDataToCsvFile;
+import static ugcs.processing.telemetry.FlightTelemetry.withId;
+import static ugcs.ucsHub.Settings.settings;
+import static ugcs.upload.logbook.FlightUploadPerformerFactory.performerFactory;
+
+/**
+ * Submits flights to the upload pipeline the same way for both UI and headless modes of the application
+ */
+public final class FlightUploadSubmitter {
+    private FlightUploadSubmitter() {
+    }
+
+    /**
+     * Telemetry of the flight is saved to the telemetry folder, first flight found in the telemetry is uploaded
+     * <p>
+     * The most recent flights are uploaded first.
+     */
+    public static CompletableFuture<Operation<Identity<?>, DroneLogbookResponse>> submitFlightForUploading(
+            Flight flight) {
+        return performerFactory().getUploadPipeline().submit(flight.getId(), flight.getStartEpochMilli(), () -> {
+            final FlightTelemetryProcessor flightTelemetryProcessor =
+                    new FlightTelemetryProcessor(flight, settings().getFlightSeparationThresholdMs());
+            final TelemetryFrameTable processedTelemetry = flightTelemetryProcessor.getProcessedTelemetry();
+
+            saveTelemetry(processedTelemetry, flightTelemetryProcessor.getAllFieldCodes(), flight);
+
+            final List<FlightTelemetry> flightTelemetries = flightTelemetryProcessor.getFlightTelemetries();
+            if (flightTelemetries.isEmpty()) {
+                throw new NoFlightTelemetryFoundException(flight);
+            }
+            if (flightTelemetries.size() > 1) {
+                getLogger(FlightUploadSubmitter.class)
+                        .warn("Multiple flights telemetry found, only first flight will be uploaded");
+            }
+
+            return withId(flightTelemetries.get(0), flight.getId());
+        }, logbookUploader(), FlightUploadSubmitter::uploadedFlightFilePath);
+    }
+
+    private static LogbookUploader logbookUploader() {
+        return new LogbookUploader(settings().getUploadServerUrl(),
+                settings().getUploadServerLogin(), settings().getUploadServerPassword());
+    }
+
+    private static Path uploadedFlightFilePath(FlightTelemetry flightTelemetry) {
+        return new CsvFileNameGenerator(settings().getUploadedFlightsPath(), flightTelemetry).generateUnique();
+    }
+
+    private static void saveTelemetry(TelemetryFrameTable processedTelemetry, Set<String> fieldCodes, Flight flight) {
+        if (settings().isTelemetryArchiveFormat()) {
+            final Path archiveFilePath =
+                    new ArchiveFileNameGenerator(settings().getTelemetryPath(), flight).generateUnique();
+            saveTelemetryDataToArchiveFile(archiveFilePath, processedTelemetry, fieldCodes);
+            return;
+        }
+
+        final Path telemetryFilePath =
+                new CsvFileNameGenerator(settings().getTelemetryPath(), flight).generateUnique();
+        saveTelemetryDataToCsvFile(telemetryFilePath, processedTelemetry, fieldCodes);
+    }
+}
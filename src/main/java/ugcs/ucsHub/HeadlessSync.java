@@ -0,0 +1,296 @@
+package ugcs.ucsHub;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.json.JSONObject;
+import ugcs.common.Lazy;
+import ugcs.common.identity.Identity;
+import ugcs.common.operation.Operation;
+import ugcs.exceptions.ExpectedException;
+import ugcs.processing.Flight;
+import ugcs.processing.telemetry.tracks.FleetTracksScanner;
+import ugcs.upload.logbook.DroneLogbookResponse;
+import ugcs.upload.logbook.MultipartUtility;
+import ugcs.upload.service.impl.FileUploadedFlightsStorage;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.common.MemoryPressureMonitor.memoryMonitor;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
+import static ugcs.net.SessionController.sessionController;
+import static ugcs.processing.telemetry.cache.TelemetryCache.telemetryCache;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.tracksIndex;
+import static ugcs.time.TimeUtils.time;
+import static ugcs.ucsHub.FlightUploadSubmitter.submitFlightForUploading;
+import static ugcs.ucsHub.Settings.settings;
+import static ugcs.upload.logbook.FlightUploadPerformerFactory.performerFactory;
+import static ugcs.upload.service.UploadedFlightsStorage.storage;
+
+/**
+ * Entry point of the application for batch synchronization without UI
+ * <p>
+ * Every flight of the selected vehicles which is not uploaded yet is submitted to the upload pipeline at once, the
+ * pipeline bounds the concurrency. Each finished flight is reported as soon as it completes, so the progress is
+ * limited only by the pipeline throughput.
+ */
+public final class HeadlessSync {
+    static final int EXIT_OK = 0;
+    static final int EXIT_FLIGHTS_FAILED = 1;
+    static final int EXIT_WRONG_ARGUMENTS = 2;
+    static final int EXIT_CONNECTION_FAILED = 3;
+    static final int EXIT_UNEXPECTED_ERROR = 4;
+
+    private final HeadlessSyncOptions options;
+    private final Reporter reporter;
+
+    private final AtomicInteger uploadedCount = new AtomicInteger();
+    private final AtomicInteger duplicatedCount = new AtomicInteger();
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+
+    /**
+     * Writer of progress events as JSON lines
+     */
+    private static final class Reporter implements Closeable {
+        private final PrintWriter writer;
+        private final boolean closeWriter;
+
+        private Reporter(Writer writer, boolean closeWriter) {
+            this.writer = new PrintWriter(writer);
+            this.closeWriter = closeWriter;
+        }
+
+        synchronized void report(String event, JSONObject details) {
+            writer.println(details.put("event", event).put("time", Instant.now().toString()));
+            writer.flush();
+        }
+
+        @Override
+        public void close() {
+            if (closeWriter) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        }
+    }
+
+    private HeadlessSync(HeadlessSyncOptions options, Reporter reporter) {
+        this.options = options;
+        this.reporter = reporter;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        final HeadlessSyncOptions options;
+        try {
+            options = HeadlessSyncOptions.parse(args, time().defaultZoneId(), ZonedDateTime.now(time().defaultZoneId()));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(HeadlessSyncOptions.USAGE);
+            return EXIT_WRONG_ARGUMENTS;
+        }
+
+        if (options.isHelp()) {
+            System.out.println(HeadlessSyncOptions.USAGE);
+            return EXIT_OK;
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        try (Reporter reporter = createReporter(options)) {
+            return new HeadlessSync(options, reporter).sync();
+        } catch (IOException e) {
+            System.err.println("Can't open output: " + e.getMessage());
+            return EXIT_WRONG_ARGUMENTS;
+        }
+    }
+
+    private static Reporter createReporter(HeadlessSyncOptions options) throws IOException {
+        if (options.getOutputPath().isPresent()) {
+            final Path outputPath = options.getOutputPath().get();
+            return new Reporter(Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8), true);
+        }
+        return new Reporter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), false);
+    }
+
+    private int sync() {
+        final long startTime = System.currentTimeMillis();
+        performerFactory().updateSettings(options.toUploadSettings(settings()));
+        FileUploadedFlightsStorage.storage().open(settings().getUploadedFlightsStoragePath());
+        if (settings().getTelemetryCacheMaxSizeBytes() > 0) {
+            telemetryCache().open(settings().getTelemetryCachePath(), settings().getTelemetryCacheMaxSizeBytes());
+        }
+        tracksIndex().open(settings().getTracksIndexPath(), settings().getTracksSettlingWindowMs());
+        if (settings().getMetricsExportIntervalMs() > 0) {
+            metrics().startPeriodicExport(settings().getMetricsExportPath(), settings().getMetricsExportIntervalMs());
+        }
+        if (settings().getMemoryPressureThreshold() > 0) {
+            memoryMonitor().addPressureListener(Lazy::evictSoftValues);
+            memoryMonitor().start(settings().getMemoryPressureThreshold());
+        }
+
+        try {
+            if (!connect()) {
+                return EXIT_CONNECTION_FAILED;
+            }
+
+            final List<Vehicle> vehicles = sessionController().getVehicles().stream()
+                    .filter(options::isVehicleSelected)
+                    .collect(toList());
+            reporter.report("start", new JSONObject()
+                    .put("vehicles", vehicles.size())
+                    .put("from", options.getFromTime().toInstant().toString())
+                    .put("to", options.getToTime().toInstant().toString())
+                    .put("dryRun", options.isDryRun()));
+
+            final List<? extends Flight> tracks =
+                    new FleetTracksScanner(settings().getTracksScanBatchSize(), settings().getTracksScanConcurrency())
+                            .scan(vehicles, options.getFromTime(), options.getToTime());
+            final Map<String, List<Flight>> newFlightsBySerial = new HashMap<>();
+            vehicles.forEach(vehicle -> newFlightsBySerial.put(vehicle.getSerialNumber(), new ArrayList<>()));
+            for (Flight track : tracks) {
+                if (!storage().isUploaded(track)) {
+                    newFlightsBySerial.get(track.getVehicle().getSerialNumber()).add(track);
+                }
+            }
+
+            final List<CompletableFuture<?>> uploads = new ArrayList<>();
+            int newFlightsCount = 0;
+            for (Vehicle vehicle : vehicles) {
+                final List<Flight> newFlights = newFlightsBySerial.get(vehicle.getSerialNumber());
+                newFlightsCount += newFlights.size();
+                reporter.report("vehicle", vehicleDetails(vehicle).put("newFlights", newFlights.size()));
+
+                for (Flight flight : newFlights) {
+                    if (options.isDryRun()) {
+                        reporter.report("flight", flightDetails(flight).put("status", "new"));
+                    } else {
+                        uploads.add(submitFlightForUploading(flight)
+                                .thenAccept(operation -> reportUploadResult(flight, operation)));
+                    }
+                }
+            }
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture<?>[0])).join();
+
+            reporter.report("summary", new JSONObject()
+                    .put("newFlights", newFlightsCount)
+                    .put("uploaded", uploadedCount.get())
+                    .put("duplicated", duplicatedCount.get())
+                    .put("rejected", rejectedCount.get())
+                    .put("failed", failedCount.get())
+                    .put("durationMs", System.currentTimeMillis() - startTime));
+
+            return rejectedCount.get() + failedCount.get() > 0 ? EXIT_FLIGHTS_FAILED : EXIT_OK;
+        } catch (ExpectedException e) {
+            reporter.report("error", errorDetails(e));
+            return EXIT_CONNECTION_FAILED;
+        } catch (Exception e) {
+            getLogger(HeadlessSync.class).error("Synchronization failed", e);
+            reporter.report("error", errorDetails(e));
+            return EXIT_UNEXPECTED_ERROR;
+        } finally {
+            performerFactory().shutDown();
+            getLogger(HeadlessSync.class).info(sessionController().getStatisticsReport());
+            sessionController().close();
+            FileUploadedFlightsStorage.storage().close();
+            getLogger(HeadlessSync.class).info(telemetryCache().getStatisticsReport());
+            getLogger(HeadlessSync.class).info(metrics().getStatisticsReport());
+            metrics().exportOnExit(settings().getMetricsExportPath());
+        }
+    }
+
+    /**
+     * Connects to UgCS and checks DroneLogbook credentials (unless it is a dry run), failures are reported
+     */
+    private boolean connect() {
+        sessionController().updateSettings(settings());
+        try {
+            sessionController().connect();
+        } catch (ExpectedException e) {
+            reporter.report("error", errorDetails(e).put("service", "UgCS"));
+            return false;
+        }
+
+        if (options.isDryRun()) {
+            return true;
+        }
+        try {
+            new MultipartUtility(settings().getUploadServerUrl())
+                    .withCredentials(settings().getUploadServerLogin(), settings().getUploadServerPassword())
+                    .authorizationTestOnly()
+                    .performRequest()
+                    .assertAuthorizationSucceed();
+            return true;
+        } catch (ExpectedException e) {
+            reporter.report("error", errorDetails(e).put("service", "DroneLogbook"));
+            return false;
+        }
+    }
+
+    private void reportUploadResult(Flight flight, Operation<Identity<?>, DroneLogbookResponse> operation) {
+        final JSONObject details = flightDetails(flight);
+        if (operation.isCancelled()) {
+            failedCount.incrementAndGet();
+            details.put("status", "cancelled");
+        } else if (operation.getError().isPresent()) {
+            failedCount.incrementAndGet();
+            details.put("status", "failed").put("error", errorMessage(operation.getError().get()));
+        } else {
+            final DroneLogbookResponse response = operation.getResult().orElseThrow(IllegalStateException::new);
+            if (response.isUploadSucceed()) {
+                uploadedCount.incrementAndGet();
+                details.put("status", "uploaded");
+            } else if (response.isFlightDuplicated()) {
+                duplicatedCount.incrementAndGet();
+                details.put("status", "duplicated");
+            } else {
+                rejectedCount.incrementAndGet();
+                details.put("status", "rejected");
+            }
+            response.getUrl().ifPresent(url -> details.put("url", url));
+            response.getDescription().ifPresent(description -> details.put("description", description.trim()));
+        }
+        reporter.report("flight", details);
+    }
+
+    private static JSONObject vehicleDetails(Vehicle vehicle) {
+        return new JSONObject()
+                .put("vehicle", vehicle.getName())
+                .put("serialNumber", vehicle.getSerialNumber());
+    }
+
+    private static JSONObject flightDetails(Flight flight) {
+        return vehicleDetails(flight.getVehicle())
+                .put("flightId", String.valueOf(flight.getId().getId()))
+                .put("start", Instant.ofEpochMilli(flight.getStartEpochMilli()).toString())
+                .put("end", Instant.ofEpochMilli(flight.getEndEpochMilli()).toString());
+    }
+
+    private static JSONObject errorDetails(Throwable error) {
+        return new JSONObject().put("error", errorMessage(error));
+    }
+
+    private static String errorMessage(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,224 @@
+package ugcs.ucsHub;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import ugcs.upload.logbook.UploadSettings;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+
+/**
+ * Command line options of {@link HeadlessSync}
+ */
+final class HeadlessSyncOptions {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: sync [options]",
+            "Uploads all flights not uploaded yet to DroneLogbook, progress is reported as JSON lines.",
+            "Connection settings and credentials are taken from client.properties.",
+            "",
+            "  --vehicle <regex>          vehicles to sync, matched against name and serial number (repeatable),",
+            "                             all vehicles by default",
+            "  --from <date-time>         start of the time range, ISO date or date-time, the epoch by default",
+            "  --to <date-time>           end of the time range (a date includes the whole day), now by default",
+            "  --download-threads <n>     number of telemetry download threads",
+            "  --encoding-threads <n>     number of CSV encoding threads",
+            "  --post-threads <n>         number of DroneLogbook upload threads",
+            "  --queue-capacity <n>       max number of flights downloaded but not uploaded yet",
+            "  --output <file>            write JSON lines to the file instead of the standard output",
+            "  --dry-run                  only report flights to upload",
+            "  --help                     print this message",
+            "",
+            "Exit codes: 0 - all flights synced, 1 - some flights failed, 2 - wrong arguments,",
+            "            3 - UgCS or DroneLogbook connection failed, 4 - unexpected error");
+
+    private final List<Pattern> vehiclePatterns = new ArrayList<>();
+    private ZonedDateTime fromTime;
+    private ZonedDateTime toTime;
+    private Integer downloadThreads;
+    private Integer encodingThreads;
+    private Integer postThreads;
+    private Integer queueCapacity;
+    private Path outputPath;
+    private boolean dryRun = false;
+    private boolean help = false;
+
+    private HeadlessSyncOptions() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if arguments are malformed
+     */
+    static HeadlessSyncOptions parse(String[] args, ZoneId zoneId, ZonedDateTime now) {
+        final HeadlessSyncOptions options = new HeadlessSyncOptions();
+        for (int i = 0; i < args.length; i++) {
+            final String option = args[i];
+            switch (option) {
+                case "--dry-run":
+                    options.dryRun = true;
+                    continue;
+                case "--help":
+                    options.help = true;
+                    continue;
+                default:
+                    break;
+            }
+
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(format("Unknown option or missing value: %s", option));
+            }
+            final String value = args[++i];
+            switch (option) {
+                case "--vehicle":
+                    options.vehiclePatterns.add(parsePattern(value));
+                    break;
+                case "--from":
+                    options.fromTime = parseTime(value, zoneId, false);
+                    break;
+                case "--to":
+                    options.toTime = parseTime(value, zoneId, true);
+                    break;
+                case "--download-threads":
+                    options.downloadThreads = parsePositive(option, value);
+                    break;
+                case "--encoding-threads":
+                    options.encodingThreads = parsePositive(option, value);
+                    break;
+                case "--post-threads":
+                    options.postThreads = parsePositive(option, value);
+                    break;
+                case "--queue-capacity":
+                    options.queueCapacity = parsePositive(option, value);
+                    break;
+                case "--output":
+                    options.outputPath = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(format("Unknown option: %s", option));
+            }
+        }
+
+        if (options.fromTime == null) {
+            options.fromTime = ZonedDateTime.ofInstant(Instant.EPOCH, zoneId);
+        }
+        if (options.toTime == null) {
+            options.toTime = now;
+        }
+        if (!options.fromTime.isBefore(options.toTime)) {
+            throw new IllegalArgumentException(
+                    format("Empty time range: %s - %s", options.fromTime, options.toTime));
+        }
+        return options;
+    }
+
+    boolean isVehicleSelected(Vehicle vehicle) {
+        return vehiclePatterns.isEmpty() || vehiclePatterns.stream().anyMatch(pattern ->
+                pattern.matcher(vehicle.getName()).find() || pattern.matcher(vehicle.getSerialNumber()).find());
+    }
+
+    ZonedDateTime getFromTime() {
+        return fromTime;
+    }
+
+    ZonedDateTime getToTime() {
+        return toTime;
+    }
+
+    Optional<Path> getOutputPath() {
+        return ofNullable(outputPath);
+    }
+
+    boolean isDryRun() {
+        return dryRun;
+    }
+
+    boolean isHelp() {
+        return help;
+    }
+
+    /**
+     * Upload settings with the concurrency options given in the command line, the rest is taken from the defaults
+     */
+    UploadSettings toUploadSettings(UploadSettings defaults) {
+        return new UploadSettings() {
+            @Override
+            public int getUploadDownloadThreads() {
+                return ofNullable(downloadThreads).orElseGet(defaults::getUploadDownloadThreads);
+            }
+
+            @Override
+            public int getUploadEncodingThreads() {
+                return ofNullable(encodingThreads).orElseGet(defaults::getUploadEncodingThreads);
+            }
+
+            @Override
+            public int getUploadPostThreads() {
+                return ofNullable(postThreads).orElseGet(defaults::getUploadPostThreads);
+            }
+
+            @Override
+            public int getUploadQueueCapacity() {
+                return ofNullable(queueCapacity).orElseGet(defaults::getUploadQueueCapacity);
+            }
+
+            @Override
+            public boolean isUploadStreaming() {
+                return defaults.isUploadStreaming();
+            }
+        };
+    }
+
+    private static Pattern parsePattern(String value) {
+        try {
+            return Pattern.compile(value, CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(format("Wrong vehicle pattern: %s", value), e);
+        }
+    }
+
+    /**
+     * Accepts ISO date, local date-time or date-time with offset, a date is the start of the day or the end of the
+     * day for the end of a range
+     */
+    private static ZonedDateTime parseTime(String value, ZoneId zoneId, boolean isRangeEnd) {
+        try {
+            final LocalDate date = LocalDate.parse(value);
+            return (isRangeEnd ? date.plusDays(1) : date).atStartOfDay(zoneId);
+        } catch (DateTimeParseException notDate) {
+            try {
+                return LocalDateTime.parse(value).atZone(zoneId);
+            } catch (DateTimeParseException notLocalDateTime) {
+                try {
+                    return OffsetDateTime.parse(value).toZonedDateTime();
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException(format("Wrong date-time: %s", value), e);
+                }
+            }
+        }
+    }
+
+    private static int parsePositive(String option, String value) {
+        try {
+            final int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(format("Positive number expected for %s: %s", option, value));
+    }
+}
@@ -1,17 +1,27 @@
 package ugcs.ucsHub;
 
 import ugcs.common.helpers.JvmHelper;
+import ugcs.processing.telemetry.frames.TelemetryFrameArchive;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
+import static ugcs.csv.telemetry.TelemetryArchiveSaver.convertArchiveToCsvFile;
 import static ugcs.ucsHub.Settings.settings;
 
 /**
  * Launcher for the main {@link Main} class of application with support of specified JVM arguments
+ * <p>
+ * If the first argument is {@code sync}, {@link HeadlessSync} is run in a child JVM with the same JVM arguments and the
+ * rest of arguments, the launcher exits with its exit code.
+ * If the first argument is {@code to-csv}, the given telemetry archives are converted to csv-files next to them.
  */
 public class Launcher {
     private static final long MAX_HEAP_SIZE_MB = settings().getMaxHeapSize();
@@ -22,18 +32,48 @@ public class Launcher {
             return;
         }
 
-        final Path javaBinPath = JvmHelper.getJavaBinPath();
-        final String jarPath =
-                new File(Launcher.class.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
+        if (args.length > 0 && "sync".equals(args[0])) {
+            final List<String> command = javaCommand();
+            command.add("-cp");
+            command.add(getJarPath());
+            command.add(HeadlessSync.class.getName());
+            command.addAll(Arrays.asList(args).subList(1, args.length));
+            try {
+                System.exit(new ProcessBuilder(command).inheritIO().start().waitFor());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.exit(1);
+            }
+            return;
+        }
+
+        if (args.length > 0 && "to-csv".equals(args[0])) {
+            for (int i = 1; i < args.length; i++) {
+                final Path archivePath = Paths.get(args[i]);
+                final String csvFileName = archivePath.getFileName().toString()
+                        .replaceFirst("\\." + TelemetryFrameArchive.FILE_EXTENSION + "$", "") + ".csv";
+                convertArchiveToCsvFile(archivePath, archivePath.resolveSibling(csvFileName));
+            }
+            return;
+        }
 
-        final String[] cmdArray = {
-                javaBinPath.toString(),
-                format("-Xmx%dm", getMaxHeapSizeMb()),
-                "-jar", jarPath,
-                "ExecutedFromLauncher"
-        };
+        final List<String> command = javaCommand();
+        command.add("-jar");
+        command.add(getJarPath());
+        command.add("ExecutedFromLauncher");
+
+        getRuntime().exec(command.toArray(new String[0]));
+    }
+
+    private static List<String> javaCommand() {
+        final List<String> command = new ArrayList<>();
+        command.add(JvmHelper.getJavaBinPath().toString());
+        command.add(format("-Xmx%dm", getMaxHeapSizeMb()));
+        return command;
+    }
 
-        getRuntime().exec(cmdArray);
+    private static String getJarPath() {
+        return new File(Launcher.class.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
     }
 
     private static long getMaxHeapSizeMb() {
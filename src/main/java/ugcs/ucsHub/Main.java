@@ -1,9 +1,11 @@
 package ugcs.ucsHub;
 
+import ugcs.common.Lazy;
 import ugcs.exceptions.ExpectedException;
 import ugcs.ucsHub.ui.LoginForm;
 import ugcs.ucsHub.ui.VehicleListForm;
 import ugcs.upload.logbook.MultipartUtility;
+import ugcs.upload.service.impl.FileUploadedFlightsStorage;
 
 import javax.swing.*;
 import java.awt.*;
@@ -14,8 +16,14 @@ import static javax.swing.JOptionPane.OK_OPTION;
 import static javax.swing.JOptionPane.PLAIN_MESSAGE;
 import static javax.swing.JOptionPane.showConfirmDialog;
 import static javax.swing.JOptionPane.showMessageDialog;
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.common.MemoryPressureMonitor.memoryMonitor;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
 import static ugcs.exceptions.ExceptionsHandler.handler;
 import static ugcs.net.SessionController.sessionController;
+import static ugcs.processing.flights.FlightDiscoveryScheduler.discoveryScheduler;
+import static ugcs.processing.telemetry.cache.TelemetryCache.telemetryCache;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.tracksIndex;
 import static ugcs.ucsHub.Settings.settings;
 import static ugcs.ucsHub.ui.WaitForm.waitForm;
 import static ugcs.upload.logbook.FlightUploadPerformerFactory.performerFactory;
@@ -25,6 +33,21 @@ import static ugcs.upload.logbook.FlightUploadPerformerFactory.performerFactory;
  */
 public class Main {
     public static void main(String[] args) {
+        performerFactory().updateSettings(settings());
+        FileUploadedFlightsStorage.storage().open(settings().getUploadedFlightsStoragePath());
+        if (settings().getTelemetryCacheMaxSizeBytes() > 0) {
+            telemetryCache().open(settings().getTelemetryCachePath(), settings().getTelemetryCacheMaxSizeBytes());
+        }
+        tracksIndex().open(settings().getTracksIndexPath(), settings().getTracksSettlingWindowMs());
+        discoveryScheduler().updateSettings(settings().getTracksScanBatchSize(), settings().getTracksScanConcurrency());
+        if (settings().getMetricsExportIntervalMs() > 0) {
+            metrics().startPeriodicExport(settings().getMetricsExportPath(), settings().getMetricsExportIntervalMs());
+        }
+        if (settings().getMemoryPressureThreshold() > 0) {
+            memoryMonitor().addPressureListener(Lazy::evictSoftValues);
+            memoryMonitor().start(settings().getMemoryPressureThreshold());
+        }
+
         JFrame frame = new JFrame("Telemetry Sync Tool " + settings().getProductVersion());
 
         final Container contentPane = frame.getContentPane();
@@ -44,8 +67,13 @@ public class Main {
         ));
 
         frame.addWindowListener(new ActionOnCloseWindowAdapter(() -> {
+            getLogger(Main.class).info(sessionController().getStatisticsReport());
             sessionController().close();
             performerFactory().shutDown();
+            FileUploadedFlightsStorage.storage().close();
+            getLogger(Main.class).info(telemetryCache().getStatisticsReport());
+            getLogger(Main.class).info(metrics().getStatisticsReport());
+            metrics().exportOnExit(settings().getMetricsExportPath());
             SwingUtilities.invokeLater(() -> System.exit(0));
         }));
 
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.SneakyThrows;
 import ugcs.common.security.MD5HashCalculator;
 import ugcs.net.SessionSettings;
+import ugcs.upload.logbook.UploadSettings;
 
 import javax.swing.*;
 import java.io.File;
@@ -22,11 +23,21 @@ import static java.lang.String.format;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.isRegularFile;
 import static java.util.Objects.isNull;
+import static ugcs.common.MemoryPressureMonitor.DEFAULT_USAGE_THRESHOLD;
+import static ugcs.net.SessionController.DEFAULT_SESSION_POOL_SIZE;
+import static ugcs.processing.telemetry.FlightTelemetrySegmenter.NO_FLIGHT_SEPARATION;
+import static ugcs.processing.telemetry.tracks.FleetTracksScanner.DEFAULT_BATCH_SIZE;
+import static ugcs.processing.telemetry.tracks.FleetTracksScanner.DEFAULT_CONCURRENCY;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.DEFAULT_SETTLING_WINDOW_MS;
+import static ugcs.upload.logbook.FlightUploadPerformerFactory.DEFAULT_DOWNLOAD_THREADS;
+import static ugcs.upload.logbook.FlightUploadPerformerFactory.DEFAULT_ENCODING_THREADS;
+import static ugcs.upload.logbook.FlightUploadPerformerFactory.DEFAULT_POST_THREADS;
+import static ugcs.upload.logbook.FlightUploadPerformerFactory.DEFAULT_QUEUE_CAPACITY;
 
 /**
  * Settings gateway for the application
  */
-public final class Settings implements SessionSettings {
+public final class Settings implements SessionSettings, UploadSettings {
     private final static String SETTINGS_FILE_NAME = "client.properties";
     private final static String DATA_FOLDER = System.getProperty("user.home") + "/.dronelogbook";
 
@@ -34,6 +45,7 @@ public final class Settings implements SessionSettings {
     private final static String DEFAULT_PORT = "3334";
     private final static String DEFAULT_UCS_LOGIN = "undefined";
     private final static String DEFAULT_UCS_PASSWORD = "";
+    private final static String DEFAULT_UCS_SESSION_POOL_SIZE = String.valueOf(DEFAULT_SESSION_POOL_SIZE);
 
     private final static String DEFAULT_UPLOAD_SERVER_URL = "https://www.dronelogbook.com/webservices/importFlight-ugcs.php";
     private final static String DEFAULT_UPLOAD_SERVER_LOGIN = "";
@@ -41,6 +53,27 @@ public final class Settings implements SessionSettings {
     private final static String DEFAULT_UPLOADED_FILE_FOLDER = "uploaded";
 
     private final static String DEFAULT_TELEMETRY_FOLDER = "telemetry";
+    private final static String DEFAULT_TELEMETRY_FILE_FORMAT = "csv";
+    private final static String DEFAULT_TELEMETRY_CACHE_FOLDER = "cache";
+    private final static String DEFAULT_TELEMETRY_CACHE_MAX_SIZE_MB = "1024";
+    private final static String DEFAULT_TRACKS_INDEX_FOLDER = "tracks";
+    private final static String DEFAULT_TRACKS_SETTLING_WINDOW_MS = String.valueOf(DEFAULT_SETTLING_WINDOW_MS);
+    private final static String DEFAULT_TRACKS_SCAN_BATCH_SIZE = String.valueOf(DEFAULT_BATCH_SIZE);
+    private final static String DEFAULT_TRACKS_SCAN_CONCURRENCY = String.valueOf(DEFAULT_CONCURRENCY);
+
+    private final static String DEFAULT_UPLOAD_DOWNLOAD_THREADS = String.valueOf(DEFAULT_DOWNLOAD_THREADS);
+    private final static String DEFAULT_UPLOAD_ENCODING_THREADS = String.valueOf(DEFAULT_ENCODING_THREADS);
+    private final static String DEFAULT_UPLOAD_POST_THREADS = String.valueOf(DEFAULT_POST_THREADS);
+    private final static String DEFAULT_UPLOAD_QUEUE_CAPACITY = String.valueOf(DEFAULT_QUEUE_CAPACITY);
+
+    private final static String DEFAULT_UPLOAD_STREAMING = "true";
+
+    private final static String DEFAULT_FLIGHT_SEPARATION_THRESHOLD_MS = String.valueOf(NO_FLIGHT_SEPARATION);
+
+    private final static String DEFAULT_METRICS_FILE = "metrics.prom";
+    private final static String DEFAULT_METRICS_EXPORT_INTERVAL_MS = "0";
+
+    private final static String DEFAULT_MEMORY_PRESSURE_THRESHOLD = String.valueOf(DEFAULT_USAGE_THRESHOLD);
 
     private static volatile Settings instance;
 
@@ -59,32 +92,49 @@ public final class Settings implements SessionSettings {
     private final int port;
     private String ucsServerLogin;
     private String ucsServerPassword;
+    private final int ucsSessionPoolSize;
     private final String uploadServerUrl;
     private String uploadServerLogin;
     private String uploadServerPassword;
     private final String uploadedFileFolder;
     private final String telemetryFolder;
+    private final String telemetryFileFormat;
+    private final String telemetryCacheFolder;
+    private final long telemetryCacheMaxSizeMb;
+    private final String tracksIndexFolder;
+    private final long tracksSettlingWindowMs;
+    private final int tracksScanBatchSize;
+    private final int tracksScanConcurrency;
+    private final long flightSeparationThresholdMs;
+    private final int uploadDownloadThreads;
+    private final int uploadEncodingThreads;
+    private final int uploadPostThreads;
+    private final int uploadQueueCapacity;
+    private final boolean uploadStreaming;
+    private final String metricsFile;
+    private final long metricsExportIntervalMs;
+    private final double memoryPressureThreshold;
 
     private final Properties globalSettings;
     private final Properties localSettings;
 
-    @Getter
-    private final ImageIcon logoIcon;
+    @Getter(lazy = true)
+    private final ImageIcon logoIcon = loadImageIcon("/graphics/logo.png");
 
-    @Getter
-    private final ImageIcon errorIcon;
+    @Getter(lazy = true)
+    private final ImageIcon errorIcon = loadImageIcon("/graphics/errorIcon.png");
 
-    @Getter
-    private final ImageIcon warningIcon;
+    @Getter(lazy = true)
+    private final ImageIcon warningIcon = loadImageIcon("/graphics/warningIcon.png");
 
-    @Getter
-    private final ImageIcon successIcon;
+    @Getter(lazy = true)
+    private final ImageIcon successIcon = loadImageIcon("/graphics/successIcon.png");
 
-    @Getter
-    private final ImageIcon questionIcon;
+    @Getter(lazy = true)
+    private final ImageIcon questionIcon = loadImageIcon("/graphics/questionIcon.png");
 
-    @Getter
-    private final ImageIcon loadingIcon;
+    @Getter(lazy = true)
+    private final ImageIcon loadingIcon = loadImageIcon("/graphics/Loading_icon.gif");
 
     private Settings() {
         this.globalSettings = new Properties();
@@ -120,6 +170,7 @@ public final class Settings implements SessionSettings {
         port = Integer.parseInt(getProperty("server.port", DEFAULT_PORT));
         ucsServerLogin = getProperty("server.login", DEFAULT_UCS_LOGIN);
         ucsServerPassword = getProperty("server.password", DEFAULT_UCS_PASSWORD);
+        ucsSessionPoolSize = Integer.parseInt(getProperty("server.session.pool.size", DEFAULT_UCS_SESSION_POOL_SIZE));
 
         uploadServerUrl = getProperty("upload.server.url", DEFAULT_UPLOAD_SERVER_URL);
         uploadServerLogin = getProperty("upload.server.login", DEFAULT_UPLOAD_SERVER_LOGIN);
@@ -127,13 +178,30 @@ public final class Settings implements SessionSettings {
 
         uploadedFileFolder = getProperty("uploaded.file.folder", DEFAULT_UPLOADED_FILE_FOLDER);
         telemetryFolder = getProperty("telemetry.file.folder", DEFAULT_TELEMETRY_FOLDER);
-
-        logoIcon = loadImageIcon("/graphics/logo.png");
-        errorIcon = loadImageIcon("/graphics/errorIcon.png");
-        warningIcon = loadImageIcon("/graphics/warningIcon.png");
-        successIcon = loadImageIcon("/graphics/successIcon.png");
-        questionIcon = loadImageIcon("/graphics/questionIcon.png");
-        loadingIcon = loadImageIcon("/graphics/Loading_icon.gif");
+        telemetryFileFormat = getProperty("telemetry.file.format", DEFAULT_TELEMETRY_FILE_FORMAT);
+        telemetryCacheFolder = getProperty("telemetry.cache.folder", DEFAULT_TELEMETRY_CACHE_FOLDER);
+        telemetryCacheMaxSizeMb = Long.parseLong(
+                getProperty("telemetry.cache.max.size.mb", DEFAULT_TELEMETRY_CACHE_MAX_SIZE_MB));
+        tracksIndexFolder = getProperty("tracks.index.folder", DEFAULT_TRACKS_INDEX_FOLDER);
+        tracksSettlingWindowMs = Long.parseLong(
+                getProperty("tracks.settling.window.ms", DEFAULT_TRACKS_SETTLING_WINDOW_MS));
+        tracksScanBatchSize = Integer.parseInt(getProperty("tracks.scan.batch.size", DEFAULT_TRACKS_SCAN_BATCH_SIZE));
+        tracksScanConcurrency = Integer.parseInt(getProperty("tracks.scan.concurrency", DEFAULT_TRACKS_SCAN_CONCURRENCY));
+        flightSeparationThresholdMs = Long.parseLong(
+                getProperty("flight.separation.threshold.ms", DEFAULT_FLIGHT_SEPARATION_THRESHOLD_MS));
+
+        uploadDownloadThreads = Integer.parseInt(getProperty("upload.download.threads", DEFAULT_UPLOAD_DOWNLOAD_THREADS));
+        uploadEncodingThreads = Integer.parseInt(getProperty("upload.encoding.threads", DEFAULT_UPLOAD_ENCODING_THREADS));
+        uploadPostThreads = Integer.parseInt(getProperty("upload.post.threads", DEFAULT_UPLOAD_POST_THREADS));
+        uploadQueueCapacity = Integer.parseInt(getProperty("upload.queue.capacity", DEFAULT_UPLOAD_QUEUE_CAPACITY));
+        uploadStreaming = Boolean.parseBoolean(getProperty("upload.streaming", DEFAULT_UPLOAD_STREAMING));
+
+        metricsFile = getProperty("metrics.file", DEFAULT_METRICS_FILE);
+        metricsExportIntervalMs =
+                Long.parseLong(getProperty("metrics.export.interval.ms", DEFAULT_METRICS_EXPORT_INTERVAL_MS));
+
+        memoryPressureThreshold =
+                Double.parseDouble(getProperty("memory.pressure.threshold", DEFAULT_MEMORY_PRESSURE_THRESHOLD));
     }
 
     @Override
@@ -156,6 +224,11 @@ public final class Settings implements SessionSettings {
         return ucsServerPassword;
     }
 
+    @Override
+    public int getUcsSessionPoolSize() {
+        return ucsSessionPoolSize;
+    }
+
     public String getUploadServerUrl() {
         return uploadServerUrl;
     }
@@ -209,14 +282,114 @@ public final class Settings implements SessionSettings {
         }
     }
 
+    @Override
+    public int getUploadDownloadThreads() {
+        return uploadDownloadThreads;
+    }
+
+    @Override
+    public int getUploadEncodingThreads() {
+        return uploadEncodingThreads;
+    }
+
+    @Override
+    public int getUploadPostThreads() {
+        return uploadPostThreads;
+    }
+
+    @Override
+    public int getUploadQueueCapacity() {
+        return uploadQueueCapacity;
+    }
+
+    @Override
+    public boolean isUploadStreaming() {
+        return uploadStreaming;
+    }
+
+    /**
+     * @return minimal time gap between telemetry frames of two different flights
+     */
+    public long getFlightSeparationThresholdMs() {
+        return flightSeparationThresholdMs;
+    }
+
     public Path getTelemetryPath() {
         return createFolderIfNotPresent(resolveOnDataFolder(getTelemetryFolder()));
     }
 
+    /**
+     * @return true if telemetry of the flights is saved to the telemetry folder as binary archives instead of csv
+     */
+    public boolean isTelemetryArchiveFormat() {
+        return "archive".equalsIgnoreCase(telemetryFileFormat);
+    }
+
     public Path getUploadedFlightsPath() {
         return createFolderIfNotPresent(resolveOnDataFolder(getUploadedFileFolder()));
     }
 
+    public Path getTelemetryCachePath() {
+        return createFolderIfNotPresent(resolveOnDataFolder(telemetryCacheFolder));
+    }
+
+    /**
+     * @return maximal size of the telemetry cache in bytes, zero if the cache is disabled
+     */
+    public long getTelemetryCacheMaxSizeBytes() {
+        return telemetryCacheMaxSizeMb * 1024 * 1024;
+    }
+
+    public Path getTracksIndexPath() {
+        return createFolderIfNotPresent(resolveOnDataFolder(tracksIndexFolder));
+    }
+
+    /**
+     * @return time after the track end during which the track is considered as possibly still growing
+     */
+    public long getTracksSettlingWindowMs() {
+        return tracksSettlingWindowMs;
+    }
+
+    /**
+     * @return number of vehicles requested in a single tracks request
+     */
+    public int getTracksScanBatchSize() {
+        return tracksScanBatchSize;
+    }
+
+    /**
+     * @return number of tracks requests sent to UgCS server at once
+     */
+    public int getTracksScanConcurrency() {
+        return tracksScanConcurrency;
+    }
+
+    /**
+     * @return file the metrics are exported to in Prometheus text format
+     */
+    public Path getMetricsExportPath() {
+        return resolveOnDataFolder(metricsFile);
+    }
+
+    /**
+     * @return interval of periodic metrics export, zero if metrics are exported only on exit
+     */
+    public long getMetricsExportIntervalMs() {
+        return metricsExportIntervalMs;
+    }
+
+    /**
+     * @return fraction of the heap used after collection at which cached telemetry is evicted, zero to disable
+     */
+    public double getMemoryPressureThreshold() {
+        return memoryPressureThreshold;
+    }
+
+    public Path getUploadedFlightsStoragePath() {
+        return createFolderIfNotPresent(Paths.get(getDataFolder()));
+    }
+
     @SneakyThrows
     String getProductVersion() {
         try (final InputStream in = getClass().getResourceAsStream("/settings/version.properties")) {
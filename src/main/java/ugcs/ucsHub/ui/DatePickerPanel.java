@@ -1,5 +1,6 @@
 package ugcs.ucsHub.ui;
 
+import com.github.lgooddatepicker.components.CalendarPanel;
 import com.github.lgooddatepicker.components.DatePicker;
 import com.github.lgooddatepicker.components.DatePickerSettings;
 
@@ -44,6 +45,12 @@ class DatePickerPanel extends JPanel {
         final DatePickerSettings datePickerSettings = new DatePickerSettings();
         datePickerSettings.setAllowEmptyDates(false);
         datePickerSettings.setHighlightPolicy(datesHighlighter);
+        datesHighlighter.setRepaintAction(() -> {
+            final CalendarPanel calendarPanel = datePickerSettings.getParentCalendarPanel();
+            if (calendarPanel != null) {
+                calendarPanel.drawCalendar();
+            }
+        });
 
         final JPanel datePickerPanel = new JPanel();
         datePicker = new DatePicker(datePickerSettings);
@@ -0,0 +1,108 @@
+package ugcs.ucsHub.ui;
+
+import ugcs.common.metrics.Metric;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static javax.swing.JOptionPane.PLAIN_MESSAGE;
+import static javax.swing.JOptionPane.showMessageDialog;
+import static javax.swing.SwingUtilities.getWindowAncestor;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
+import static ugcs.ucsHub.Settings.settings;
+import static ugcs.ucsHub.ui.WaitForm.waitForm;
+
+/**
+ * Live view of the application metrics with export to the metrics file
+ */
+final class DiagnosticsForm extends JPanel {
+    private static final int REFRESH_INTERVAL_MS = 1000;
+
+    private final MetricsTableModel tableModel = new MetricsTableModel();
+    private final javax.swing.Timer refreshTimer = new javax.swing.Timer(REFRESH_INTERVAL_MS, event -> refresh());
+
+    static void showDiagnostics(Component parentComponent) {
+        final DiagnosticsForm diagnosticsForm = new DiagnosticsForm();
+
+        final JDialog dialog = new JDialog(getWindowAncestor(parentComponent), "Diagnostics");
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        dialog.getContentPane().add(diagnosticsForm);
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                diagnosticsForm.refreshTimer.stop();
+            }
+        });
+        dialog.pack();
+        dialog.setLocationRelativeTo(parentComponent);
+        dialog.setVisible(true);
+
+        diagnosticsForm.refreshTimer.start();
+    }
+
+    private DiagnosticsForm() {
+        super(new BorderLayout());
+
+        final JTable metricsTable = new JTable(tableModel);
+        metricsTable.getColumnModel().getColumn(0).setPreferredWidth(250);
+        metricsTable.getColumnModel().getColumn(1).setPreferredWidth(400);
+        metricsTable.getColumnModel().getColumn(2).setPreferredWidth(350);
+        final JScrollPane scrollPane = new JScrollPane(metricsTable);
+        scrollPane.setPreferredSize(new Dimension(1000, 400));
+        add(BorderLayout.CENTER, scrollPane);
+
+        final JButton exportButton = new JButton("Export");
+        exportButton.addActionListener(event -> export());
+        add(BorderLayout.SOUTH, new JPanel().add(exportButton).getParent());
+
+        refresh();
+    }
+
+    private void refresh() {
+        tableModel.update(metrics().getMetrics());
+    }
+
+    private void export() {
+        waitForm().waitOnAction("Exporting metrics...",
+                () -> metrics().exportToFile(settings().getMetricsExportPath()), this);
+        showMessageDialog(this, "Metrics exported to " + settings().getMetricsExportPath(), "Diagnostics",
+                PLAIN_MESSAGE, settings().getSuccessIcon());
+    }
+
+    private static final class MetricsTableModel extends AbstractTableModel {
+        private static final String[] COLUMN_NAMES = {"Metric", "Value", "Description"};
+
+        private final List<String[]> rows = new ArrayList<>();
+
+        void update(List<Metric> metrics) {
+            rows.clear();
+            metrics.forEach(metric -> rows.add(new String[]{metric.getName(), metric.getSummary(), metric.getHelp()}));
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows.get(rowIndex)[columnIndex];
+        }
+    }
+}
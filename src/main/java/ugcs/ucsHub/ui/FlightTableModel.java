@@ -0,0 +1,236 @@
+package ugcs.ucsHub.ui;
+
+import ugcs.processing.Flight;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toSet;
+import static ugcs.time.TimeUtils.time;
+import static ugcs.ucsHub.ui.util.PresentationUtil.periodToString;
+import static ugcs.upload.service.UploadedFlightsStorage.storage;
+
+/**
+ * Model of {@link FlightTablePanel} formatting only the rows which are displayed
+ * <p>
+ * Display strings are computed by pages of rows on the first access and cached, upload status of all flights is
+ * queried at once. Row order is computed by {@link #arrange(Comparator, boolean)} and applied by
+ * {@link #setRowOrder(int[])}, so sorting and filtering of large lists can be done off the event dispatch thread.
+ * Flights are selected by their index in the flight list, so the selection survives sorting.
+ */
+final class FlightTableModel extends AbstractTableModel {
+    static final String UPLOAD_COLUMN = "Upload";
+
+    private static final int PAGE_SIZE = 256;
+    private static final String[] COLUMN_NAMES = {UPLOAD_COLUMN, "Date", "Start time", "End time", "Duration"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final int DATE_COLUMN = 1;
+    private static final int START_TIME_COLUMN = 2;
+    private static final int END_TIME_COLUMN = 3;
+    private static final int DURATION_COLUMN = 4;
+
+    private final List<? extends Flight> flights;
+    private final String[][] displayStrings;
+    private final BitSet selectedFlights = new BitSet();
+    private volatile BitSet uploadedFlights;
+    private int[] rowToFlight;
+
+    static FlightTableModel emptyModel() {
+        return new FlightTableModel(emptyList(), new BitSet());
+    }
+
+    /**
+     * Queries upload status of all flights, so it should be called off the event dispatch thread for large lists
+     */
+    FlightTableModel(List<? extends Flight> flights) {
+        this(flights, storage().findUploaded(flights));
+    }
+
+    private FlightTableModel(List<? extends Flight> flights, BitSet uploadedFlights) {
+        this.flights = flights;
+        this.displayStrings = new String[flights.size()][];
+        this.uploadedFlights = uploadedFlights;
+        this.rowToFlight = IntStream.range(0, flights.size()).toArray();
+    }
+
+    /**
+     * @return comparator of the flights for sorting by the column, null if the column is not sortable
+     */
+    static Comparator<Flight> columnComparator(int column) {
+        switch (column) {
+            case DATE_COLUMN:
+            case START_TIME_COLUMN:
+                return Comparator.comparingLong(Flight::getStartEpochMilli);
+            case END_TIME_COLUMN:
+                return Comparator.comparingLong(Flight::getEndEpochMilli);
+            case DURATION_COLUMN:
+                return Comparator.comparingLong(flight -> flight.getEndEpochMilli() - flight.getStartEpochMilli());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Computes the row order without changing the model, can be called from any thread
+     *
+     * @param comparator   flight order, null to keep the order of the flight list
+     * @param hideUploaded if true, uploaded flights are not shown
+     * @return flight index for each row
+     */
+    int[] arrange(Comparator<? super Flight> comparator, boolean hideUploaded) {
+        final BitSet uploaded = uploadedFlights;
+        IntStream flightIndexes = IntStream.range(0, flights.size());
+        if (hideUploaded) {
+            flightIndexes = flightIndexes.filter(flightIndex -> !uploaded.get(flightIndex));
+        }
+        if (comparator == null) {
+            return flightIndexes.toArray();
+        }
+        return flightIndexes.boxed()
+                .sorted((first, second) -> comparator.compare(flights.get(first), flights.get(second)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Shows the rows in the order computed by {@link #arrange(Comparator, boolean)}, hidden flights are unselected
+     */
+    void setRowOrder(int[] rowToFlight) {
+        this.rowToFlight = rowToFlight;
+        final BitSet shownFlights = new BitSet(flights.size());
+        for (int flightIndex : rowToFlight) {
+            shownFlights.set(flightIndex);
+        }
+        selectedFlights.and(shownFlights);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Queries upload status of all flights again, can be called from any thread
+     */
+    void reloadUploadStatus() {
+        uploadedFlights = storage().findUploaded(flights);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowToFlight.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return columnIndex == 0;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnIndex == 0 ? Boolean.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        final int flightIndex = rowToFlight[rowIndex];
+        if (columnIndex == 0) {
+            return selectedFlights.get(flightIndex);
+        }
+
+        final String value = getDisplayStrings(rowIndex)[columnIndex - 1];
+        if (columnIndex == DATE_COLUMN && uploadedFlights.get(flightIndex)) {
+            return value + " (uploaded)";
+        }
+        return value;
+    }
+
+    @Override
+    public void setValueAt(Object boolValue, int rowIndex, int columnIndex) {
+        if (boolValue instanceof Boolean) {
+            selectedFlights.set(rowToFlight[rowIndex], (Boolean) boolValue);
+            fireTableDataChanged();
+        }
+    }
+
+    void clearSelection() {
+        selectedFlights.clear();
+        fireTableDataChanged();
+    }
+
+    Set<Flight> getSelectedFlights() {
+        return selectedFlights.stream()
+                .mapToObj(flights::get)
+                .collect(toSet());
+    }
+
+    boolean isAllNotUploadedFlightsSelected() {
+        final BitSet uploaded = uploadedFlights;
+        return getFlightCount() > 0 && IntStream.of(rowToFlight)
+                .filter(flightIndex -> !uploaded.get(flightIndex))
+                .allMatch(selectedFlights::get);
+    }
+
+    int getFlightCount() {
+        return rowToFlight.length;
+    }
+
+    void selectAllNotUploadedFlights() {
+        final BitSet uploaded = uploadedFlights;
+        for (int flightIndex : rowToFlight) {
+            selectedFlights.set(flightIndex, !uploaded.get(flightIndex));
+        }
+        fireTableDataChanged();
+    }
+
+    boolean isUploaded(int rowIndex) {
+        return uploadedFlights.get(rowToFlight[rowIndex]);
+    }
+
+    private String[] getDisplayStrings(int rowIndex) {
+        final String[] rowStrings = displayStrings[rowToFlight[rowIndex]];
+        if (rowStrings != null) {
+            return rowStrings;
+        }
+
+        final int pageStart = rowIndex - rowIndex % PAGE_SIZE;
+        final int pageEnd = Math.min(pageStart + PAGE_SIZE, rowToFlight.length);
+        for (int row = pageStart; row < pageEnd; row++) {
+            final int flightIndex = rowToFlight[row];
+            if (displayStrings[flightIndex] == null) {
+                displayStrings[flightIndex] = formatFlight(flights.get(flightIndex));
+            }
+        }
+        return displayStrings[rowToFlight[rowIndex]];
+    }
+
+    private static String[] formatFlight(Flight flight) {
+        final ZonedDateTime startTime = toZonedDateTime(flight.getStartEpochMilli());
+        return new String[]{
+                DATE_FORMAT.format(startTime),
+                TIME_FORMAT.format(startTime),
+                TIME_FORMAT.format(toZonedDateTime(flight.getEndEpochMilli())),
+                periodToString(flight.getStartDate(), flight.getEndDate())
+        };
+    }
+
+    private static ZonedDateTime toZonedDateTime(long epochMilli) {
+        return Instant.ofEpochMilli(epochMilli).atZone(time().defaultZoneId());
+    }
+}
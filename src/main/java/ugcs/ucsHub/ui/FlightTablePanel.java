@@ -1,43 +1,42 @@
 package ugcs.ucsHub.ui;
 
-import org.apache.commons.lang3.tuple.MutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import ugcs.common.Action;
 import ugcs.exceptions.ugcs.UgcsDisconnectedException;
 import ugcs.processing.Flight;
 
 import javax.swing.*;
 import javax.swing.event.TableModelEvent;
-import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import static java.lang.Boolean.FALSE;
-import static java.util.Collections.emptyList;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 import static javax.swing.JTable.AUTO_RESIZE_ALL_COLUMNS;
 import static javax.swing.SwingUtilities.invokeLater;
 import static ugcs.exceptions.ExceptionsHandler.handler;
 import static ugcs.ucsHub.Settings.settings;
 import static ugcs.ucsHub.ui.RefreshButton.refresher;
-import static ugcs.ucsHub.ui.util.PresentationUtil.periodToString;
-import static ugcs.upload.service.UploadedFlightsStorage.storage;
 
 /**
  * Part of {@link VehicleListForm} representing current list of {@link Flight}s
+ * <p>
+ * The table model is built, sorted and filtered on a background thread and shown on the event dispatch thread, only
+ * the latest requested model is shown. Failures of the background thread go to the uncaught exceptions handler.
  */
 class FlightTablePanel extends JPanel {
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
-    private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm:ss");
-    private final static String[] columnNames = {"Upload", "Date", "Start time", "End time", "Duration"};
+    private static final ExecutorService MODEL_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "flight-table");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private static Color UPLOADED_FLIGHT_COLOR = Color.getHSBColor(0.269f, 0.1f, 1.0f);
 
     private final JTable flightTable = new JTable();
@@ -52,122 +51,10 @@ class FlightTablePanel extends JPanel {
 
     private final JButton refreshButton;
 
-    private static class FlightTableModel extends AbstractTableModel {
-        private final List<MutablePair<? extends Flight, Boolean>> flightsAndSelection;
-
-        FlightTableModel(List<? extends Flight> flights) {
-            this.flightsAndSelection = flights.stream()
-                    .map(flight -> MutablePair.of(flight, FALSE))
-                    .collect(toList());
-        }
-
-        @Override
-        public int getRowCount() {
-            return flightsAndSelection.size();
-        }
-
-        @Override
-        public int getColumnCount() {
-            return columnNames.length;
-        }
-
-        @Override
-        public String getColumnName(int column) {
-            return columnNames[column];
-        }
-
-        @Override
-        public boolean isCellEditable(int rowIndex, int columnIndex) {
-            return columnIndex == 0;
-        }
-
-        @Override
-        public Class<?> getColumnClass(int columnIndex) {
-            return columnIndex == 0 ? Boolean.class : String.class;
-        }
-
-        @Override
-        public Object getValueAt(int rowIndex, int columnIndex) {
-            final Flight flight = getFlight(rowIndex);
-            switch (columnIndex) {
-                case 0:
-                    return flightsAndSelection.get(rowIndex).getRight();
-                case 1:
-                    return formatFlightDate(flight);
-                case 2:
-                    return flightEpochToTimeString(flight.getStartEpochMilli());
-                case 3:
-                    return flightEpochToTimeString(flight.getEndEpochMilli());
-                case 4:
-                    return formatFlightDuration(flight);
-            }
-            return null;
-        }
-
-        @Override
-        public void setValueAt(Object boolValue, int rowIndex, int columnIndex) {
-            if (boolValue instanceof Boolean) {
-                flightsAndSelection.get(rowIndex).setValue((Boolean) boolValue);
-                fireTableDataChanged();
-            }
-        }
-
-        private void clearSelection() {
-            flightsAndSelection.forEach(pair -> pair.setValue(false));
-            fireTableDataChanged();
-        }
-
-        Set<Flight> getSelectedFlights() {
-            return flightsAndSelection.stream()
-                    .filter(Pair::getRight)
-                    .map(Pair::getLeft)
-                    .collect(toSet());
-        }
-
-        boolean isAllNotUploadedFlightsSelected() {
-            return getFlightCount() > 0 && flightsAndSelection.stream()
-                    .filter(pair -> !storage().isUploaded(pair.getLeft()))
-                    .allMatch(Pair::getRight);
-        }
-
-        int getFlightCount() {
-            return flightsAndSelection.size();
-        }
-
-        void selectAllNotUploadedFlights() {
-            flightsAndSelection.forEach(pair -> pair.setValue(!storage().isUploaded(pair.getLeft())));
-            fireTableDataChanged();
-        }
-
-        private String flightEpochToTimeString(long epochMilli) {
-            return formatEpoch(epochMilli, TIME_FORMAT);
-        }
-
-        private String flightEpochToDateString(long epochMilli) {
-            return formatEpoch(epochMilli, DATE_FORMAT);
-        }
-
-        private static String formatEpoch(long epochMilli, DateFormat format) {
-            return format.format(new Date(epochMilli));
-        }
-
-        private Flight getFlight(int rowIndex) {
-            return flightsAndSelection.get(rowIndex).getLeft();
-        }
-
-        private static String formatFlightDuration(Flight flight) {
-            return periodToString(flight.getStartDate(), flight.getEndDate());
-        }
-
-        private String formatFlightDate(Flight flight) {
-            final String dateString = flightEpochToDateString(flight.getStartEpochMilli());
-            if (!storage().isUploaded(flight)) {
-                return dateString;
-            }
-
-            return dateString + " (uploaded)";
-        }
-    }
+    private int modelVersion = 0;
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
+    private boolean hideUploadedFlights = false;
 
     FlightTablePanel() {
         super(new BorderLayout());
@@ -177,6 +64,12 @@ class FlightTablePanel extends JPanel {
         flightTablePane.setVisible(true);
 
         flightTable.setDefaultRenderer(Object.class, createTableCellRenderer());
+        flightTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                sortByColumn(flightTable.convertColumnIndexToModel(flightTable.columnAtPoint(e.getPoint())));
+            }
+        });
 
         refreshButton = refresher().createButton();
         refreshButton.addActionListener(e -> updateMessageOnlyView("Updating flight's table..."));
@@ -194,18 +87,60 @@ class FlightTablePanel extends JPanel {
         updateMessageOnlyView("Select vehicle...");
     }
 
+    /**
+     * Builds the model of the flights in background, so the table is updated after the method returns
+     */
     void updateModel(List<? extends Flight> flights) {
         if (flights.isEmpty()) {
             updateMessageOnlyView("No flights found for the selected options...");
-        } else {
-            flightTable.setModel(new FlightTableModel(flights));
-            flightTablePane.setVisible(true);
-            messageLabelPane.setVisible(false);
-            flightTable.getModel().addTableModelListener(this::tableChanged);
-            flightTable.setAutoResizeMode(AUTO_RESIZE_ALL_COLUMNS);
-            flightTable.getColumn("Upload").setMaxWidth(70);
+            notifyAll(tableChangeListeners);
+            return;
         }
-        notifyAll(tableChangeListeners);
+
+        final int version = ++modelVersion;
+        final Comparator<Flight> comparator = getSortComparator();
+        final boolean hideUploaded = hideUploadedFlights;
+        MODEL_EXECUTOR.execute(() -> {
+            final FlightTableModel model = new FlightTableModel(flights);
+            final int[] rowOrder = model.arrange(comparator, hideUploaded);
+            invokeLater(() -> {
+                if (version == modelVersion) {
+                    model.setRowOrder(rowOrder);
+                    showModel(model);
+                }
+            });
+        });
+    }
+
+    /**
+     * Queries upload status of the shown flights again, e.g. after some of them are uploaded
+     */
+    void refreshUploadStatus() {
+        final FlightTableModel model = getTableModel();
+        final Comparator<Flight> comparator = getSortComparator();
+        final boolean hideUploaded = hideUploadedFlights;
+        MODEL_EXECUTOR.execute(() -> {
+            model.reloadUploadStatus();
+            final int[] rowOrder = model.arrange(comparator, hideUploaded);
+            invokeLater(() -> applyRowOrder(model, rowOrder));
+        });
+    }
+
+    void showLoadingMessage() {
+        updateMessageOnlyView("Loading flights...");
+    }
+
+    void showLoadingError(Throwable error) {
+        updateExceptionView(error);
+    }
+
+    JCheckBox createHideUploadedCheckBox() {
+        final JCheckBox hideUploadedCheckBox = new JCheckBox("Hide uploaded");
+        hideUploadedCheckBox.addActionListener(e -> {
+            hideUploadedFlights = hideUploadedCheckBox.isSelected();
+            rearrangeRows();
+        });
+        return hideUploadedCheckBox;
     }
 
     JToggleButton createSelectAllButton() {
@@ -237,6 +172,50 @@ class FlightTablePanel extends JPanel {
         return selectAllBtn;
     }
 
+    private void showModel(FlightTableModel model) {
+        flightTable.setModel(model);
+        flightTablePane.setVisible(true);
+        messageLabelPane.setVisible(false);
+        model.addTableModelListener(this::tableChanged);
+        flightTable.setAutoResizeMode(AUTO_RESIZE_ALL_COLUMNS);
+        flightTable.getColumn(FlightTableModel.UPLOAD_COLUMN).setMaxWidth(70);
+        notifyAll(tableChangeListeners);
+    }
+
+    private void sortByColumn(int column) {
+        if (column < 0 || FlightTableModel.columnComparator(column) == null) {
+            return;
+        }
+
+        sortAscending = column != sortColumn || !sortAscending;
+        sortColumn = column;
+        rearrangeRows();
+    }
+
+    private void rearrangeRows() {
+        final FlightTableModel model = getTableModel();
+        final Comparator<Flight> comparator = getSortComparator();
+        final boolean hideUploaded = hideUploadedFlights;
+        MODEL_EXECUTOR.execute(() -> {
+            final int[] rowOrder = model.arrange(comparator, hideUploaded);
+            invokeLater(() -> applyRowOrder(model, rowOrder));
+        });
+    }
+
+    private void applyRowOrder(FlightTableModel model, int[] rowOrder) {
+        if (flightTable.getModel() == model) {
+            model.setRowOrder(rowOrder);
+        }
+    }
+
+    private Comparator<Flight> getSortComparator() {
+        final Comparator<Flight> comparator = FlightTableModel.columnComparator(sortColumn);
+        if (comparator == null || sortAscending) {
+            return comparator;
+        }
+        return comparator.reversed();
+    }
+
     private void updateExceptionView(Throwable ex) {
         errorIconLabel.setVisible(true);
         refreshButton.setVisible(true);
@@ -253,13 +232,14 @@ class FlightTablePanel extends JPanel {
         messageLabel.setText(messageText);
         flightTablePane.setVisible(false);
         messageLabelPane.setVisible(true);
-        flightTable.setModel(new FlightTableModel(emptyList()));
+        ++modelVersion;
+        flightTable.setModel(FlightTableModel.emptyModel());
     }
 
     private FlightTableModel getTableModel() {
         return flightTable.getModel() instanceof FlightTableModel
                 ? ((FlightTableModel) flightTable.getModel())
-                : new FlightTableModel(emptyList());
+                : FlightTableModel.emptyModel();
     }
 
     void addTableChangeAction(Action action) {
@@ -285,8 +265,7 @@ class FlightTablePanel extends JPanel {
                 }
 
                 final FlightTableModel model = (FlightTableModel) (table.getModel());
-                final Flight flight = model.getFlight(row);
-                if (storage().isUploaded(flight) && !isSelected) {
+                if (model.isUploaded(row) && !isSelected) {
                     setBackground(UPLOADED_FLIGHT_COLOR);
                 } else {
                     if (isSelected) {
@@ -3,79 +3,81 @@ package ugcs.ucsHub.ui;
 import com.github.lgooddatepicker.optionalusertools.DateHighlightPolicy;
 import com.github.lgooddatepicker.zinternaltools.HighlightInformation;
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
-import ugcs.processing.Flight;
-import ugcs.processing.flights.FlightListProcessor;
-import ugcs.processing.telemetry.tracks.VehicleTracksProcessor;
+import ugcs.processing.flights.FlightDaysCalendar;
 
 import java.time.LocalDate;
-import java.time.ZonedDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.LongStream;
+import java.time.YearMonth;
 
 import static java.awt.Color.BLACK;
 import static java.awt.Color.PINK;
 import static java.awt.Color.WHITE;
-import static java.time.Duration.between;
-import static java.util.Collections.emptyMap;
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toMap;
+import static javax.swing.SwingUtilities.invokeLater;
 import static ugcs.time.TimeUtils.time;
 
 /**
  * {@link DateHighlightPolicy} highlighting dates containing telemetry data
+ * <p>
+ * Dates of a month not loaded yet are shown as normal, the month and its adjacent months are loaded in background
+ * and the calendar is repainted when the month is loaded.
  */
 public class TelemetryDatesHighlighter implements DateHighlightPolicy {
+    private static final int PREFETCHED_ADJACENT_MONTHS = 1;
+
     private static HighlightInformation NORMAL = new HighlightInformation(WHITE);
     private static HighlightInformation HIGHLIGHTED = new HighlightInformation(PINK, BLACK);
 
-    private Map<LocalDate, HighlightInformation> dateToHighlightInfo = emptyMap();
-    private Vehicle currentVehicle = null;
+    private final FlightDaysCalendar flightDaysCalendar = new FlightDaysCalendar();
+    private volatile Vehicle currentVehicle = null;
+    private volatile Runnable repaintAction = () -> {
+    };
+
+    public TelemetryDatesHighlighter() {
+        flightDaysCalendar.addLoadListener((vehicle, month) -> {
+            final Vehicle displayedVehicle = currentVehicle;
+            if (displayedVehicle != null && displayedVehicle.getSerialNumber().equals(vehicle.getSerialNumber())) {
+                repaint();
+            }
+        });
+    }
 
     @Override
     public HighlightInformation getHighlightInformationOrNull(LocalDate date) {
-        if (dateToHighlightInfo.containsKey(date)) {
-            return dateToHighlightInfo.get(date);
+        final Vehicle vehicle = currentVehicle;
+        if (vehicle == null) {
+            return NORMAL;
         }
-        return updateHighlightInformationAndGet(date);
+
+        return flightDaysCalendar.hasFlights(vehicle, date)
+                .map(hasFlights -> hasFlights ? HIGHLIGHTED : NORMAL)
+                .orElseGet(() -> {
+                    final YearMonth month = YearMonth.from(date);
+                    flightDaysCalendar.load(vehicle, month);
+                    flightDaysCalendar.prefetch(vehicle, month, PREFETCHED_ADJACENT_MONTHS);
+                    return NORMAL;
+                });
     }
 
     void setCurrentVehicle(Vehicle currentVehicle) {
         this.currentVehicle = currentVehicle;
-        invalidateHighlightInformation();
-    }
-
-    private HighlightInformation updateHighlightInformationAndGet(LocalDate date) {
-        return getCurrentVehicle().map(vehicle -> {
-            final ZonedDateTime startDate = date.withDayOfMonth(1).atStartOfDay(time().defaultZoneId());
-            final ZonedDateTime endDate = startDate.plusMonths(1);
-
-            final List<? extends Flight> vehicleTracks =
-                    new VehicleTracksProcessor(startDate, endDate, vehicle).getVehicleTracks();
-
-            final FlightListProcessor flightListProcessor = new FlightListProcessor(vehicleTracks);
-
-            final Map<LocalDate, HighlightInformation> highlightMapping = LongStream
-                    .range(0, between(startDate, endDate).toDays())
-                    .mapToObj(i -> startDate.toLocalDate().plusDays(i))
-                    .collect(toMap(d -> d, d -> flightListProcessor.hasFlights(d) ? HIGHLIGHTED : NORMAL));
-
-            setHighlightInformation(highlightMapping);
-
-            return highlightMapping.get(date);
-        }).orElse(NORMAL);
+        repaint();
     }
 
-    private Optional<Vehicle> getCurrentVehicle() {
-        return ofNullable(currentVehicle);
+    /**
+     * Reloads the current and later months, so flights made since they were loaded are highlighted
+     */
+    void refresh() {
+        flightDaysCalendar.invalidateFrom(YearMonth.now(time().defaultZoneId()));
+        repaint();
     }
 
-    private void invalidateHighlightInformation() {
-        dateToHighlightInfo = emptyMap();
+    /**
+     * @param repaintAction action redrawing the calendar, called on the event dispatch thread
+     */
+    void setRepaintAction(Runnable repaintAction) {
+        this.repaintAction = repaintAction;
     }
 
-    private void setHighlightInformation(Map<LocalDate, HighlightInformation> highlightMapping) {
-        this.dateToHighlightInfo = highlightMapping;
+    private void repaint() {
+        invokeLater(repaintAction);
     }
 }
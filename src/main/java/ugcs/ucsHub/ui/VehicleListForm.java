@@ -1,29 +1,25 @@
 package ugcs.ucsHub.ui;
 
 import com.ugcs.ucs.proto.DomainProto.Vehicle;
-import lombok.SneakyThrows;
 import ugcs.common.identity.Identity;
 import ugcs.common.operation.Operation;
-import ugcs.exceptions.logic.NoFlightTelemetryFoundException;
 import ugcs.processing.Flight;
-import ugcs.processing.telemetry.CsvFileNameGenerator;
-import ugcs.processing.telemetry.FlightTelemetry;
-import ugcs.processing.telemetry.FlightTelemetryProcessor;
-import ugcs.processing.telemetry.tracks.VehicleTracksProcessor;
+import ugcs.processing.flights.FlightDiscoveryScheduler.Query;
+import ugcs.ucsHub.FlightUploadSubmitter;
 import ugcs.upload.logbook.DroneLogbookResponse;
-import ugcs.upload.logbook.LogbookUploader;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.nio.file.Path;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static java.text.MessageFormat.format;
 import static java.util.stream.Collectors.toList;
@@ -38,16 +34,17 @@ import static javax.swing.JSplitPane.HORIZONTAL_SPLIT;
 import static javax.swing.ListSelectionModel.SINGLE_SELECTION;
 import static javax.swing.SwingUtilities.invokeLater;
 import static org.slf4j.LoggerFactory.getLogger;
-import static ugcs.csv.telemetry.TelemetryDataSaver.saveTelemetryDataToCsvFile;
 import static ugcs.net.SessionController.sessionController;
-import static ugcs.processing.telemetry.FlightTelemetry.withId;
-import static ugcs.ucsHub.Settings.settings;
+import static ugcs.processing.flights.FlightDiscoveryScheduler.discoveryScheduler;
 import static ugcs.ucsHub.ui.RefreshButton.refresher;
 import static ugcs.ucsHub.ui.WaitWithProgressBarForm.waitWithProgressBarForm;
 import static ugcs.upload.logbook.FlightUploadPerformerFactory.performerFactory;
 
 /**
  * Form containing controls for flight list representation and uploading
+ * <p>
+ * Flights of all vehicles are discovered in background by the {@link ugcs.processing.flights.FlightDiscoveryScheduler},
+ * so the event dispatch thread never waits for the server and switching between discovered vehicles is instant.
  */
 public class VehicleListForm extends JPanel {
     private Map<String, Vehicle> vehicleMap;
@@ -60,10 +57,14 @@ public class VehicleListForm extends JPanel {
 
     private final JButton logoutButton = new JButton("Logout");
 
+    private int displayedRequest = 0;
+
     public VehicleListForm() {
         super(new BorderLayout());
 
         vehicleJList = new JList<>();
+        vehicleJList.setCellRenderer(createVehicleCellRenderer());
+        discoveryScheduler().addDiscoveryListener((vehicle, flights) -> invokeLater(vehicleJList::repaint));
         reloadVehicles();
         final JPanel leftPanel = new JPanel(new BorderLayout());
         leftPanel.setBorder(BorderFactory.createBevelBorder(0));
@@ -102,6 +103,10 @@ public class VehicleListForm extends JPanel {
         topPanel.setLayout(new BoxLayout(topPanel, X_AXIS));
         topPanel.add(logoutButton);
         topPanel.add(createGlue());
+        final JButton diagnosticsButton = new JButton("Diagnostics");
+        diagnosticsButton.addActionListener(event -> DiagnosticsForm.showDiagnostics(this));
+        topPanel.add(diagnosticsButton);
+        topPanel.add(flightTable.createHideUploadedCheckBox());
         topPanel.add(flightTable.createSelectAllButton());
         topPanel.setBorder(createCompoundBorder(createEtchedBorder(), createEmptyBorder(3, 3, 3, 3)));
 
@@ -114,11 +119,12 @@ public class VehicleListForm extends JPanel {
 
         vehicleJList.addListSelectionListener(event -> {
             if (!event.getValueIsAdjusting()) {
-                invokeLater(this::refreshView);
+                invokeLater(this::showSelectedVehicleFlights);
             }
         });
         datePicker.addDateChangeListener(() -> invokeLater(this::refreshView));
         refresher().addRefreshListener(this::refreshView);
+        refresher().addRefreshListener(datesHighlighter::refresh);
     }
 
     public void addLogoutButtonActionListener(ActionListener listener) {
@@ -126,17 +132,44 @@ public class VehicleListForm extends JPanel {
     }
 
     private void refreshView() {
-        getSelectedVehicle().ifPresent(vehicle -> {
-            updateFlightsTable(getSelectedStartTime(), getSelectedEndTime(), getSelectedTracksLimit(), vehicle);
-            datesHighlighter.setCurrentVehicle(vehicle);
+        discoverFleet();
+        showSelectedVehicleFlights();
+    }
+
+    /**
+     * Starts discovery of all vehicles for the selected dates, the selected vehicle first
+     */
+    private void discoverFleet() {
+        final List<Vehicle> vehicles = new ArrayList<>(vehicleMap.values());
+        getSelectedVehicle().ifPresent(selectedVehicle -> {
+            vehicles.remove(selectedVehicle);
+            vehicles.add(0, selectedVehicle);
         });
+        discoveryScheduler().discoverFleet(vehicles,
+                new Query(getSelectedStartTime(), getSelectedEndTime(), getSelectedTracksLimit()));
     }
 
-    @SneakyThrows
-    private void updateFlightsTable(ZonedDateTime startTime, ZonedDateTime endTime, int tracksLimit, Vehicle vehicle) {
-        final List<? extends Flight> flights =
-                new VehicleTracksProcessor(startTime, endTime, tracksLimit, vehicle).getVehicleTracks();
-        flightTable.updateModel(flights);
+    private void showSelectedVehicleFlights() {
+        final int request = ++displayedRequest;
+        getSelectedVehicle().ifPresent(vehicle -> {
+            datesHighlighter.setCurrentVehicle(vehicle);
+            final CompletableFuture<List<? extends Flight>> flights = discoveryScheduler().discover(vehicle);
+            if (!flights.isDone()) {
+                flightTable.showLoadingMessage();
+            }
+            flights.whenComplete((vehicleFlights, error) -> invokeLater(() -> {
+                if (request != displayedRequest) {
+                    return;
+                }
+                if (error != null) {
+                    final Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    getLogger(VehicleListForm.class).warn("Flights of the vehicle are not discovered", cause);
+                    flightTable.showLoadingError(cause);
+                    return;
+                }
+                flightTable.updateModel(vehicleFlights);
+            }));
+        });
     }
 
     private Optional<Vehicle> getSelectedVehicle() {
@@ -147,6 +180,24 @@ public class VehicleListForm extends JPanel {
         vehicleMap = sessionController().getVehicles().stream()
                 .collect(toMap(this::getDisplayableName, v -> v));
         vehicleJList.setListData(vehicleMap.keySet().toArray(new String[0]));
+        discoverFleet();
+    }
+
+    /**
+     * Renders vehicles with the number of their discovered flights
+     */
+    private ListCellRenderer<Object> createVehicleCellRenderer() {
+        return new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                final Object displayedValue = Optional.ofNullable(vehicleMap.get(value))
+                        .flatMap(discoveryScheduler()::getDiscoveredFlights)
+                        .<Object>map(flights -> format("{0} ({1})", value, flights.size()))
+                        .orElse(value);
+                return super.getListCellRendererComponent(list, displayedValue, index, isSelected, cellHasFocus);
+            }
+        };
     }
 
     private String getDisplayableName(Vehicle vehicle) {
@@ -172,55 +223,20 @@ public class VehicleListForm extends JPanel {
         return datePicker.getSelectedFlightsLimit();
     }
 
-    private DroneLogbookResponse uploadFlightTelemetry(FlightTelemetry flightTelemetry) {
-        final String url = settings().getUploadServerUrl();
-        final Path pathForUploadedFiles = settings().getUploadedFlightsPath();
-        return new LogbookUploader(url, settings().getUploadServerLogin(), settings().getUploadServerPassword())
-                .uploadFlight(flightTelemetry)
-                .storeFlightTelemetry(new CsvFileNameGenerator(pathForUploadedFiles, flightTelemetry).generateUnique())
-                .getDroneLogbookResponse();
-    }
-
-    private static void saveTelemetry(FlightTelemetryProcessor flightTelemetryProcessor, Flight flight) {
-        final Path telemetryFilePath =
-                new CsvFileNameGenerator(settings().getTelemetryPath(), flight).generateUnique();
-        saveTelemetryDataToCsvFile(telemetryFilePath,
-                flightTelemetryProcessor.getProcessedTelemetry(),
-                flightTelemetryProcessor.getAllFieldCodes());
-    }
-
-    private Future<Operation<Identity<?>, DroneLogbookResponse>> submitFlightForUploading(Flight flight) {
-        return performerFactory().getUploadPerformer().submit(flight.getId(), () -> {
-            final FlightTelemetryProcessor flightTelemetryProcessor = new FlightTelemetryProcessor(flight);
-
-            saveTelemetry(flightTelemetryProcessor, flight);
-
-            final List<FlightTelemetry> flightTelemetries = flightTelemetryProcessor.getFlightTelemetries();
-            if (flightTelemetries.isEmpty()) {
-                throw new NoFlightTelemetryFoundException(flight);
-            }
-            if (flightTelemetries.size() > 1) {
-                getLogger(getClass()).warn("Multiple flights telemetry found, only first flight will be uploaded");
-            }
-
-            FlightTelemetry flightForUpload = withId(flightTelemetries.get(0), flight.getId());
-            return uploadFlightTelemetry(flightForUpload);
-        });
-    }
-
     private void uploadCurrentlySelectedFlights() {
         final Set<? extends Flight> selectedFlights = flightTable.getSelectedFlights();
 
-        final List<Future<Operation<Identity<?>, DroneLogbookResponse>>> uploadOperationFutures = selectedFlights.stream()
-                .map(this::submitFlightForUploading)
-                .collect(toList());
+        final List<CompletableFuture<Operation<Identity<?>, DroneLogbookResponse>>> uploadOperationFutures =
+                selectedFlights.stream()
+                        .map(FlightUploadSubmitter::submitFlightForUploading)
+                        .collect(toList());
 
         final List<Operation<Identity<?>, DroneLogbookResponse>> uploadResults = waitWithProgressBarForm()
                 .withMessageTemplate(" {0} of {1} flights uploaded to DroneLogbook ")
                 .withCancelMessage("Do you want to cancel uploading?")
                 .waitOnFutures(uploadOperationFutures, this, performerFactory().getUploadPerformer());
 
-        flightTable.repaint();
+        flightTable.refreshUploadStatus();
 
         UploadReportForm.showReport(this, uploadResults);
     }
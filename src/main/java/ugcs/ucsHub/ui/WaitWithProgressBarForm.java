@@ -1,6 +1,5 @@
 package ugcs.ucsHub.ui;
 
-import lombok.SneakyThrows;
 import ugcs.common.operation.FutureWrapper;
 import ugcs.common.operation.OperationPerformer;
 import ugcs.ucsHub.ActionOnCloseWindowAdapter;
@@ -10,9 +9,7 @@ import javax.swing.plaf.basic.BasicProgressBarUI;
 import java.awt.*;
 import java.awt.event.WindowListener;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.awt.Color.decode;
@@ -31,7 +28,7 @@ import static ugcs.ucsHub.Settings.settings;
 public class WaitWithProgressBarForm extends JDialog {
 
     private static String DEFAULT_MESSAGE_TEMPLATE = "{0} of {1} completed";
-    private static String DEFAULT_CANCEL_MESSAGE = "Do you want to cancel all waiting operations?";
+    private static String DEFAULT_CANCEL_MESSAGE = "Do you want to cancel all operations?";
     private static Color PROGRESS_COLOR = decode("0x74BD44");
 
     private final JProgressBar progressBar;
@@ -105,18 +102,18 @@ public class WaitWithProgressBarForm extends JDialog {
         return this;
     }
 
-    @SneakyThrows
-    public <T> List<T> waitOnFutures(List<Future<T>> futures, Component parentOrNull, OperationPerformer operationPerformer) {
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    /**
+     * Progress is updated on completion of each future, so the form is closed as soon as the last one is completed
+     */
+    public <T> List<T> waitOnFutures(List<CompletableFuture<T>> futures, Component parentOrNull,
+                                     OperationPerformer<?, ?> operationPerformer) {
         totalCount = futures.size();
         progressCounter.set(0);
         progressBar.setMaximum(totalCount);
         progressBar.setMinimum(0);
 
-        ActionOnCloseWindowAdapter actionOnCloseButtonClick = null;
-
         try {
-            actionOnCloseButtonClick = new ActionOnCloseWindowAdapter(() -> {
+            addWindowListener(new ActionOnCloseWindowAdapter(() -> {
                 final int dialogResult = showConfirmDialog(WaitWithProgressBarForm.this, cancelMessage, "Cancel",
                         OK_CANCEL_OPTION, PLAIN_MESSAGE, settings().getQuestionIcon()
                 );
@@ -124,30 +121,23 @@ public class WaitWithProgressBarForm extends JDialog {
                 if (dialogResult == OK_OPTION) {
                     removeAllCloseActionListeners();
                     updateTitle("Cancelling...", Font.BOLD);
-                    operationPerformer.cancelAllWaitingOperations();
-                }
-            });
-            addWindowListener(actionOnCloseButtonClick);
-
-            final Future<List<T>> resultFuture = executorService.submit(() -> {
-                try {
-                    updateProgress(0, parentOrNull);
-                    return futures.stream()
-                            .map(FutureWrapper::of)
-                            .map(FutureWrapper::get)
-                            .peek(result -> updateProgress(1, parentOrNull))
-                            .collect(toList());
-                } finally {
-                    SwingUtilities.invokeLater(this::dispose);
+                    operationPerformer.cancelAll();
                 }
-            });
+            }));
+
+            updateProgress(0, parentOrNull);
+            futures.forEach(future -> future.whenComplete((result, error) -> updateProgress(1, parentOrNull)));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .whenComplete((result, error) -> SwingUtilities.invokeLater(this::dispose));
 
             updateTitle("Please wait...", Font.PLAIN);
             setVisible(true);
-            return resultFuture.get();
+            return futures.stream()
+                    .map(FutureWrapper::of)
+                    .map(FutureWrapper::get)
+                    .collect(toList());
         } finally {
             removeAllCloseActionListeners();
-            executorService.shutdown();
         }
     }
 
@@ -1,15 +1,20 @@
 package ugcs.upload.logbook;
 
-import ugcs.common.LazyFieldEvaluator;
+import ugcs.common.Lazy;
 import ugcs.common.identity.Identity;
 import ugcs.common.operation.OperationPerformer;
 
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 
 /**
  * Factory for {@link OperationPerformer} for flight upload operations
  */
-public class FlightUploadPerformerFactory extends LazyFieldEvaluator {
+public class FlightUploadPerformerFactory {
+    public static final int DEFAULT_DOWNLOAD_THREADS = 4;
+    public static final int DEFAULT_ENCODING_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_POST_THREADS = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
     private static volatile FlightUploadPerformerFactory instance;
 
     public static FlightUploadPerformerFactory performerFactory() {
@@ -23,16 +28,46 @@ public class FlightUploadPerformerFactory extends LazyFieldEvaluator {
         return instance;
     }
 
+    private volatile int downloadThreads = DEFAULT_DOWNLOAD_THREADS;
+    private volatile int encodingThreads = DEFAULT_ENCODING_THREADS;
+    private volatile int postThreads = DEFAULT_POST_THREADS;
+    private volatile int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private volatile boolean streaming = true;
+
+    private final Lazy<FlightUploadPipeline> uploadPipeline = Lazy.of(this::createUploadPipeline);
+
     private FlightUploadPerformerFactory() {
     }
 
+    /**
+     * Settings take effect only if updated before the first {@link #getUploadPipeline()} call
+     */
+    public void updateSettings(UploadSettings settings) {
+        this.downloadThreads = settings.getUploadDownloadThreads();
+        this.encodingThreads = settings.getUploadEncodingThreads();
+        this.postThreads = settings.getUploadPostThreads();
+        this.queueCapacity = settings.getUploadQueueCapacity();
+        this.streaming = settings.isUploadStreaming();
+    }
+
+    public FlightUploadPipeline getUploadPipeline() {
+        return uploadPipeline.get();
+    }
+
     public OperationPerformer<Identity<?>, DroneLogbookResponse> getUploadPerformer() {
-        return evaluateField("uploadPerformer", () ->
-                new OperationPerformer<>(newSingleThreadExecutor())
-        );
+        return getUploadPipeline().getUploadPerformer();
     }
 
     public void shutDown() {
-        getUploadPerformer().shutDown();
+        getUploadPipeline().shutDown();
+    }
+
+    private FlightUploadPipeline createUploadPipeline() {
+        return new FlightUploadPipeline(
+                new OperationPerformer<>("upload_operations", newFixedThreadPool(downloadThreads)),
+                newFixedThreadPool(encodingThreads),
+                newFixedThreadPool(postThreads),
+                queueCapacity,
+                streaming);
     }
 }
@@ -0,0 +1,105 @@
+package ugcs.upload.logbook;
+
+import ugcs.common.identity.Identity;
+import ugcs.common.operation.InterruptibleFuture;
+import ugcs.common.operation.Operation;
+import ugcs.common.operation.OperationPerformer;
+import ugcs.processing.telemetry.FlightTelemetry;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import static ugcs.common.operation.InterruptibleFuture.supplyInterruptibly;
+
+/**
+ * Staged flight upload: telemetry download, CSV encoding and DroneLogbook POST are performed by separate pools
+ * <p>
+ * Download stage runs on the {@link OperationPerformer} threads, so every flight upload is tracked and cancelled by
+ * its {@link Identity}. The number of flights downloaded but not yet uploaded is bounded by the queue capacity,
+ * download threads are blocked until the later stages catch up. Queued flights keep telemetry of the fields
+ * required by {@link LogbookUploader} only. Encoding and POST stages are {@link InterruptibleFuture}s, so cancelling
+ * the upload operation interrupts them too.
+ */
+public class FlightUploadPipeline {
+    private final OperationPerformer<Identity<?>, DroneLogbookResponse> uploadPerformer;
+    private final ExecutorService encodingExecutor;
+    private final ExecutorService postExecutor;
+    private final Semaphore queuedFlights;
+    private final boolean streaming;
+
+    /**
+     * @param streaming if true, flight is encoded straight into the request body on the POST stage,
+     *                  otherwise it is encoded to a temporary file on the encoding stage first
+     */
+    FlightUploadPipeline(OperationPerformer<Identity<?>, DroneLogbookResponse> uploadPerformer,
+                         ExecutorService encodingExecutor, ExecutorService postExecutor, int queueCapacity,
+                         boolean streaming) {
+        this.uploadPerformer = uploadPerformer;
+        this.encodingExecutor = encodingExecutor;
+        this.postExecutor = postExecutor;
+        this.queuedFlights = new Semaphore(queueCapacity);
+        this.streaming = streaming;
+    }
+
+    /**
+     * @param flightId                 identity of the upload operation
+     * @param priority                 flights of greater priority are downloaded first
+     * @param telemetryDownloader      download stage, acquires telemetry of the flight to upload
+     * @param uploader                 uploader performing encoding and POST stages
+     * @param uploadedFilePathResolver path to store uploaded flight file at
+     */
+    public CompletableFuture<Operation<Identity<?>, DroneLogbookResponse>> submit(
+            Identity<?> flightId,
+            long priority,
+            Callable<FlightTelemetry> telemetryDownloader,
+            LogbookUploader uploader,
+            Function<FlightTelemetry, Path> uploadedFilePathResolver) {
+        return uploadPerformer.submitStaged(flightId, priority, () -> {
+            queuedFlights.acquire();
+            try {
+                final FlightTelemetry flight =
+                        telemetryDownloader.call().project(LogbookUploader.getRequiredFieldCodes());
+
+                final Path uploadedFilePath = uploadedFilePathResolver.apply(flight);
+                final CompletableFuture<DroneLogbookResponse> uploadStages = streaming
+                        ? streamingUploadStages(flight, uploader, uploadedFilePath)
+                        : encodeAndUploadStages(flight, uploader, uploadedFilePath);
+                uploadStages.whenComplete((response, error) -> queuedFlights.release());
+                return uploadStages;
+            } catch (Exception e) {
+                queuedFlights.release();
+                throw e;
+            }
+        });
+    }
+
+    private CompletableFuture<DroneLogbookResponse> streamingUploadStages(FlightTelemetry flight,
+                                                                          LogbookUploader uploader,
+                                                                          Path uploadedFilePath) {
+        return supplyInterruptibly(() -> uploader.streamFlight(flight, uploadedFilePath).getDroneLogbookResponse(),
+                postExecutor);
+    }
+
+    private CompletableFuture<DroneLogbookResponse> encodeAndUploadStages(FlightTelemetry flight,
+                                                                          LogbookUploader uploader,
+                                                                          Path uploadedFilePath) {
+        return supplyInterruptibly(() -> uploader.encodeFlight(flight), encodingExecutor)
+                .thenApplyInterruptibly(csvFile -> uploader.uploadFlight(flight, csvFile)
+                        .storeFlightTelemetry(uploadedFilePath)
+                        .getDroneLogbookResponse(), postExecutor);
+    }
+
+    public OperationPerformer<Identity<?>, DroneLogbookResponse> getUploadPerformer() {
+        return uploadPerformer;
+    }
+
+    void shutDown() {
+        uploadPerformer.shutDown();
+        encodingExecutor.shutdown();
+        postExecutor.shutdown();
+    }
+}
@@ -4,12 +4,17 @@ import lombok.SneakyThrows;
 import ugcs.csv.telemetry.TelemetryCsvWriter;
 import ugcs.processing.telemetry.FlightTelemetry;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static java.util.Collections.unmodifiableList;
 import static ugcs.csv.telemetry.TelemetryCsvWriter.CSV_FILE_CHARSET;
 import static ugcs.upload.service.UploadedFlightsStorage.storage;
 
@@ -18,7 +23,6 @@ import static ugcs.upload.service.UploadedFlightsStorage.storage;
  */
 public class LogbookUploader {
     private static final List<String> FIELD_CODES = Arrays.asList(
-            "Time",
             "latitude",
             "longitude",
             "altitude_agl",
@@ -26,6 +30,7 @@ public class LogbookUploader {
             "main_voltage",
             "main_current"
     );
+    private static final List<String> CSV_COLUMN_NAMES = csvColumnNames();
 
     private final String serverUrl;
     private final String login;
@@ -37,17 +42,50 @@ public class LogbookUploader {
         this.rawPasswordOrMd5Hash = rawPasswordOrMd5Hash;
     }
 
-    @SneakyThrows
+    private static List<String> csvColumnNames() {
+        final List<String> columnNames = new ArrayList<>();
+        columnNames.add("Time");
+        columnNames.addAll(FIELD_CODES);
+        return unmodifiableList(columnNames);
+    }
+
+    /**
+     * @return codes of the telemetry fields uploaded to DroneLogbook, telemetry of other fields isn't needed
+     */
+    public static List<String> getRequiredFieldCodes() {
+        return unmodifiableList(FIELD_CODES);
+    }
+
     public FlightUploadResponse uploadFlight(FlightTelemetry flight) {
+        return uploadFlight(flight, encodeFlight(flight));
+    }
+
+    /**
+     * Writes flight telemetry to a temporary CSV file in the format expected by DroneLogbook
+     */
+    @SneakyThrows
+    public File encodeFlight(FlightTelemetry flight) {
         final File csvFile = File.createTempFile(flight.getVehicle().getName(), "");
         try (final OutputStream out = new FileOutputStream(csvFile)) {
-            final TelemetryCsvWriter telemetryWriter = new TelemetryCsvWriter(FIELD_CODES, out);
-            telemetryWriter.printHeader();
-            flight.getTelemetry().forEach(timeAndTelemetry ->
-                    telemetryWriter.printTelemetryRecord(timeAndTelemetry.getLeft(), timeAndTelemetry.getRight())
-            );
+            writeFlightCsv(flight, out);
         }
+        return csvFile;
+    }
 
+    /**
+     * Writes flight telemetry as CSV in the format expected by DroneLogbook, the stream is flushed but not closed
+     */
+    public static void writeFlightCsv(FlightTelemetry flight, OutputStream out) {
+        final TelemetryCsvWriter telemetryWriter = new TelemetryCsvWriter(CSV_COLUMN_NAMES, out);
+        telemetryWriter.printHeader();
+        telemetryWriter.printTelemetryRecords(flight.getTelemetry(FIELD_CODES));
+        telemetryWriter.flush();
+    }
+
+    /**
+     * Uploads flight telemetry previously encoded by {@link #encodeFlight(FlightTelemetry)}
+     */
+    public FlightUploadResponse uploadFlight(FlightTelemetry flight, File csvFile) {
         final DroneLogbookResponse droneLogbookResponse = new MultipartUtility(serverUrl, CSV_FILE_CHARSET.displayName())
                 .withCredentials(login, rawPasswordOrMd5Hash)
                 .addFormField("droneId", flight.getDroneSerialNumber())
@@ -61,4 +99,32 @@ public class LogbookUploader {
 
         return new FlightUploadResponse(flight, csvFile, droneLogbookResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * Encodes flight telemetry straight into the chunked request body, the same bytes are written to the archive file
+     * <p>
+     * No temporary file is created, the archive file is removed if the upload fails.
+     */
+    @SneakyThrows
+    public FlightUploadResponse streamFlight(FlightTelemetry flight, Path archivePath) {
+        try (final OutputStream archive = new BufferedOutputStream(Files.newOutputStream(archivePath))) {
+            final DroneLogbookResponse droneLogbookResponse =
+                    new MultipartUtility(serverUrl, CSV_FILE_CHARSET.displayName(), true)
+                            .withCredentials(login, rawPasswordOrMd5Hash)
+                            .addFormField("droneId", flight.getDroneSerialNumber())
+                            .addFormField("droneName", flight.getDroneName())
+                            .addFilePart("data", archivePath.getFileName().toString(),
+                                    out -> writeFlightCsv(flight, new TeeOutputStream(out, archive)))
+                            .performRequest();
+
+            if (droneLogbookResponse.isUploadSucceed() || droneLogbookResponse.isFlightDuplicated()) {
+                storage().storeAsUploaded(flight);
+            }
+
+            return new FlightUploadResponse(flight, archivePath.toFile(), droneLogbookResponse);
+        } catch (Throwable uploadFailure) {
+            Files.deleteIfExists(archivePath);
+            throw uploadFailure;
+        }
+    }
+}
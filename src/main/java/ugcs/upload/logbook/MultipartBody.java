@@ -0,0 +1,111 @@
+package ugcs.upload.logbook;
+
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.URLConnection;
+
+/**
+ * Writer of multipart/form-data body parts to the given {@link OutputStream}
+ */
+public class MultipartBody {
+    private static final String LINE_FEED = "\r\n";
+
+    private final String boundary;
+    private final String charset;
+    private final OutputStream outputStream;
+    private final PrintWriter writer;
+
+    /**
+     * Writer of a file part content
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    public MultipartBody(OutputStream outputStream, String charset, String boundary)
+            throws UnsupportedEncodingException {
+        this.outputStream = outputStream;
+        this.charset = charset;
+        this.boundary = boundary;
+        this.writer = new PrintWriter(new OutputStreamWriter(outputStream, charset), true);
+    }
+
+    public String getBoundary() {
+        return boundary;
+    }
+
+    public MultipartBody addFormField(String name, String value) {
+        writer.append("--").append(boundary).append(LINE_FEED);
+        writer.append("Content-Disposition: form-data; name=\"").append(name).append("\"").append(LINE_FEED);
+        writer.append("Content-Type: text/plain; charset=").append(charset).append(LINE_FEED);
+        writer.append(LINE_FEED);
+        writer.append(value).append(LINE_FEED);
+        writer.flush();
+
+        return this;
+    }
+
+    /**
+     * Adds file part which content is written directly to the body by the given content writer
+     */
+    @SneakyThrows
+    public MultipartBody addFilePart(String fieldName, String fileName, ContentWriter contentWriter) {
+        writer.append("--").append(boundary).append(LINE_FEED);
+        writer.append("Content-Disposition: form-data; name=\"").append(fieldName).append("\"; filename=\"")
+                .append(fileName).append("\"").append(LINE_FEED);
+        writer.append("Content-Type: ").append(URLConnection.guessContentTypeFromName(fileName)).append(LINE_FEED);
+        writer.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
+        writer.append(LINE_FEED);
+        writer.flush();
+
+        contentWriter.writeTo(outputStream);
+        outputStream.flush();
+
+        writer.append(LINE_FEED);
+        writer.flush();
+
+        return this;
+    }
+
+    /**
+     * Adds empty file part, sufficient for the server to check credentials only
+     */
+    public MultipartBody addAuthorizationTestPart() {
+        writer.append("--").append(boundary).append(LINE_FEED);
+        writer.append("Content-Disposition: form-data; name=\"").append("file").append("\"; filename=\"")
+                .append("login_try").append("\"").append(LINE_FEED);
+        writer.append("Content-Type: ").append("UTF-8").append(LINE_FEED);
+        writer.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
+        writer.append(LINE_FEED);
+        writer.flush();
+
+        writer.append(LINE_FEED);
+        writer.flush();
+
+        return this;
+    }
+
+    public void addHeaderField(String name, String value) {
+        writer.append(name).append(": ").append(value).append(LINE_FEED);
+        writer.flush();
+    }
+
+    /**
+     * Writes the closing boundary and closes the underlying stream
+     */
+    public void finish() {
+        writer.append(LINE_FEED).flush();
+        writer.append("--").append(boundary).append("--").append(LINE_FEED);
+        writer.close();
+    }
+
+    void close() {
+        writer.close();
+    }
+}
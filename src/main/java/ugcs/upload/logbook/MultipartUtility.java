@@ -1,6 +1,8 @@
 package ugcs.upload.logbook;
 
 import lombok.SneakyThrows;
+import ugcs.common.metrics.Counter;
+import ugcs.common.metrics.Timer;
 import ugcs.common.security.MD5HashCalculator;
 import ugcs.exceptions.ExpectedException;
 import ugcs.exceptions.logbook.LogbookAuthorizationFailed;
@@ -8,38 +10,50 @@ import ugcs.exceptions.logbook.LogbookAuthorizationFailed;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.List;
 
 import static java.net.HttpURLConnection.HTTP_OK;
 import static java.net.HttpURLConnection.HTTP_UNAUTHORIZED;
+import static org.slf4j.LoggerFactory.getLogger;
+import static ugcs.common.metrics.MetricsRegistry.metrics;
 
 /**
  * Builder for multipart data http-request
  */
 public class MultipartUtility {
-    private final String boundary;
-    private static final String LINE_FEED = "\r\n";
+    private static final int STREAMING_CHUNK_SIZE = 64 * 1024;
+
+    private static final Timer RESPONSE_TIMER = metrics().timer("logbook_response_duration_seconds",
+            "Time from the end of the request body to the DroneLogbook response");
+    private static final Counter REQUEST_BYTES =
+            metrics().counter("logbook_request_bytes_total", "Bytes of request bodies sent to DroneLogbook");
+    private static final Counter FAILED_REQUESTS =
+            metrics().counter("logbook_requests_failed_total", "DroneLogbook requests failed");
+
     private HttpURLConnection httpConn;
-    private String charset;
-    private OutputStream outputStream;
-    private PrintWriter writer;
+    private MultipartBody body;
     private boolean isAuthorisationTest = false;
 
-    @SneakyThrows
     public MultipartUtility(String requestURL, String charset) {
-        this.charset = charset;
+        this(requestURL, charset, false);
+    }
 
-        boundary = "===" + System.currentTimeMillis() + "===";
+    /**
+     * @param chunkedStreaming if true, request body is sent with chunked transfer encoding while it is being written,
+     *                         otherwise the whole body is buffered in memory to calculate its length
+     */
+    @SneakyThrows
+    public MultipartUtility(String requestURL, String charset, boolean chunkedStreaming) {
+        final String boundary = "===" + System.currentTimeMillis() + "===";
 
         URL url = new URL(requestURL);
         httpConn = (HttpURLConnection) url.openConnection();
@@ -51,9 +65,10 @@ public class MultipartUtility {
                 "multipart/form-data; boundary=" + boundary);
         httpConn.setRequestProperty("User-Agent", "CodeJava Agent");
         httpConn.setRequestProperty("DEBUG", "UGCS");
-        outputStream = httpConn.getOutputStream();
-        writer = new PrintWriter(new OutputStreamWriter(outputStream, charset),
-                true);
+        if (chunkedStreaming) {
+            httpConn.setChunkedStreamingMode(STREAMING_CHUNK_SIZE);
+        }
+        body = new MultipartBody(new CountingOutputStream(httpConn.getOutputStream()), charset, boundary);
     }
 
     public MultipartUtility(String requestUrl) {
@@ -61,38 +76,28 @@ public class MultipartUtility {
     }
 
     public MultipartUtility addFormField(String name, String value) {
-        writer.append("--").append(boundary).append(LINE_FEED);
-        writer.append("Content-Disposition: form-data; name=\"").append(name).append("\"").append(LINE_FEED);
-        writer.append("Content-Type: text/plain; charset=").append(charset).append(LINE_FEED);
-        writer.append(LINE_FEED);
-        writer.append(value).append(LINE_FEED);
-        writer.flush();
+        body.addFormField(name, value);
 
         return this;
     }
 
-    @SneakyThrows
     public MultipartUtility addFilePart(String fieldName, File uploadFile) {
-        String fileName = uploadFile.getName();
-        writer.append("--").append(boundary).append(LINE_FEED);
-        writer.append("Content-Disposition: form-data; name=\"").append(fieldName).append("\"; filename=\"")
-                .append(fileName).append("\"").append(LINE_FEED);
-        writer.append("Content-Type: ").append(URLConnection.guessContentTypeFromName(fileName)).append(LINE_FEED);
-        writer.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
-        writer.append(LINE_FEED);
-        writer.flush();
-
-        FileInputStream inputStream = new FileInputStream(uploadFile);
-        byte[] buffer = new byte[4096];
-        int bytesRead;
-        while ((bytesRead = inputStream.read(buffer)) != -1) {
-            outputStream.write(buffer, 0, bytesRead);
-        }
-        outputStream.flush();
-        inputStream.close();
+        return addFilePart(fieldName, uploadFile.getName(), out -> {
+            try (InputStream inputStream = new FileInputStream(uploadFile)) {
+                byte[] buffer = new byte[4096];
+                int bytesRead;
+                while ((bytesRead = inputStream.read(buffer)) != -1) {
+                    out.write(buffer, 0, bytesRead);
+                }
+            }
+        });
+    }
 
-        writer.append(LINE_FEED);
-        writer.flush();
+    /**
+     * Adds file part which content is written directly to the request body by the given content writer
+     */
+    public MultipartUtility addFilePart(String fieldName, String fileName, MultipartBody.ContentWriter contentWriter) {
+        body.addFilePart(fieldName, fileName, contentWriter);
 
         return this;
     }
@@ -105,25 +110,14 @@ public class MultipartUtility {
     }
 
     public MultipartUtility authorizationTestOnly() {
-        writer.append("--").append(boundary).append(LINE_FEED);
-        writer.append("Content-Disposition: form-data; name=\"").append("file").append("\"; filename=\"")
-                .append("login_try").append("\"").append(LINE_FEED);
-        writer.append("Content-Type: ").append("UTF-8").append(LINE_FEED);
-        writer.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
-        writer.append(LINE_FEED);
-        writer.flush();
-
-        writer.append(LINE_FEED);
-        writer.flush();
-
+        body.addAuthorizationTestPart();
         isAuthorisationTest = true;
 
         return this;
     }
 
     public void addHeaderField(String name, String value) {
-        writer.append(name).append(": ").append(value).append(LINE_FEED);
-        writer.flush();
+        body.addHeaderField(name, value);
     }
 
     public DroneLogbookResponse performRequest() {
@@ -131,13 +125,12 @@ public class MultipartUtility {
     }
 
     private List<String> perform() {
+        final Timer.Sample sample = RESPONSE_TIMER.start();
         try {
-            writer.append(LINE_FEED).flush();
-            writer.append("--").append(boundary).append("--").append(LINE_FEED);
-            writer.close();
+            body.finish();
 
             int status = httpConn.getResponseCode();
-            System.out.println(String.valueOf(status));
+            getLogger(MultipartUtility.class).debug("Logbook response status: {}", status);
             switch (status) {
                 case HTTP_OK:
                     return readAllStrings(httpConn.getInputStream());
@@ -150,10 +143,44 @@ public class MultipartUtility {
                     throw new ExpectedException("Uploading data to DroneLogbook failed.");
             }
         } catch (IOException connectException) {
+            FAILED_REQUESTS.increment();
             throw new ExpectedException("DroneLogbook service unavailable.", connectException);
+        } catch (RuntimeException e) {
+            FAILED_REQUESTS.increment();
+            throw e;
         } finally {
+            sample.close();
             httpConn.disconnect();
-            writer.close();
+            body.close();
+        }
+    }
+
+    /**
+     * Request body stream counting the sent bytes, the request is aborted once the sending thread is interrupted
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkNotInterrupted();
+            out.write(b);
+            REQUEST_BYTES.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkNotInterrupted();
+            out.write(b, off, len);
+            REQUEST_BYTES.add(len);
+        }
+
+        private static void checkNotInterrupted() throws InterruptedIOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Request to DroneLogbook is cancelled");
+            }
         }
     }
 
@@ -0,0 +1,16 @@
+package ugcs.upload.logbook;
+
+/**
+ * Interface for {@link FlightUploadPipeline} concurrency settings
+ */
+public interface UploadSettings {
+    int getUploadDownloadThreads();
+
+    int getUploadEncodingThreads();
+
+    int getUploadPostThreads();
+
+    int getUploadQueueCapacity();
+
+    boolean isUploadStreaming();
+}
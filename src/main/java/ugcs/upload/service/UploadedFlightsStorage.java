@@ -1,7 +1,10 @@
 package ugcs.upload.service;
 
 import ugcs.processing.Flight;
-import ugcs.upload.service.impl.InMemoryUploadedFlightsStorage;
+import ugcs.upload.service.impl.FileUploadedFlightsStorage;
+
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * Service storing information about uploaded flights.
@@ -11,9 +14,22 @@ public interface UploadedFlightsStorage {
 
     boolean isUploaded(Flight flight);
 
+    /**
+     * @return indexes of the uploaded flights in the list
+     */
+    default BitSet findUploaded(List<? extends Flight> flights) {
+        final BitSet uploadedFlights = new BitSet(flights.size());
+        for (int i = 0; i < flights.size(); i++) {
+            if (isUploaded(flights.get(i))) {
+                uploadedFlights.set(i);
+            }
+        }
+        return uploadedFlights;
+    }
+
     void removeFromUploaded(Flight flight);
 
     static UploadedFlightsStorage storage() {
-        return InMemoryUploadedFlightsStorage.storage();
+        return FileUploadedFlightsStorage.storage();
     }
 }
@@ -0,0 +1,247 @@
+package ugcs.upload.service.impl;
+
+import lombok.SneakyThrows;
+import ugcs.processing.Flight;
+import ugcs.upload.service.UploadedFlightsStorage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Service storing information about uploaded flights in the file system (information survives process restart).
+ * <p>
+ * Flight identities are kept in memory for lookups. Changes are appended to the log file and synced to disk one by
+ * one, the log is periodically compacted into the index file, which is replaced atomically. Until
+ * {@link #open(Path)} is called the storage works in memory only.
+ */
+public class FileUploadedFlightsStorage implements UploadedFlightsStorage, Closeable {
+    private static final Charset STORAGE_CHARSET = StandardCharsets.UTF_8;
+    private static final String INDEX_FILE_NAME = "uploaded-flights.idx";
+    private static final String LOG_FILE_NAME = "uploaded-flights.log";
+    private static final int COMPACTION_THRESHOLD = 10_000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private static final char ADDED = '+';
+    private static final char REMOVED = '-';
+
+    private final Set<String> uploadedFlights = ConcurrentHashMap.newKeySet();
+
+    private Path indexPath;
+    private Path logPath;
+    private FileChannel log;
+    private int logSize;
+
+    private static volatile FileUploadedFlightsStorage instance;
+
+    public static FileUploadedFlightsStorage storage() {
+        if (instance == null) {
+            synchronized (FileUploadedFlightsStorage.class) {
+                if (instance == null) {
+                    instance = new FileUploadedFlightsStorage();
+                }
+            }
+        }
+        return instance;
+    }
+
+    FileUploadedFlightsStorage() {
+    }
+
+    /**
+     * Loads the storage from the given folder, all further changes are persisted there
+     */
+    @SneakyThrows
+    public synchronized void open(Path storageFolder) {
+        close();
+        uploadedFlights.clear();
+
+        Files.createDirectories(storageFolder);
+        indexPath = storageFolder.resolve(INDEX_FILE_NAME);
+        logPath = storageFolder.resolve(LOG_FILE_NAME);
+
+        if (Files.isRegularFile(indexPath)) {
+            try (BufferedReader reader = Files.newBufferedReader(indexPath, STORAGE_CHARSET)) {
+                readLines(reader, line -> uploadedFlights.add(unescape(line)));
+            }
+        }
+
+        logSize = 0;
+        final boolean logPresent = Files.isRegularFile(logPath) && Files.size(logPath) > 0;
+        if (logPresent) {
+            try (BufferedReader reader = Files.newBufferedReader(logPath, STORAGE_CHARSET)) {
+                readLines(reader, this::replayLogRecord);
+            }
+        }
+
+        if (logPresent) {
+            compact();
+        } else {
+            log = FileChannel.open(logPath, CREATE, WRITE, APPEND);
+        }
+    }
+
+    @Override
+    public synchronized void storeAsUploaded(Flight flight) {
+        final String flightId = flightId(flight);
+        if (uploadedFlights.add(flightId)) {
+            appendToLog(ADDED, flightId);
+        }
+    }
+
+    @Override
+    public boolean isUploaded(Flight flight) {
+        return uploadedFlights.contains(flightId(flight));
+    }
+
+    @Override
+    public synchronized void removeFromUploaded(Flight flight) {
+        final String flightId = flightId(flight);
+        if (uploadedFlights.remove(flightId)) {
+            appendToLog(REMOVED, flightId);
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    public synchronized void close() {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    @SneakyThrows
+    private synchronized void appendToLog(char operation, String flightId) {
+        if (log == null) {
+            return;
+        }
+
+        final ByteBuffer record = STORAGE_CHARSET.encode(operation + escape(flightId) + '\n');
+        while (record.hasRemaining()) {
+            log.write(record);
+        }
+        log.force(false);
+
+        if (++logSize >= COMPACTION_THRESHOLD) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes current state to the temporary index file, replaces the index with it and truncates the log
+     * <p>
+     * If the process stops in between, the log is replayed over the new index on the next start, which is idempotent.
+     */
+    private void compact() throws IOException {
+        close();
+
+        final Path tempIndexPath = indexPath.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempIndexPath, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            final Writer writer = new BufferedWriter(Channels.newWriter(channel, STORAGE_CHARSET.newEncoder(), -1),
+                    READ_BUFFER_SIZE);
+            for (String flightId : uploadedFlights) {
+                writer.write(escape(flightId));
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(tempIndexPath, indexPath, ATOMIC_MOVE, REPLACE_EXISTING);
+
+        log = FileChannel.open(logPath, CREATE, WRITE, TRUNCATE_EXISTING);
+        log.force(true);
+        logSize = 0;
+    }
+
+    private void replayLogRecord(String record) {
+        if (record.isEmpty()) {
+            return;
+        }
+
+        final String flightId = unescape(record.substring(1));
+        switch (record.charAt(0)) {
+            case ADDED:
+                uploadedFlights.add(flightId);
+                break;
+            case REMOVED:
+                uploadedFlights.remove(flightId);
+                break;
+            default:
+                getLogger(getClass()).warn("Corrupted uploaded flights log record skipped: {}", record);
+                return;
+        }
+        ++logSize;
+    }
+
+    /**
+     * Reads complete lines only, an unterminated last line is a torn write and is skipped
+     */
+    private static void readLines(Reader reader, Consumer<String> lineConsumer) throws IOException {
+        final char[] buffer = new char[READ_BUFFER_SIZE];
+        final StringBuilder line = new StringBuilder();
+        int read;
+        while ((read = reader.read(buffer)) >= 0) {
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    line.append(buffer, lineStart, i - lineStart);
+                    lineConsumer.accept(line.toString());
+                    line.setLength(0);
+                    lineStart = i + 1;
+                }
+            }
+            line.append(buffer, lineStart, read - lineStart);
+        }
+    }
+
+    private static String flightId(Flight flight) {
+        return String.valueOf(flight.getId().getId());
+    }
+
+    private static String escape(String flightId) {
+        if (flightId.indexOf('\\') < 0 && flightId.indexOf('\n') < 0) {
+            return flightId;
+        }
+        return flightId.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String unescape(String escapedFlightId) {
+        if (escapedFlightId.indexOf('\\') < 0) {
+            return escapedFlightId;
+        }
+
+        final StringBuilder flightId = new StringBuilder(escapedFlightId.length());
+        for (int i = 0; i < escapedFlightId.length(); i++) {
+            final char c = escapedFlightId.charAt(i);
+            if (c == '\\' && i + 1 < escapedFlightId.length()) {
+                final char escaped = escapedFlightId.charAt(++i);
+                flightId.append(escaped == 'n' ? '\n' : escaped);
+            } else {
+                flightId.append(c);
+            }
+        }
+        return flightId.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package ugcs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncCacheTest {
+    private final List<List<String>> requestedKeys = new ArrayList<>();
+    private final List<String> loadedKeys = new ArrayList<>();
+
+    @Test
+    void testKeysAreLoadedOnceByBatches() {
+        final AsyncCache<String, Integer> cache = new AsyncCache<>(Runnable::run);
+        cache.addLoadListener((key, value) -> loadedKeys.add(key));
+
+        cache.loadAll(asList("a", "bb"), this::lengths);
+        final Map<String, ?> values = cache.loadAll(asList("bb", "ccc"), this::lengths);
+        cache.load("a", () -> 0);
+
+        assertThat(requestedKeys).containsExactly(asList("a", "bb"), asList("ccc"));
+        assertThat(loadedKeys).containsExactly("a", "bb", "ccc");
+        assertThat(values).containsOnlyKeys("bb", "ccc");
+        assertThat(cache.getLoaded("ccc")).contains(3);
+        assertThat(cache.getLoaded("dddd")).isEmpty();
+
+        cache.invalidateIf(key -> key.length() > 1);
+
+        assertThat(cache.getLoaded("a")).contains(1);
+        assertThat(cache.getLoaded("bb")).isEmpty();
+    }
+
+    @Test
+    void testFailedKeysAreLoadedAgain() {
+        final AtomicBoolean serverAvailable = new AtomicBoolean(false);
+        final AsyncCache<String, Integer> cache = new AsyncCache<>(Runnable::run);
+
+        assertThat(cache.load("a", () -> {
+            if (!serverAvailable.get()) {
+                throw new IllegalStateException("server unavailable");
+            }
+            return 1;
+        }).isCompletedExceptionally()).isTrue();
+        assertThat(cache.loadAll(asList("b"), keys -> emptyMap()).get("b").isCompletedExceptionally()).isTrue();
+        assertThat(cache.getLoaded("a")).isEmpty();
+
+        serverAvailable.set(true);
+
+        assertThat(cache.load("a", () -> 1).join()).isEqualTo(1);
+        assertThat(cache.loadAll(asList("b"), this::lengths).get("b").join()).isEqualTo(1);
+    }
+
+    private Map<String, Integer> lengths(List<String> keys) {
+        requestedKeys.add(keys);
+        final Map<String, Integer> lengths = new HashMap<>();
+        keys.forEach(key -> lengths.put(key, key.length()));
+        return lengths;
+    }
+}
@@ -0,0 +1,87 @@
+package ugcs.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void testValueIsEvaluatedOnceByConcurrentCalls() throws Exception {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final Lazy<String> lazy = Lazy.of(() -> "value" + evaluations.incrementAndGet());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return lazy.get();
+                }, executor));
+            }
+            startLatch.countDown();
+
+            for (CompletableFuture<String> result : results) {
+                assertThat(result.get()).isEqualTo("value1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(evaluations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testNestedEvaluationOfOtherSlot() {
+        final Lazy<List<Integer>> rows = Lazy.soft(() -> {
+            final List<Integer> list = new ArrayList<>();
+            list.add(1);
+            list.add(2);
+            return list;
+        });
+        final Lazy<Integer> rowCount = Lazy.of(() -> rows.get().size());
+        final Lazy<Object> nothing = Lazy.of(() -> null);
+
+        assertThat(rowCount.get()).isEqualTo(2);
+        assertThat(rows.get()).isSameAs(rows.get());
+        assertThat(nothing.get()).isNull();
+    }
+
+    @Test
+    void testRecursiveEvaluationFails() {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Lazy<Integer>> self = new ArrayList<>();
+        self.add(Lazy.of(() -> calls.incrementAndGet() == 1 ? self.get(0).get() : calls.get()));
+
+        assertThatThrownBy(() -> self.get(0).get()).isInstanceOf(IllegalStateException.class);
+        assertThat(self.get(0).get()).isEqualTo(2);
+    }
+
+    @Test
+    void testEvictedSoftValueIsEvaluatedAgain() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final Lazy<String> lazy = Lazy.soft(() -> "value" + evaluations.incrementAndGet());
+
+        assertThat(lazy.get()).isEqualTo("value1");
+        assertThat(lazy.get()).isEqualTo("value1");
+
+        Lazy.evictSoftValues();
+
+        assertThat(lazy.get()).isEqualTo("value2");
+    }
+}
@@ -0,0 +1,56 @@
+package ugcs.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void testHistogramPercentilesAreWithinBucketPrecision() {
+        final Histogram histogram = registry.histogram("latency", "Latency");
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertTrue(Math.abs(histogram.getPercentile(0.5) - 500) <= 500 / 8);
+        assertTrue(Math.abs(histogram.getPercentile(0.99) - 990) <= 990 / 8);
+        assertEquals(1, histogram.getPercentile(0.0));
+    }
+
+    @Test
+    void testPrometheusTextFormat() {
+        registry.counter("records_total", "Records written").add(42);
+        registry.gauge("queue_depth", "Waiting operations", () -> 3);
+        registry.histogram("batch_size", "Records in batch").record(12);
+
+        assertThat(registry.toPrometheusText()).isEqualTo(
+                "# HELP batch_size Records in batch\n"
+                        + "# TYPE batch_size summary\n"
+                        + "batch_size{quantile=\"0.5\"} 12.0\n"
+                        + "batch_size{quantile=\"0.9\"} 12.0\n"
+                        + "batch_size{quantile=\"0.99\"} 12.0\n"
+                        + "batch_size_sum 12.0\n"
+                        + "batch_size_count 1\n"
+                        + "# HELP queue_depth Waiting operations\n"
+                        + "# TYPE queue_depth gauge\n"
+                        + "queue_depth 3\n"
+                        + "# HELP records_total Records written\n"
+                        + "# TYPE records_total counter\n"
+                        + "records_total 42\n");
+    }
+
+    @Test
+    void testMetricNameIsBoundToSingleType() {
+        final Counter counter = registry.counter("requests", "Requests");
+
+        assertThat(registry.counter("requests", "Requests")).isSameAs(counter);
+        assertThrows(IllegalStateException.class, () -> registry.timer("requests", "Requests"));
+    }
+}
@@ -0,0 +1,149 @@
+package ugcs.common.operation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ugcs.common.identity.Identity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationPerformerTest {
+    private final ExecutorService nextStageExecutor = newSingleThreadExecutor();
+    private final OperationPerformer<Identity<?>, String> performer = new OperationPerformer<>(newSingleThreadExecutor());
+
+    @AfterEach
+    void shutDown() {
+        performer.shutDown();
+        nextStageExecutor.shutdown();
+    }
+
+    @Test
+    void testStagedOperationPerformed() throws Exception {
+        final Operation<Identity<?>, String> operation = performer.submitStaged(Identity.of("id"), () -> {
+            final String downloaded = "telemetry";
+            return supplyAsync(() -> downloaded + " uploaded", nextStageExecutor);
+        }).get();
+
+        assertEquals(State.PERFORMED, operation.getState());
+        assertThat(operation.getResult()).contains("telemetry uploaded");
+    }
+
+    @Test
+    void testStagedOperationFaultKeepsOriginalError() throws Exception {
+        final IllegalStateException error = new IllegalStateException("upload failed");
+        final Operation<Identity<?>, String> operation = performer.submitStaged(Identity.of("id"), () ->
+                supplyAsync(() -> {
+                    throw error;
+                }, nextStageExecutor)
+        ).get();
+
+        assertEquals(State.FAULT, operation.getState());
+        assertThat(operation.getError()).contains(error);
+    }
+
+    @Test
+    void testWaitingOperationsStartedByPriority() throws Exception {
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> startOrder = new CopyOnWriteArrayList<>();
+        performer.submit(Identity.of("blocking"), () -> {
+            firstStarted.countDown();
+            release.await();
+            return "blocking";
+        });
+        firstStarted.await();
+
+        final CompletableFuture<Operation<Identity<?>, String>> oldFlight = performer.submit(Identity.of("old"), 1L,
+                () -> record(startOrder, "old"));
+        final CompletableFuture<Operation<Identity<?>, String>> recentFlight = performer.submit(Identity.of("recent"),
+                2L, () -> record(startOrder, "recent"));
+        release.countDown();
+
+        assertEquals(State.PERFORMED, oldFlight.get().getState());
+        assertEquals(State.PERFORMED, recentFlight.get().getState());
+        assertThat(startOrder).containsExactly("recent", "old");
+    }
+
+    @Test
+    void testCancelInterruptsOperationBeingPerformed() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<State> states = new CopyOnWriteArrayList<>();
+        performer.addListener(operation -> states.add(operation.getState()));
+
+        final CompletableFuture<Operation<Identity<?>, String>> future = performer.submit(Identity.of("id"), () -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return "completed";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+        started.await();
+
+        assertTrue(performer.cancel(Identity.of("id")));
+        assertEquals(State.CANCELLED, future.get(1, TimeUnit.SECONDS).getState());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertThat(states).containsExactly(State.INITIAL, State.PERFORMING, State.CANCELLED);
+    }
+
+    @Test
+    void testCancelStopsRemainingStages() throws Exception {
+        final CountDownLatch nextStageStarted = new CountDownLatch(1);
+        final CountDownLatch nextStageInterrupted = new CountDownLatch(1);
+        final CompletableFuture<Operation<Identity<?>, String>> future = performer.submitStaged(Identity.of("id"),
+                () -> InterruptibleFuture.supplyInterruptibly(() -> "telemetry", nextStageExecutor)
+                        .thenApplyInterruptibly(telemetry -> {
+                            nextStageStarted.countDown();
+                            try {
+                                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                            } catch (InterruptedException e) {
+                                nextStageInterrupted.countDown();
+                            }
+                            return telemetry + " uploaded";
+                        }, nextStageExecutor));
+        nextStageStarted.await();
+
+        performer.cancelAll();
+
+        assertEquals(State.CANCELLED, future.get(1, TimeUnit.SECONDS).getState());
+        assertTrue(nextStageInterrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testOnlyLatestCompletedOperationsRetained() throws Exception {
+        final OperationPerformer<Identity<?>, String> retainingPerformer =
+                new OperationPerformer<>("retention_test", newSingleThreadExecutor(), 2);
+        try {
+            for (String id : new String[]{"first", "second", "third"}) {
+                retainingPerformer.submit(Identity.of(id), () -> id + " done").get();
+            }
+
+            assertThat(retainingPerformer.getOperation(Identity.of("first"))).isEmpty();
+            final Operation<Identity<?>, String> retained =
+                    retainingPerformer.getOperation(Identity.of("third")).orElseThrow(AssertionError::new);
+            assertEquals(State.PERFORMED, retained.getState());
+            assertThat(retained.getResult()).contains("third done");
+            assertThat(retained.getOperation()).isNull();
+        } finally {
+            retainingPerformer.shutDown();
+        }
+    }
+
+    private static String record(List<String> startOrder, String name) {
+        startOrder.add(name);
+        return name;
+    }
+}
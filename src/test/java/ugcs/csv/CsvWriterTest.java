@@ -0,0 +1,61 @@
+package ugcs.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTest {
+    private static final String EOL = System.lineSeparator();
+
+    @Test
+    void testRecordsAreForwardFilledAndWrittenOnFlush() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CsvWriter writer = new CsvWriter(asList("a", "b", "c"), out, StandardCharsets.UTF_8);
+
+        writer.printHeader(String::toUpperCase);
+        writer.printRecord(record("a", "1", "b", "x"));
+        writer.printRecord(record("c", "2.5"));
+        writer.printRecord(record("a", "", "b", "y"));
+        assertEquals(0, out.size());
+
+        writer.flush();
+        assertEquals("A,B,C" + EOL + "1,x," + EOL + "1,x,2.5" + EOL + "1,y,2.5" + EOL,
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRecordsLargerThanBuffer() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CsvWriter writer = new CsvWriter(asList("a", "b"), out, StandardCharsets.UTF_8);
+
+        final StringBuilder longValue = new StringBuilder();
+        for (int i = 0; longValue.length() < 100_000; i++) {
+            longValue.append(i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            writer.printRecord(record("a", String.valueOf(i), "b", i == 9998 ? longValue.toString() : null));
+        }
+        writer.flush();
+
+        final String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split(EOL);
+        assertEquals(10_000, lines.length);
+        assertEquals("9997,", lines[9997]);
+        assertEquals("9999," + longValue, lines[9999]);
+    }
+
+    private static Function<String, String> record(String... namesAndValues) {
+        final Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            values.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return values::get;
+    }
+}
@@ -0,0 +1,113 @@
+package ugcs.csv.telemetry;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static java.time.Instant.ofEpochMilli;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ugcs.csv.telemetry.TelemetryCsvWriter.CSV_FILE_CHARSET;
+import static ugcs.csv.telemetry.TelemetryCsvWriter.DATE_TIME_FORMATTER;
+
+class TelemetryCsvWriterTest {
+    private static final String EOL = System.lineSeparator();
+
+    private TimeZone defaultTimeZone;
+
+    @BeforeEach
+    void setTimeZoneWithDaylightSaving() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+    }
+
+    @AfterEach
+    void restoreTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    void testOutputMatchesStandardFormatting() {
+        final double[] specialDoubles = {0.0, -0.0, 1.0, 0.1, 1e-7, 1e7, 123456789.125, Double.MIN_VALUE,
+                Double.MAX_VALUE, Double.NaN, Double.NEGATIVE_INFINITY};
+        final long[] specialTimes = {-1001L, -999L, -1L, 0L, 999L, 1521939599999L, 1521939600000L,
+                1540688399500L, 1540692000001L};
+
+        final Random random = new Random(42);
+        final TelemetryFrameTable.Builder tableBuilder = TelemetryFrameTable.builder();
+        final StringBuilder expected = new StringBuilder();
+        long time = 1540684800000L;
+        for (int row = 0; row < 5000; row++) {
+            time = row < specialTimes.length ? specialTimes[row] : time + 1 + random.nextInt(1500);
+            final double latitude = (random.nextDouble() - 0.5) * Math.PI;
+            final double altitude = row < specialDoubles.length
+                    ? specialDoubles[row]
+                    : Double.longBitsToDouble(random.nextLong());
+            final float voltage = row < specialDoubles.length
+                    ? (float) specialDoubles[row]
+                    : Float.intBitsToFloat(random.nextInt());
+            final long uptime = random.nextLong();
+            final boolean armed = random.nextBoolean();
+
+            tableBuilder
+                    .add(telemetry(time, "latitude", Semantic.S_LATITUDE, Value.newBuilder().setDoubleValue(latitude)))
+                    .add(telemetry(time, "altitude", Semantic.S_DEFAULT, Value.newBuilder().setDoubleValue(altitude)))
+                    .add(telemetry(time, "main_voltage", Semantic.S_DEFAULT, Value.newBuilder().setFloatValue(voltage)))
+                    .add(telemetry(time, "uptime", Semantic.S_DEFAULT, Value.newBuilder().setLongValue(uptime)))
+                    .add(telemetry(time, "is_armed", Semantic.S_DEFAULT, Value.newBuilder().setBoolValue(armed)));
+
+            expected.append(LocalDateTime.ofInstant(ofEpochMilli(time), TimeZone.getDefault().toZoneId())
+                    .format(DATE_TIME_FORMATTER))
+                    .append(',').append(String.valueOf(Math.toDegrees(latitude)))
+                    .append(',').append(String.valueOf(altitude))
+                    .append(',').append(String.valueOf(voltage))
+                    .append(',').append(String.valueOf(uptime))
+                    .append(',').append(String.valueOf(armed))
+                    .append(EOL);
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final TelemetryCsvWriter writer = new TelemetryCsvWriter(
+                asList("Time", "latitude", "altitude", "main_voltage", "uptime", "is_armed"), out);
+        writer.printTelemetryRecords(tableBuilder.build());
+        writer.flush();
+
+        assertEquals(expected.toString(), new String(out.toByteArray(), CSV_FILE_CHARSET));
+    }
+
+    @Test
+    void testCoordinatesOfAnyNumericTypeAreConvertedToDegrees() {
+        final float latitude = 0.5f;
+        final int longitude = 1;
+        final TelemetryFrameTable table = TelemetryFrameTable.builder()
+                .add(telemetry(0L, "latitude", Semantic.S_LATITUDE, Value.newBuilder().setFloatValue(latitude)))
+                .add(telemetry(0L, "longitude", Semantic.S_LONGITUDE, Value.newBuilder().setIntValue(longitude)))
+                .build();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final TelemetryCsvWriter writer = new TelemetryCsvWriter(asList("latitude", "longitude"), out);
+        writer.printTelemetryRecords(table);
+        writer.flush();
+
+        assertEquals(Math.toDegrees(latitude) + "," + Math.toDegrees(longitude) + EOL,
+                new String(out.toByteArray(), CSV_FILE_CHARSET));
+    }
+
+    private static Telemetry telemetry(long time, String code, Semantic semantic, Value.Builder value) {
+        return Telemetry.newBuilder()
+                .setTime(time)
+                .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(semantic).buildPartial())
+                .setValue(value.buildPartial())
+                .buildPartial();
+    }
+}
@@ -0,0 +1,63 @@
+package ugcs.net;
+
+import org.junit.jupiter.api.Test;
+import ugcs.exceptions.ugcs.UgcsDisconnectedException;
+import ugcs.exceptions.ugcs.UgcsFailure;
+import ugcs.exceptions.ugcs.UgcsRequestInterruptedException;
+import ugcs.exceptions.ugcs.UgcsUnavailableException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, 1000L, now::get);
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailuresAndClosesAfterTrial() {
+        fail(new UgcsFailure(new Exception("Rejected")));
+        fail(new UgcsDisconnectedException(new IOException()));
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        fail(new UgcsDisconnectedException(new IOException()));
+        assertThat(circuitBreaker.isOpen()).isTrue();
+
+        now.set(999L);
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> "not called"))
+                .isInstanceOf(UgcsUnavailableException.class);
+
+        now.set(1000L);
+        fail(new UgcsDisconnectedException(new IOException()));
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> "not called"))
+                .isInstanceOf(UgcsUnavailableException.class);
+
+        now.set(2000L);
+        assertThat(circuitBreaker.execute(() -> "trial")).isEqualTo("trial");
+        assertThat(circuitBreaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void testCancelledRequestsAreNotCountedAsFailures() {
+        fail(new UgcsDisconnectedException(new IOException()));
+        for (int i = 0; i < 5; i++) {
+            fail(new UgcsRequestInterruptedException(new InterruptedException()));
+        }
+        assertThat(circuitBreaker.isOpen()).isFalse();
+
+        fail(new UgcsDisconnectedException(new IOException()));
+        assertThat(circuitBreaker.isOpen()).isTrue();
+
+        now.set(1000L);
+        fail(new UgcsRequestInterruptedException(new InterruptedException()));
+        assertThat(circuitBreaker.execute(() -> "trial")).isEqualTo("trial");
+        assertThat(circuitBreaker.isOpen()).isFalse();
+    }
+
+    private void fail(RuntimeException failure) {
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+            throw failure;
+        })).isSameAs(failure);
+    }
+}
@@ -0,0 +1,71 @@
+package ugcs.net;
+
+import org.junit.jupiter.api.Test;
+import ugcs.exceptions.ugcs.UgcsDisconnectedException;
+import ugcs.exceptions.ugcs.UgcsFailure;
+import ugcs.exceptions.ugcs.UgcsRequestInterruptedException;
+import ugcs.exceptions.ugcs.UgcsTimeoutException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryPolicyTest {
+    private final List<Long> pauses = new ArrayList<>();
+    private final RetryPolicy retryPolicy = new RetryPolicy(4, 100L, 250L, delay -> delay, pauses::add);
+
+    @Test
+    void testConnectionFailuresAreRetriedWithBackoff() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final String result = retryPolicy.execute(() -> {
+            if (attempts.incrementAndGet() < 4) {
+                throw attempts.get() % 2 == 0
+                        ? new UgcsTimeoutException(1000L, new TimeoutException())
+                        : new UgcsDisconnectedException(new IOException());
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(pauses).containsExactly(100L, 200L, 250L);
+    }
+
+    @Test
+    void testRejectedRequestsAndLastFailureAreNotRetried() {
+        final AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new UgcsFailure(new Exception("Vehicle not found"));
+        })).isInstanceOf(UgcsFailure.class);
+        assertThat(attempts).hasValue(1);
+
+        assertThatThrownBy(() -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new UgcsDisconnectedException(new IOException());
+        })).isInstanceOf(UgcsDisconnectedException.class);
+        assertThat(attempts).hasValue(5);
+    }
+
+    @Test
+    void testInterruptedRequestsAreNotRetried() {
+        final AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw new UgcsRequestInterruptedException(new InterruptedException());
+        })).isInstanceOf(UgcsRequestInterruptedException.class);
+        assertThat(attempts).hasValue(1);
+
+        final RetryPolicy interruptedPolicy = new RetryPolicy(4, 100L, 250L, delay -> delay, delay -> {
+            throw new InterruptedException();
+        });
+        assertThatThrownBy(() -> interruptedPolicy.execute(() -> {
+            throw new UgcsDisconnectedException(new IOException());
+        })).isInstanceOf(UgcsRequestInterruptedException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package ugcs.processing.flights;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.Test;
+import ugcs.common.identity.Identity;
+import ugcs.processing.Flight;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ugcs.time.TimeUtils.time;
+
+class FlightDaysCalendarTest {
+    private static final Vehicle VEHICLE = Vehicle.newBuilder().setSerialNumber("serial").buildPartial();
+    private static final YearMonth MONTH = YearMonth.of(2018, 11);
+
+    private final List<YearMonth> requestedMonths = new ArrayList<>();
+
+    @Test
+    void testMonthIsLoadedOnceAndAnsweredFromCache() {
+        final FlightDaysCalendar calendar = new FlightDaysCalendar((vehicle, month) -> {
+            requestedMonths.add(month);
+            return singletonList(flightAt(month.atDay(5)));
+        }, Runnable::run);
+
+        assertThat(calendar.hasFlights(VEHICLE, MONTH.atDay(5))).isEmpty();
+
+        calendar.load(VEHICLE, MONTH);
+        calendar.load(VEHICLE, MONTH);
+        calendar.prefetch(VEHICLE, MONTH, 1);
+
+        assertThat(calendar.hasFlights(VEHICLE, MONTH.atDay(5))).contains(true);
+        assertThat(calendar.hasFlights(VEHICLE, MONTH.atDay(6))).contains(false);
+        assertThat(calendar.hasFlights(VEHICLE, MONTH.plusMonths(1).atDay(5))).contains(true);
+        assertThat(requestedMonths).containsExactly(MONTH, MONTH.plusMonths(1), MONTH.minusMonths(1));
+    }
+
+    @Test
+    void testFailedMonthIsLoadedAgain() {
+        final AtomicBoolean serverAvailable = new AtomicBoolean(false);
+        final FlightDaysCalendar calendar = new FlightDaysCalendar((vehicle, month) -> {
+            if (!serverAvailable.get()) {
+                throw new IllegalStateException("server unavailable");
+            }
+            return singletonList(flightAt(month.atDay(1)));
+        }, Runnable::run);
+
+        assertThat(calendar.load(VEHICLE, MONTH).isCompletedExceptionally()).isTrue();
+        assertThat(calendar.hasFlights(VEHICLE, MONTH.atDay(1))).isEmpty();
+
+        serverAvailable.set(true);
+        calendar.load(VEHICLE, MONTH);
+
+        assertThat(calendar.hasFlights(VEHICLE, MONTH.atDay(1))).isEqualTo(Optional.of(true));
+    }
+
+    private static Flight flightAt(LocalDate date) {
+        final long startEpochMilli = date.atTime(12, 0).atZone(time().defaultZoneId()).toInstant().toEpochMilli();
+        return new Flight() {
+            @Override
+            public long getStartEpochMilli() {
+                return startEpochMilli;
+            }
+
+            @Override
+            public long getEndEpochMilli() {
+                return startEpochMilli + 60_000;
+            }
+
+            @Override
+            public Vehicle getVehicle() {
+                return VEHICLE;
+            }
+
+            @Override
+            public Identity<?> getId() {
+                return Identity.of(startEpochMilli);
+            }
+        };
+    }
+}
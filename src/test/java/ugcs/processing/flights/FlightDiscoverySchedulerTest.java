@@ -0,0 +1,100 @@
+package ugcs.processing.flights;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.Test;
+import ugcs.processing.Flight;
+import ugcs.processing.flights.FlightDiscoveryScheduler.Query;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class FlightDiscoverySchedulerTest {
+    private static final Query QUERY = new Query(ZonedDateTime.now().minusDays(1), ZonedDateTime.now(), 2);
+
+    private final List<List<String>> requestedBatches = new ArrayList<>();
+    private final List<String> discoveredSerials = new ArrayList<>();
+    private final Queue<Runnable> pendingTasks = new ArrayDeque<>();
+    private final Flight firstFlight = mock(Flight.class);
+    private final Flight secondFlight = mock(Flight.class);
+    private final Flight thirdFlight = mock(Flight.class);
+
+    @Test
+    void testFleetIsDiscoveredInBatchesOfSubmittedOrder() {
+        final FlightDiscoveryScheduler scheduler = createScheduler();
+        final List<Vehicle> vehicles = vehicles("a", "b", "c", "d", "e");
+
+        scheduler.discoverFleet(vehicles, QUERY);
+        scheduler.discover(vehicles.get(2));
+        runPendingTasks();
+        scheduler.discover(vehicles.get(4));
+
+        assertThat(requestedBatches).containsExactly(asList("a", "b"), asList("c", "d"), asList("e"));
+        assertThat(discoveredSerials).containsExactly("a", "b", "c", "d", "e");
+        assertThat(pendingTasks).isEmpty();
+    }
+
+    @Test
+    void testFlightsAreDiscoveredWithQueryLimit() {
+        final FlightDiscoveryScheduler scheduler = createScheduler();
+        final Vehicle vehicle = vehicles("a").get(0);
+
+        scheduler.discoverFleet(asList(vehicle), QUERY);
+        assertThat(scheduler.getDiscoveredFlights(vehicle)).isEmpty();
+        runPendingTasks();
+
+        assertThat(scheduler.getDiscoveredFlights(vehicle)).hasValueSatisfying(
+                flights -> assertThat(new ArrayList<Flight>(flights)).containsExactly(secondFlight, thirdFlight));
+    }
+
+    @Test
+    void testFlightsOfPreviousQueryAreDropped() {
+        final FlightDiscoveryScheduler scheduler = createScheduler();
+        final Vehicle vehicle = vehicles("a").get(0);
+
+        scheduler.discoverFleet(asList(vehicle), QUERY);
+        scheduler.discoverFleet(asList(vehicle), QUERY);
+        runPendingTasks();
+
+        assertThat(requestedBatches).hasSize(2);
+        assertThat(discoveredSerials).containsExactly("a");
+        assertThat(scheduler.getDiscoveredFlights(vehicle)).isPresent();
+    }
+
+    private FlightDiscoveryScheduler createScheduler() {
+        final FlightDiscoveryScheduler scheduler =
+                new FlightDiscoveryScheduler((vehicles, fromTime, toTime, tracksLimit) -> {
+                    requestedBatches.add(vehicles.stream().map(Vehicle::getSerialNumber).collect(toList()));
+                    final List<Flight> flights = asList(firstFlight, secondFlight, thirdFlight);
+                    final Map<String, List<Flight>> flightsBySerial = new HashMap<>();
+                    vehicles.forEach(vehicle -> flightsBySerial.put(vehicle.getSerialNumber(),
+                            flights.subList(flights.size() - tracksLimit, flights.size())));
+                    return flightsBySerial;
+                }, 2, pendingTasks::add);
+        scheduler.addDiscoveryListener((vehicle, flights) -> discoveredSerials.add(vehicle.getSerialNumber()));
+        return scheduler;
+    }
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.poll().run();
+        }
+    }
+
+    private static List<Vehicle> vehicles(String... serialNumbers) {
+        final List<Vehicle> vehicles = new ArrayList<>();
+        for (String serialNumber : serialNumbers) {
+            vehicles.add(Vehicle.newBuilder().setSerialNumber(serialNumber).buildPartial());
+        }
+        return vehicles;
+    }
+}
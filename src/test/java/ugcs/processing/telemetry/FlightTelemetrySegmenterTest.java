@@ -0,0 +1,108 @@
+package ugcs.processing.telemetry;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlightTelemetrySegmenterTest {
+    private static final Vehicle VEHICLE = Vehicle.newBuilder().buildPartial();
+
+    @Test
+    void testFlightsSplitByTimeGap() {
+        final List<FlightTelemetry> flights = new ArrayList<>();
+        final FlightTelemetrySegmenter segmenter = new FlightTelemetrySegmenter(VEHICLE, 1000L, flights::add);
+
+        frame(segmenter, 100L, 0.1, 0.1);
+        frame(segmenter, 200L, 0.0, 0.0);
+        frame(segmenter, 300L, 0.1, 0.2);
+        frame(segmenter, 5000L, 0.3, 0.3);
+        frame(segmenter, 5100L, 0.3, 0.4);
+        frame(segmenter, 9000L, 0.5, 0.5);
+        segmenter.finish();
+
+        assertEquals(2, flights.size());
+        assertEquals(100L, flights.get(0).getStartEpochMilli());
+        assertEquals(300L, flights.get(0).getEndEpochMilli());
+        assertEquals(2, flights.get(0).getTelemetry().getRowCount());
+        assertEquals(5000L, flights.get(1).getStartEpochMilli());
+        assertEquals(5100L, flights.get(1).getEndEpochMilli());
+    }
+
+    @Test
+    void testNonFlightFramesAreDropped() {
+        final List<FlightTelemetry> flights = new ArrayList<>();
+        final FlightTelemetrySegmenter segmenter =
+                new FlightTelemetrySegmenter(VEHICLE, FlightTelemetrySegmenter.NO_FLIGHT_SEPARATION, flights::add);
+
+        segmenter.accept(telemetry(50L, "main_voltage", Semantic.S_DEFAULT, 12.0));
+        frame(segmenter, 100L, 0.1, 0.1);
+        segmenter.accept(telemetry(100L, "main_voltage", Semantic.S_DEFAULT, 11.9));
+        segmenter.accept(telemetry(150L, "main_voltage", Semantic.S_DEFAULT, 11.8));
+        frame(segmenter, 200L, 0.1, 0.2);
+        segmenter.finish();
+
+        assertEquals(1, flights.size());
+        assertEquals(2, flights.get(0).getTelemetry().getRowCount());
+        assertThat(flights.get(0).getTelemetry().getFieldCodes())
+                .containsExactlyInAnyOrder("latitude", "longitude", "main_voltage");
+    }
+
+    @Test
+    void testInterleavedFramesAreReordered() {
+        final List<FlightTelemetry> flights = new ArrayList<>();
+        final FlightTelemetrySegmenter segmenter = new FlightTelemetrySegmenter(VEHICLE, 1000L, flights::add, 4);
+
+        segmenter.accept(telemetry(100L, "latitude", Semantic.S_LATITUDE, 0.1));
+        segmenter.accept(telemetry(200L, "latitude", Semantic.S_LATITUDE, 0.1));
+        segmenter.accept(telemetry(100L, "longitude", Semantic.S_LONGITUDE, 0.1));
+        frame(segmenter, 5000L, 0.3, 0.3);
+        segmenter.accept(telemetry(300L, "latitude", Semantic.S_LATITUDE, 0.1));
+        segmenter.accept(telemetry(300L, "longitude", Semantic.S_LONGITUDE, 0.3));
+        segmenter.accept(telemetry(200L, "longitude", Semantic.S_LONGITUDE, 0.2));
+        frame(segmenter, 5100L, 0.3, 0.4);
+        segmenter.finish();
+
+        assertEquals(2, flights.size());
+        assertEquals(100L, flights.get(0).getStartEpochMilli());
+        assertEquals(300L, flights.get(0).getEndEpochMilli());
+        assertEquals(3, flights.get(0).getTelemetry().getRowCount());
+        assertEquals(5000L, flights.get(1).getStartEpochMilli());
+        assertEquals(5100L, flights.get(1).getEndEpochMilli());
+    }
+
+    @Test
+    void testTelemetryOlderThanReorderWindowFails() {
+        final List<FlightTelemetry> flights = new ArrayList<>();
+        final FlightTelemetrySegmenter segmenter = new FlightTelemetrySegmenter(VEHICLE, 1000L, flights::add, 2);
+
+        frame(segmenter, 100L, 0.1, 0.1);
+        frame(segmenter, 200L, 0.1, 0.2);
+        frame(segmenter, 300L, 0.1, 0.3);
+
+        assertThatThrownBy(() -> segmenter.accept(telemetry(100L, "main_voltage", Semantic.S_DEFAULT, 12.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void frame(FlightTelemetrySegmenter segmenter, long time, double latitude, double longitude) {
+        segmenter.accept(telemetry(time, "latitude", Semantic.S_LATITUDE, latitude));
+        segmenter.accept(telemetry(time, "longitude", Semantic.S_LONGITUDE, longitude));
+    }
+
+    private static Telemetry telemetry(long time, String code, Semantic semantic, double value) {
+        return Telemetry.newBuilder()
+                .setTime(time)
+                .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(semantic).buildPartial())
+                .setValue(Value.newBuilder().setDoubleValue(value).buildPartial())
+                .buildPartial();
+    }
+}
@@ -0,0 +1,59 @@
+package ugcs.processing.telemetry;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.Test;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightTelemetryTest {
+    private static final Vehicle VEHICLE = Vehicle.newBuilder().buildPartial();
+
+    @Test
+    void testFieldsMissingInProjectionAreAcquiredAgain() {
+        final TelemetryFrameTable telemetry = TelemetryFrameTable.builder()
+                .add(telemetry(100L, "latitude", 0.1))
+                .add(telemetry(100L, "longitude", 0.2))
+                .add(telemetry(200L, "latitude", 0.3))
+                .add(telemetry(200L, "satellite_count", 12.0))
+                .build();
+        final AtomicInteger acquisitions = new AtomicInteger();
+        final FlightTelemetry flight = new FlightTelemetry(telemetry, VEHICLE, f -> {
+            acquisitions.incrementAndGet();
+            return telemetry;
+        });
+
+        final FlightTelemetry projection = flight.project(Arrays.asList("latitude", "longitude", "altitude_agl"));
+
+        assertTrue(projection.isProjection());
+        assertEquals(flight.getId(), projection.getId());
+        assertEquals(200L, projection.getEndEpochMilli());
+        assertThat(projection.getTelemetry().getFieldCodes()).containsExactly("latitude", "longitude");
+        assertThat(projection.getTelemetry(Collections.singletonList("altitude_agl")).getFieldCodes())
+                .containsExactly("latitude", "longitude");
+        assertEquals(0, acquisitions.get());
+
+        assertSame(telemetry, projection.getTelemetry(Collections.singletonList("satellite_count")));
+        assertEquals(1, acquisitions.get());
+    }
+
+    private static Telemetry telemetry(long time, String code, double value) {
+        return Telemetry.newBuilder()
+                .setTime(time)
+                .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(Semantic.S_DEFAULT)
+                        .buildPartial())
+                .setValue(Value.newBuilder().setDoubleValue(value).buildPartial())
+                .buildPartial();
+    }
+}
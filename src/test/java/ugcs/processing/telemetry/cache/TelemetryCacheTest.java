@@ -0,0 +1,126 @@
+package ugcs.processing.telemetry.cache;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ugcs.processing.telemetry.frames.TelemetryFrameConsumer;
+import ugcs.processing.telemetry.frames.TelemetryFrameTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TelemetryCacheTest {
+    private static final Vehicle VEHICLE = Vehicle.newBuilder().setSerialNumber("serial/1").buildPartial();
+
+    private final List<long[]> requestedRanges = new ArrayList<>();
+    private final List<String> requestedSerials = new ArrayList<>();
+    private Path cacheFolder;
+
+    @BeforeEach
+    void createCacheFolder() throws IOException {
+        cacheFolder = Files.createTempDirectory("telemetry-cache");
+    }
+
+    @AfterEach
+    void deleteCacheFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheFolder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testOnlyGapsAreFetched() {
+        final TelemetryCache cache = new TelemetryCache();
+        cache.open(cacheFolder, Long.MAX_VALUE);
+
+        assertThat(frameTimes(cache, 1000L, 1999L)).hasSize(10);
+        assertThat(frameTimes(cache, 500L, 2499L))
+                .hasSize(20)
+                .isSorted()
+                .doesNotHaveDuplicates();
+        assertThat(requestedRanges).containsExactly(
+                new long[]{1000L, 1999L}, new long[]{500L, 999L}, new long[]{2000L, 2499L});
+
+        final TelemetryCache reopenedCache = new TelemetryCache();
+        reopenedCache.open(cacheFolder, Long.MAX_VALUE);
+        requestedRanges.clear();
+        assertThat(frameTimes(reopenedCache, 600L, 2400L)).hasSize(19);
+        assertThat(requestedRanges).isEmpty();
+    }
+
+    @Test
+    void testLeastRecentlyUsedSegmentsEvicted() {
+        final TelemetryCache cache = new TelemetryCache();
+        cache.open(cacheFolder, 1L);
+
+        frameTimes(cache, 1000L, 1999L);
+        frameTimes(cache, 1000L, 1999L);
+
+        assertThat(requestedRanges).containsExactly(new long[]{1000L, 1999L}, new long[]{1000L, 1999L});
+    }
+
+    @Test
+    void testSerialsDifferingInSpecialCharactersAreCachedSeparately() {
+        final TelemetryCache cache = new TelemetryCache();
+        cache.open(cacheFolder, Long.MAX_VALUE);
+        final Vehicle similarVehicle = Vehicle.newBuilder().setSerialNumber("serial_1").buildPartial();
+
+        frameTimes(cache, VEHICLE, 1000L, 1999L);
+        frameTimes(cache, similarVehicle, 1000L, 1999L);
+        frameTimes(cache, VEHICLE, 1000L, 1999L);
+
+        assertThat(requestedSerials).containsExactly("serial/1", "serial_1");
+    }
+
+    private List<Long> frameTimes(TelemetryCache cache, long startTime, long endTime) {
+        return frameTimes(cache, VEHICLE, startTime, endTime);
+    }
+
+    private List<Long> frameTimes(TelemetryCache cache, Vehicle vehicle, long startTime, long endTime) {
+        final List<Long> frameTimes = new ArrayList<>();
+        cache.getTelemetry(this::generateTelemetry, vehicle, startTime, endTime, new TelemetryFrameConsumer() {
+            @Override
+            public void acceptRow(TelemetryFrameTable table, int row) {
+                frameTimes.add(table.getTime(row));
+            }
+
+            @Override
+            public void accept(Telemetry telemetry) {
+                if (frameTimes.isEmpty() || frameTimes.get(frameTimes.size() - 1) != telemetry.getTime()) {
+                    frameTimes.add(telemetry.getTime());
+                }
+            }
+        });
+        return frameTimes;
+    }
+
+    private void generateTelemetry(Vehicle vehicle, long startTime, long endTime,
+                                   Consumer<Telemetry> telemetryConsumer) {
+        requestedRanges.add(new long[]{startTime, endTime});
+        requestedSerials.add(vehicle.getSerialNumber());
+        for (long time = (startTime + 99) / 100 * 100; time <= endTime; time += 100) {
+            for (String code : asList("latitude", "longitude")) {
+                telemetryConsumer.accept(Telemetry.newBuilder()
+                        .setTime(time)
+                        .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(Semantic.S_DEFAULT)
+                                .buildPartial())
+                        .setValue(Value.newBuilder().setDoubleValue(time).buildPartial())
+                        .buildPartial());
+            }
+        }
+    }
+}
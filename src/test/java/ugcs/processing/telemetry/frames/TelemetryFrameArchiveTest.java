@@ -0,0 +1,133 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryFrameArchiveTest {
+    private static final List<String> FIELD_CODES = Arrays.asList("latitude", "control_mode", "missing", "is_armed",
+            "satellite_count", "main_voltage", "uptime");
+
+    private Path archivePath;
+
+    @BeforeEach
+    void createArchiveFile() throws IOException {
+        archivePath = Files.createTempFile("flight", "." + TelemetryFrameArchive.FILE_EXTENSION);
+    }
+
+    @AfterEach
+    void deleteArchiveFile() throws IOException {
+        Files.deleteIfExists(archivePath);
+    }
+
+    @Test
+    void testValuesAreReadFromMappedFile() throws IOException {
+        final TelemetryFrameTable table = exampleTable();
+
+        TelemetryFrameArchive.write(table, FIELD_CODES, archivePath);
+        final TelemetryFrameArchive archive = TelemetryFrameArchive.open(archivePath);
+
+        assertEquals(table.getRowCount(), archive.getRowCount());
+        assertEquals(1199L, archive.getTime(archive.getRowCount() - 1));
+        assertThat(archive.getFieldCodes()).containsExactly("latitude", "control_mode", "is_armed",
+                "satellite_count", "main_voltage", "uptime");
+
+        final TelemetryFrameArchive.ArchivedColumn latitude = archive.getColumn("latitude").get();
+        final DoubleColumn tableLatitude = (DoubleColumn) table.getColumn("latitude").get();
+        assertEquals(Semantic.S_LATITUDE, latitude.getSemantic());
+        for (int row = 0; row < table.getRowCount(); row++) {
+            assertEquals(tableLatitude.isPresent(row), latitude.isPresent(row));
+            if (tableLatitude.isPresent(row)) {
+                assertEquals(tableLatitude.get(row), latitude.getDouble(row));
+            }
+        }
+        assertTrue(archive.getColumn("is_armed").get().getBoolean(0));
+        assertFalse(archive.getColumn("is_armed").get().isPresent(1));
+        assertEquals(12L, archive.getColumn("satellite_count").get().getLong(1));
+        assertEquals("manual", archive.getColumn("control_mode").get().getString(2));
+        assertEquals(11.5, archive.getColumn("main_voltage").get().getDouble(2));
+        assertEquals(1L << 40, archive.getColumn("uptime").get().getLong(3));
+
+        final TelemetryFrameTable restored = archive.toFrameTable();
+        assertEquals(table.getRowCount(), restored.getRowCount());
+        assertEquals("auto", ((StringColumn) restored.getColumn("control_mode").get()).get(1));
+        final int lastRow = table.getRowCount() - 1;
+        assertEquals(tableLatitude.get(lastRow), ((DoubleColumn) restored.getColumn("latitude").get()).get(lastRow));
+    }
+
+    @Test
+    void testCompressedArchiveIsDecoded() throws IOException {
+        final TelemetryFrameTable table = exampleTable();
+        final Path plainArchivePath = Files.createTempFile("flight", "." + TelemetryFrameArchive.FILE_EXTENSION);
+        try {
+            TelemetryFrameArchive.write(table, FIELD_CODES, plainArchivePath);
+            TelemetryFrameArchive.write(table, FIELD_CODES, archivePath, true);
+            assertThat(Files.size(archivePath)).isLessThan(Files.size(plainArchivePath));
+        } finally {
+            Files.deleteIfExists(plainArchivePath);
+        }
+
+        final TelemetryFrameArchive archive = TelemetryFrameArchive.open(archivePath);
+        assertEquals(table.getRowCount(), archive.getRowCount());
+        for (int row = 0; row < table.getRowCount(); row++) {
+            assertEquals(table.getTime(row), archive.getTime(row));
+        }
+        final TelemetryFrameArchive.ArchivedColumn latitude = archive.getColumn("latitude").get();
+        assertThat(latitude.getEncoding()).isNotEqualTo(TelemetryFrameArchive.Encoding.PLAIN);
+        final DoubleColumn tableLatitude = (DoubleColumn) table.getColumn("latitude").get();
+        for (int row = 0; row < table.getRowCount(); row++) {
+            assertEquals(tableLatitude.isPresent(row), latitude.isPresent(row));
+            if (tableLatitude.isPresent(row)) {
+                assertEquals(tableLatitude.get(row), latitude.getDouble(row));
+            }
+        }
+        assertTrue(archive.getColumn("is_armed").get().getBoolean(0));
+        assertEquals("manual", archive.getColumn("control_mode").get().getString(2));
+        assertEquals(11.5, archive.getColumn("main_voltage").get().getDouble(2));
+        assertEquals(1L << 40, archive.getColumn("uptime").get().getLong(3));
+
+        final TelemetryFrameTable restored = archive.toFrameTable();
+        assertEquals("auto", ((StringColumn) restored.getColumn("control_mode").get()).get(1));
+        assertEquals(12, ((IntColumn) restored.getColumn("satellite_count").get()).get(1));
+    }
+
+    private static TelemetryFrameTable exampleTable() {
+        final TelemetryFrameTable.Builder builder = TelemetryFrameTable.builder()
+                .add(telemetry(100L, "is_armed", Semantic.S_DEFAULT, Value.newBuilder().setBoolValue(true)))
+                .add(telemetry(200L, "satellite_count", Semantic.S_DEFAULT, Value.newBuilder().setIntValue(12)))
+                .add(telemetry(200L, "control_mode", Semantic.S_DEFAULT, Value.newBuilder().setStringValue("auto")))
+                .add(telemetry(300L, "control_mode", Semantic.S_DEFAULT, Value.newBuilder().setStringValue("manual")))
+                .add(telemetry(300L, "main_voltage", Semantic.S_DEFAULT, Value.newBuilder().setFloatValue(11.5f)))
+                .add(telemetry(400L, "uptime", Semantic.S_DEFAULT, Value.newBuilder().setLongValue(1L << 40)));
+        for (int row = 0; row < 200; row++) {
+            if (row % 3 != 0) {
+                builder.add(telemetry(1000L + row, "latitude", Semantic.S_LATITUDE,
+                        Value.newBuilder().setDoubleValue(row / 7.0)));
+            }
+        }
+        return builder.build();
+    }
+
+    private static Telemetry telemetry(long time, String code, Semantic semantic, Value.Builder value) {
+        return Telemetry.newBuilder()
+                .setTime(time)
+                .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(semantic).buildPartial())
+                .setValue(value.buildPartial())
+                .buildPartial();
+    }
+}
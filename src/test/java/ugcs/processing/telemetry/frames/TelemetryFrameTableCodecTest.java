@@ -0,0 +1,57 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryFrameTableCodecTest {
+    @Test
+    void testRoundTrip() throws IOException {
+        final TelemetryFrameTable table = TelemetryFrameTable.builder()
+                .add(telemetry(100L, "latitude", Semantic.S_LATITUDE, Value.newBuilder().setDoubleValue(0.5)))
+                .add(telemetry(100L, "is_armed", Semantic.S_DEFAULT, Value.newBuilder().setBoolValue(true)))
+                .add(telemetry(200L, "satellite_count", Semantic.S_DEFAULT, Value.newBuilder().setIntValue(12)))
+                .add(telemetry(200L, "control_mode", Semantic.S_DEFAULT, Value.newBuilder().setStringValue("auto")))
+                .add(telemetry(300L, "control_mode", Semantic.S_DEFAULT, Value.newBuilder().setStringValue("manual")))
+                .add(telemetry(300L, "main_voltage", Semantic.S_DEFAULT, Value.newBuilder().setFloatValue(11.5f)))
+                .add(telemetry(400L, "uptime", Semantic.S_DEFAULT, Value.newBuilder().setLongValue(1L << 40)))
+                .build();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelemetryFrameTableCodec.write(table, out);
+        final TelemetryFrameTable decoded = TelemetryFrameTableCodec.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(4, decoded.getRowCount());
+        assertEquals(400L, decoded.getTime(3));
+        assertThat(decoded.getFieldCodes()).containsExactlyElementsOf(table.getFieldCodes());
+
+        final DoubleColumn latitude = (DoubleColumn) decoded.getColumn("latitude").get();
+        assertEquals(Semantic.S_LATITUDE, latitude.getSemantic());
+        assertEquals(0.5, latitude.get(0));
+        assertFalse(latitude.isPresent(1));
+        assertTrue(((BooleanColumn) decoded.getColumn("is_armed").get()).get(0));
+        assertEquals(12, ((IntColumn) decoded.getColumn("satellite_count").get()).get(1));
+        assertEquals("manual", ((StringColumn) decoded.getColumn("control_mode").get()).get(2));
+        assertEquals(11.5f, ((FloatColumn) decoded.getColumn("main_voltage").get()).get(2));
+        assertEquals(1L << 40, ((LongColumn) decoded.getColumn("uptime").get()).get(3));
+    }
+
+    private static Telemetry telemetry(long time, String code, Semantic semantic, Value.Builder value) {
+        return Telemetry.newBuilder()
+                .setTime(time)
+                .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(semantic).buildPartial())
+                .setValue(value.buildPartial())
+                .buildPartial();
+    }
+}
@@ -0,0 +1,107 @@
+package ugcs.processing.telemetry.frames;
+
+import com.ugcs.ucs.proto.DomainProto.Semantic;
+import com.ugcs.ucs.proto.DomainProto.Telemetry;
+import com.ugcs.ucs.proto.DomainProto.TelemetryField;
+import com.ugcs.ucs.proto.DomainProto.Value;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryFrameTableTest {
+    @Test
+    void testFramesGroupedByTime() {
+        final TelemetryFrameTable table = TelemetryFrameTable.builder()
+                .add(telemetry(100L, "latitude", Value.newBuilder().setDoubleValue(0.5)))
+                .add(telemetry(100L, "is_armed", Value.newBuilder().setBoolValue(true)))
+                .add(telemetry(200L, "satellite_count", Value.newBuilder().setIntValue(12)))
+                .add(telemetry(200L, "control_mode", Value.newBuilder().setStringValue("auto")))
+                .add(telemetry(300L, "main_voltage", Value.newBuilder().setFloatValue(11.5f)))
+                .build();
+
+        assertEquals(3, table.getRowCount());
+        assertEquals(100L, table.getTime(0));
+        assertEquals(300L, table.getTime(2));
+        assertThat(table.getFieldCodes())
+                .containsExactly("latitude", "is_armed", "satellite_count", "control_mode", "main_voltage");
+
+        final DoubleColumn latitude = (DoubleColumn) table.getColumn("latitude").get();
+        assertTrue(latitude.isPresent(0));
+        assertFalse(latitude.isPresent(1));
+        assertEquals(0.5, latitude.get(0));
+        assertEquals(Semantic.S_LATITUDE, latitude.getSemantic());
+
+        assertTrue(((BooleanColumn) table.getColumn("is_armed").get()).get(0));
+        assertEquals(12, ((IntColumn) table.getColumn("satellite_count").get()).get(1));
+        assertEquals("auto", ((StringColumn) table.getColumn("control_mode").get()).get(1));
+        assertEquals(11.5f, ((FloatColumn) table.getColumn("main_voltage").get()).get(2));
+    }
+
+    @Test
+    void testUnorderedFramesAreSortedAndMerged() {
+        final TelemetryFrameTable table = TelemetryFrameTable.builder()
+                .add(telemetry(300L, "altitude_agl", Value.newBuilder().setDoubleValue(3.0)))
+                .add(telemetry(100L, "altitude_agl", Value.newBuilder().setDoubleValue(1.0)))
+                .add(telemetry(300L, "ground_speed", Value.newBuilder().setDoubleValue(7.0)))
+                .add(telemetry(200L, "altitude_agl", Value.newBuilder().setDoubleValue(2.0)))
+                .add(telemetry(100L, "altitude_agl", Value.newBuilder().setDoubleValue(-1.0)))
+                .build();
+
+        assertEquals(3, table.getRowCount());
+        final DoubleColumn altitude = (DoubleColumn) table.getColumn("altitude_agl").get();
+        final DoubleColumn groundSpeed = (DoubleColumn) table.getColumn("ground_speed").get();
+        for (int row = 0; row < table.getRowCount(); row++) {
+            assertEquals((row + 1) * 100L, table.getTime(row));
+            assertEquals(row + 1.0, altitude.get(row));
+        }
+        assertTrue(groundSpeed.isPresent(2));
+        assertFalse(groundSpeed.isPresent(0));
+    }
+
+    @Test
+    void testAppendRowCopiesPresentValuesOnly() {
+        final TelemetryFrameTable source = TelemetryFrameTable.builder()
+                .add(telemetry(100L, "latitude", Value.newBuilder().setDoubleValue(0.1)))
+                .add(telemetry(200L, "longitude", Value.newBuilder().setDoubleValue(0.2)))
+                .build();
+
+        final TelemetryFrameTable table = TelemetryFrameTable.builder()
+                .appendRow(source, 1)
+                .build();
+
+        assertEquals(1, table.getRowCount());
+        assertEquals(200L, table.getTime(0));
+        assertThat(table.getFieldCodes()).containsExactly("longitude");
+    }
+
+    @Test
+    void testProjectionSharesSelectedColumns() {
+        final TelemetryFrameTable table = TelemetryFrameTable.builder()
+                .add(telemetry(100L, "latitude", Value.newBuilder().setDoubleValue(0.1)))
+                .add(telemetry(100L, "main_voltage", Value.newBuilder().setFloatValue(11.5f)))
+                .add(telemetry(200L, "control_mode", Value.newBuilder().setStringValue("auto")))
+                .build();
+
+        final TelemetryFrameTable projection = table.project(Arrays.asList("control_mode", "latitude", "missing"));
+
+        assertEquals(2, projection.getRowCount());
+        assertEquals(200L, projection.getTime(1));
+        assertThat(projection.getFieldCodes()).containsExactly("control_mode", "latitude");
+        assertSame(table.getColumn("latitude").get(), projection.getColumn("latitude").get());
+    }
+
+    private static Telemetry telemetry(long time, String code, Value.Builder value) {
+        final Semantic semantic = "latitude".equals(code) ? Semantic.S_LATITUDE : Semantic.S_DEFAULT;
+        return Telemetry.newBuilder()
+                .setTime(time)
+                .setTelemetryField(TelemetryField.newBuilder().setCode(code).setSemantic(semantic).buildPartial())
+                .setValue(value.buildPartial())
+                .buildPartial();
+    }
+}
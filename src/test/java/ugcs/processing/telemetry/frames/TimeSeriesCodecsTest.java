@@ -0,0 +1,85 @@
+package ugcs.processing.telemetry.frames;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TimeSeriesCodecsTest {
+    @Test
+    void testDeltaOfDeltaRoundTrip() throws IOException {
+        final long[] times = new long[1000];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = 1524153698252L + i * 100L + (i % 10 == 0 ? 3 : 0);
+        }
+        times[500] = Long.MIN_VALUE;
+        times[501] = Long.MAX_VALUE;
+
+        final byte[] encoded = encode(times, DeltaOfDeltaCodec.Encoder::new);
+        assertArrayEquals(times, decode(encoded, times.length, DeltaOfDeltaCodec.Decoder::new));
+        assertThat(encoded.length).isLessThan(times.length);
+    }
+
+    @Test
+    void testXorRoundTrip() throws IOException {
+        final long[] latitudes = new long[1000];
+        final long[] voltages = new long[1000];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = Double.doubleToRawLongBits(Math.toRadians(-27.4698 + i * 1e-6));
+            voltages[i] = Float.floatToRawIntBits(12.6f - (i / 100) * 0.01f) & 0xFFFFFFFFL;
+        }
+        latitudes[10] = Double.doubleToRawLongBits(Double.NaN);
+        latitudes[11] = Double.doubleToRawLongBits(-0.0);
+
+        final byte[] encodedLatitudes = encode(latitudes, out -> new XorCodec.Encoder(out, Long.SIZE));
+        assertArrayEquals(latitudes,
+                decode(encodedLatitudes, latitudes.length, in -> new XorCodec.Decoder(in, Long.SIZE)));
+        final byte[] encodedVoltages = encode(voltages, out -> new XorCodec.Encoder(out, Integer.SIZE));
+        assertArrayEquals(voltages,
+                decode(encodedVoltages, voltages.length, in -> new XorCodec.Decoder(in, Integer.SIZE)));
+        assertThat(encodedVoltages.length).isLessThan(voltages.length);
+    }
+
+    @Test
+    void testRunLengthRoundTrip() throws IOException {
+        final long[] modes = new long[1000];
+        for (int i = 0; i < modes.length; i++) {
+            modes[i] = i < 300 ? 0 : i < 900 ? 3 : -1;
+        }
+
+        final byte[] encoded = encode(modes, RunLengthCodec.Encoder::new);
+        assertArrayEquals(modes, decode(encoded, modes.length, RunLengthCodec.Decoder::new));
+        assertThat(encoded.length).isLessThan(16);
+    }
+
+    private static byte[] encode(long[] values, Function<BitOutput, ValueEncoder> encoderFactory)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final BitOutput out = new BitOutput(new DataOutputStream(bytes));
+        final ValueEncoder encoder = encoderFactory.apply(out);
+        for (long value : values) {
+            encoder.encode(value);
+        }
+        encoder.finish();
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static long[] decode(byte[] encoded, int count, Function<BitInput, ValueDecoder> decoderFactory)
+            throws IOException {
+        final ValueDecoder decoder = decoderFactory.apply(
+                new BitInput(new DataInputStream(new ByteArrayInputStream(encoded))));
+        final long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = decoder.decode();
+        }
+        return values;
+    }
+}
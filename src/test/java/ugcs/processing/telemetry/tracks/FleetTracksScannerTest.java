@@ -0,0 +1,79 @@
+package ugcs.processing.telemetry.tracks;
+
+import com.ugcs.ucs.proto.DomainProto;
+import com.ugcs.ucs.proto.DomainProto.Track;
+import com.ugcs.ucs.proto.DomainProto.TrackPoint;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FleetTracksScannerTest {
+    private static final ZonedDateTime FROM_TIME = Instant.ofEpochMilli(0L).atZone(ZoneOffset.UTC);
+    private static final ZonedDateTime TO_TIME = Instant.ofEpochMilli(10_000L).atZone(ZoneOffset.UTC);
+
+    private final List<List<String>> requestedBatches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger runningRequests = new AtomicInteger();
+    private final AtomicInteger maxRunningRequests = new AtomicInteger();
+
+    @Test
+    void testVehiclesAreRequestedInBatchesAndTracksAreMerged() {
+        final List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 7; ++i) {
+            vehicles.add(Vehicle.newBuilder().setSerialNumber("serial-" + i).buildPartial());
+        }
+
+        final FleetTracksScanner scanner =
+                new FleetTracksScanner(new VehicleTracksIndex(System::currentTimeMillis), this::getServerTracks, 3, 2);
+        final List<VehicleTrack> tracks = scanner.scan(vehicles, FROM_TIME, TO_TIME);
+
+        assertThat(requestedBatches).hasSize(3);
+        assertThat(requestedBatches.stream().mapToInt(List::size).sum()).isEqualTo(7);
+        assertThat(maxRunningRequests.get()).isLessThanOrEqualTo(2);
+
+        assertThat(tracks).hasSize(14);
+        assertThat(tracks.stream().map(VehicleTrack::getStartEpochMilli).collect(toList())).isSorted();
+        assertThat(tracks.stream().filter(track -> track.getVehicle().getSerialNumber().equals("serial-5")))
+                .extracting(VehicleTrack::getStartEpochMilli)
+                .containsExactly(5L, 1005L);
+    }
+
+    private List<DomainProto.VehicleTrack> getServerTracks(List<Vehicle> vehicles, long from, long to, int limit) {
+        maxRunningRequests.accumulateAndGet(runningRequests.incrementAndGet(), Math::max);
+        try {
+            requestedBatches.add(vehicles.stream().map(Vehicle::getSerialNumber).collect(toList()));
+            Thread.sleep(20);
+
+            final List<DomainProto.VehicleTrack> tracks = new ArrayList<>();
+            for (Vehicle vehicle : vehicles) {
+                final long offset = Long.parseLong(vehicle.getSerialNumber().substring("serial-".length()));
+                tracks.add(track(vehicle, offset, offset + 500L));
+                tracks.add(track(vehicle, offset + 1000L, offset + 1500L));
+            }
+            return tracks;
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            runningRequests.decrementAndGet();
+        }
+    }
+
+    private static DomainProto.VehicleTrack track(Vehicle vehicle, long start, long end) {
+        return DomainProto.VehicleTrack.newBuilder()
+                .setVehicle(vehicle)
+                .setTrack(Track.newBuilder()
+                        .addPoints(TrackPoint.newBuilder().setTime(start).buildPartial())
+                        .addPoints(TrackPoint.newBuilder().setTime(end).buildPartial())
+                        .buildPartial())
+                .buildPartial();
+    }
+}
@@ -0,0 +1,185 @@
+package ugcs.processing.telemetry.tracks;
+
+import com.ugcs.ucs.proto.DomainProto;
+import com.ugcs.ucs.proto.DomainProto.Track;
+import com.ugcs.ucs.proto.DomainProto.TrackPoint;
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static ugcs.processing.telemetry.tracks.VehicleTracksIndex.UNLIMITED_TRACKS;
+
+class VehicleTracksIndexTest {
+    private static final long SETTLING_WINDOW_MS = 100L;
+
+    private final Vehicle vehicle = Vehicle.newBuilder().setSerialNumber("serial/1").buildPartial();
+    private final List<long[]> serverTracks = new ArrayList<>();
+    private final List<long[]> requestedRanges = new ArrayList<>();
+    private final List<Integer> requestedLimits = new ArrayList<>();
+    private final List<List<String>> requestedVehicles = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong();
+    private Path indexFolder;
+
+    @BeforeEach
+    void createIndexFolder() throws IOException {
+        indexFolder = Files.createTempDirectory("tracks-index");
+    }
+
+    @AfterEach
+    void deleteIndexFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(indexFolder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testOnlyTimeAfterWatermarkIsRequested() {
+        serverTracks.add(new long[]{100L, 200L});
+        serverTracks.add(new long[]{300L, 400L});
+        serverTracks.add(new long[]{900L, 990L});
+        now.set(1000L);
+
+        final VehicleTracksIndex index = openIndex();
+        assertThat(trackTimes(index, 0L, 1000L)).containsExactly(100L, 300L, 900L);
+        assertThat(requestedRanges).containsExactly(new long[]{0L, 1000L});
+
+        serverTracks.set(2, new long[]{900L, 1500L});
+        serverTracks.add(new long[]{1800L, 1850L});
+        serverTracks.add(new long[]{1950L, 1990L});
+        now.set(2000L);
+        assertThat(trackTimes(index, 0L, 2000L)).containsExactly(100L, 300L, 900L, 1800L, 1950L);
+        assertThat(requestedRanges.get(1)).containsExactly(900L, 2000L);
+
+        final VehicleTracksIndex reopenedIndex = openIndex();
+        assertThat(trackTimes(reopenedIndex, 250L, 2000L)).containsExactly(300L, 900L, 1800L, 1950L);
+        assertThat(requestedRanges.get(2)).containsExactly(1900L, 2000L);
+
+        assertThat(trackTimes(reopenedIndex, 150L, 350L)).containsExactly(100L, 300L);
+        assertThat(requestedRanges).hasSize(3);
+    }
+
+    @Test
+    void testTimeBeforeCoveredRangeReloadsTracks() {
+        serverTracks.add(new long[]{100L, 200L});
+        serverTracks.add(new long[]{600L, 700L});
+        now.set(1000L);
+
+        final VehicleTracksIndex index = openIndex();
+        assertThat(trackTimes(index, 500L, 1000L)).containsExactly(600L);
+        assertThat(trackTimes(index, 0L, 1000L)).containsExactly(100L, 600L);
+        assertThat(requestedRanges.get(1)).containsExactly(0L, 1000L);
+    }
+
+    @Test
+    void testTracksLimitIsSentForUnknownRange() {
+        for (long start = 100L; start < 800L; start += 100L) {
+            serverTracks.add(new long[]{start, start + 50L});
+        }
+        now.set(1000L);
+
+        final VehicleTracksIndex index = openIndex();
+        assertThat(trackTimes(index, 0L, 1000L, 3)).containsExactly(500L, 600L, 700L);
+        assertThat(requestedLimits).containsExactly(3);
+
+        serverTracks.add(new long[]{1100L, 1150L});
+        now.set(2000L);
+        assertThat(trackTimes(index, 0L, 2000L, 3)).containsExactly(600L, 700L, 1100L);
+        assertThat(requestedLimits).containsExactly(3, UNLIMITED_TRACKS);
+        assertThat(requestedRanges.get(1)).containsExactly(900L, 2000L);
+    }
+
+    @Test
+    void testVehiclesAreGroupedByWatermark() {
+        final Vehicle otherVehicle = Vehicle.newBuilder().setSerialNumber("serial/2").buildPartial();
+        final Vehicle newVehicle = Vehicle.newBuilder().setSerialNumber("serial/3").buildPartial();
+        serverTracks.add(new long[]{100L, 200L});
+        now.set(1000L);
+
+        final VehicleTracksIndex index = openIndex();
+        index.getVehicleTracks(this::getServerTracks, asList(vehicle, otherVehicle), 0L, 1000L, UNLIMITED_TRACKS);
+        now.set(2000L);
+        final Map<String, List<VehicleTrack>> tracks = index.getVehicleTracks(this::getServerTracks,
+                asList(vehicle, otherVehicle, newVehicle), 500L, 2000L, UNLIMITED_TRACKS);
+
+        assertThat(requestedVehicles).containsExactly(
+                asList("serial/1", "serial/2"), asList("serial/3"), asList("serial/1", "serial/2"));
+        assertThat(requestedRanges.get(1)).containsExactly(500L, 2000L);
+        assertThat(requestedRanges.get(2)).containsExactly(900L, 2000L);
+        assertThat(tracks).containsOnlyKeys("serial/1", "serial/2", "serial/3");
+    }
+
+    @Test
+    void testSerialsDifferingInSpecialCharactersAreIndexedSeparately() {
+        final Vehicle slashVehicle = Vehicle.newBuilder().setSerialNumber("A/1").buildPartial();
+        final Vehicle underscoreVehicle = Vehicle.newBuilder().setSerialNumber("A_1").buildPartial();
+        serverTracks.add(new long[]{100L, 200L});
+        now.set(1000L);
+
+        final VehicleTracksIndex index = openIndex();
+        final Map<String, List<VehicleTrack>> tracks = index.getVehicleTracks(this::getServerTracks,
+                asList(slashVehicle, underscoreVehicle), 0L, 1000L, UNLIMITED_TRACKS);
+
+        assertThat(requestedVehicles).containsExactly(asList("A/1", "A_1"));
+        assertThat(tracks).containsOnlyKeys("A/1", "A_1");
+        assertThat(tracks.get("A_1")).extracting(track -> track.getVehicle().getSerialNumber()).containsExactly("A_1");
+    }
+
+    private VehicleTracksIndex openIndex() {
+        final VehicleTracksIndex index = new VehicleTracksIndex(now::get);
+        index.open(indexFolder, SETTLING_WINDOW_MS);
+        return index;
+    }
+
+    private List<Long> trackTimes(VehicleTracksIndex index, long from, long to) {
+        return index.getVehicleTracks(this::getServerTracks, vehicle, from, to).stream()
+                .map(VehicleTrack::getStartEpochMilli)
+                .collect(toList());
+    }
+
+    private List<Long> trackTimes(VehicleTracksIndex index, long from, long to, int limit) {
+        return index.getVehicleTracks(this::getServerTracks, singletonList(vehicle), from, to, limit)
+                .get(vehicle.getSerialNumber()).stream()
+                .map(VehicleTrack::getStartEpochMilli)
+                .collect(toList());
+    }
+
+    private List<DomainProto.VehicleTrack> getServerTracks(List<Vehicle> vehicles, long from, long to, int limit) {
+        requestedRanges.add(new long[]{from, to});
+        requestedLimits.add(limit);
+        requestedVehicles.add(vehicles.stream().map(Vehicle::getSerialNumber).collect(toList()));
+
+        final List<long[]> tracks = serverTracks.stream()
+                .filter(track -> track[1] >= from && track[0] <= to)
+                .collect(toList());
+        final List<long[]> latestTracks = limit == UNLIMITED_TRACKS || tracks.size() <= limit
+                ? tracks
+                : tracks.subList(tracks.size() - limit, tracks.size());
+
+        final List<DomainProto.VehicleTrack> vehicleTracks = new ArrayList<>();
+        for (Vehicle requestedVehicle : vehicles) {
+            latestTracks.forEach(track -> vehicleTracks.add(DomainProto.VehicleTrack.newBuilder()
+                    .setVehicle(requestedVehicle)
+                    .setTrack(Track.newBuilder()
+                            .addPoints(TrackPoint.newBuilder().setTime(track[0]).buildPartial())
+                            .addPoints(TrackPoint.newBuilder().setTime(track[1]).buildPartial())
+                            .buildPartial())
+                    .buildPartial()));
+        }
+        return vehicleTracks;
+    }
+}
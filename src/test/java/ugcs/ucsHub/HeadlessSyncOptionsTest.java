@@ -0,0 +1,62 @@
+package ugcs.ucsHub;
+
+import com.ugcs.ucs.proto.DomainProto.Vehicle;
+import org.junit.jupiter.api.Test;
+import ugcs.upload.logbook.UploadSettings;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class HeadlessSyncOptionsTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("Europe/Riga");
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2018, 11, 20, 12, 0, 0, 0, ZONE_ID);
+
+    @Test
+    void testOptionsParsing() {
+        final HeadlessSyncOptions options = HeadlessSyncOptions.parse(new String[]{
+                "--vehicle", "^p4", "--vehicle", "SN-2",
+                "--from", "2018-11-01", "--to", "2018-11-02",
+                "--post-threads", "5", "--dry-run"
+        }, ZONE_ID, NOW);
+
+        assertEquals(ZonedDateTime.of(2018, 11, 1, 0, 0, 0, 0, ZONE_ID), options.getFromTime());
+        assertEquals(ZonedDateTime.of(2018, 11, 3, 0, 0, 0, 0, ZONE_ID), options.getToTime());
+        assertTrue(options.isDryRun());
+        assertFalse(options.getOutputPath().isPresent());
+
+        assertTrue(options.isVehicleSelected(vehicle("P4 Pro", "SN-1")));
+        assertTrue(options.isVehicleSelected(vehicle("Inspire", "SN-2")));
+        assertFalse(options.isVehicleSelected(vehicle("Inspire P4", "SN-3")));
+
+        final UploadSettings defaults = mock(UploadSettings.class);
+        doReturn(3).when(defaults).getUploadDownloadThreads();
+        final UploadSettings uploadSettings = options.toUploadSettings(defaults);
+        assertEquals(5, uploadSettings.getUploadPostThreads());
+        assertEquals(3, uploadSettings.getUploadDownloadThreads());
+    }
+
+    @Test
+    void testWrongArgumentsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessSyncOptions.parse(new String[]{"--from"}, ZONE_ID, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessSyncOptions.parse(new String[]{"--threads", "2"}, ZONE_ID, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessSyncOptions.parse(new String[]{"--post-threads", "0"}, ZONE_ID, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessSyncOptions.parse(new String[]{"--from", "2018-12-01"}, ZONE_ID, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> HeadlessSyncOptions.parse(new String[]{"--to", "yesterday"}, ZONE_ID, NOW));
+    }
+
+    private static Vehicle vehicle(String name, String serialNumber) {
+        return Vehicle.newBuilder().setName(name).setSerialNumber(serialNumber).buildPartial();
+    }
+}
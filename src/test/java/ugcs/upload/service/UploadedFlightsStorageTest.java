@@ -4,8 +4,12 @@ import org.junit.jupiter.api.Test;
 import ugcs.common.identity.Identity;
 import ugcs.processing.Flight;
 
+import java.util.BitSet;
+import java.util.List;
 import java.util.UUID;
 
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doReturn;
@@ -27,6 +31,18 @@ class UploadedFlightsStorageTest {
         assertFalse(storage().isUploaded(flightMock));
     }
 
+    @Test
+    void testBatchUploadStatus() {
+        final List<Flight> flights = asList(createFlightMock(), createFlightMock(), createFlightMock());
+        storage().storeAsUploaded(flights.get(1));
+
+        final BitSet uploadedFlights = storage().findUploaded(flights);
+
+        assertEquals(1, uploadedFlights.cardinality());
+        assertTrue(uploadedFlights.get(1));
+        storage().removeFromUploaded(flights.get(1));
+    }
+
     private static Flight createFlightMock() {
         final Flight flightMock = mock(Flight.class);
         final Identity<?> identity = Identity.of(UUID.randomUUID().toString());
@@ -0,0 +1,95 @@
+package ugcs.upload.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ugcs.common.identity.Identity;
+import ugcs.processing.Flight;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class FileUploadedFlightsStorageTest {
+    private Path storageFolder;
+
+    @BeforeEach
+    void createStorageFolder() throws IOException {
+        storageFolder = Files.createTempDirectory("uploaded-flights");
+    }
+
+    @AfterEach
+    void deleteStorageFolder() throws IOException {
+        try (Stream<Path> paths = Files.walk(storageFolder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testStorageSurvivesReopening() {
+        final Flight uploaded = createFlightMock("1000_2000_serial");
+        final Flight removed = createFlightMock("3000_4000_serial");
+        final Flight withLineBreak = createFlightMock("5000_6000_serial\nnext");
+
+        final FileUploadedFlightsStorage storage = new FileUploadedFlightsStorage();
+        storage.open(storageFolder);
+        storage.storeAsUploaded(uploaded);
+        storage.storeAsUploaded(removed);
+        storage.storeAsUploaded(withLineBreak);
+        storage.removeFromUploaded(removed);
+        storage.close();
+
+        final FileUploadedFlightsStorage reopenedStorage = new FileUploadedFlightsStorage();
+        reopenedStorage.open(storageFolder);
+        assertTrue(reopenedStorage.isUploaded(uploaded));
+        assertTrue(reopenedStorage.isUploaded(withLineBreak));
+        assertFalse(reopenedStorage.isUploaded(removed));
+        assertFalse(reopenedStorage.isUploaded(createFlightMock("5000_6000_serial")));
+        reopenedStorage.close();
+    }
+
+    @Test
+    void testTornLogRecordIsSkipped() throws IOException {
+        final Flight uploaded = createFlightMock("1000_2000_serial");
+
+        final FileUploadedFlightsStorage storage = new FileUploadedFlightsStorage();
+        storage.open(storageFolder);
+        storage.storeAsUploaded(uploaded);
+        storage.close();
+        Files.write(storageFolder.resolve("uploaded-flights.log"), "+3000_40".getBytes(StandardCharsets.UTF_8), APPEND);
+
+        final FileUploadedFlightsStorage reopenedStorage = new FileUploadedFlightsStorage();
+        reopenedStorage.open(storageFolder);
+        assertTrue(reopenedStorage.isUploaded(uploaded));
+        assertFalse(reopenedStorage.isUploaded(createFlightMock("3000_40")));
+        reopenedStorage.close();
+    }
+
+    @Test
+    void testOpeningAnotherFolderDropsLoadedFlights() {
+        final Flight uploaded = createFlightMock("1000_2000_serial");
+
+        final FileUploadedFlightsStorage storage = new FileUploadedFlightsStorage();
+        storage.open(storageFolder);
+        storage.storeAsUploaded(uploaded);
+        storage.open(storageFolder.resolve("other"));
+        assertFalse(storage.isUploaded(uploaded));
+        storage.close();
+    }
+
+    private static Flight createFlightMock(String id) {
+        final Flight flightMock = mock(Flight.class);
+        doReturn(Identity.of(id)).when(flightMock).getId();
+
+        return flightMock;
+    }
+}